@@ -0,0 +1,152 @@
+package com.gemini.dorametricsviewer.application;
+
+import com.gemini.dorametricsviewer.domain.DurationSketch;
+import com.gemini.dorametricsviewer.domain.TimeWindow;
+import com.gemini.dorametricsviewer.domain.port.SourceControlPort;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Scans many repositories over the same time window, at most {@code parallelism} at a time, and
+ * reports each repository as soon as its scan finishes, followed by an aggregate over all of them.
+ * A repository whose scan fails is reported with its error and left out of the aggregate. Its GitHub
+ * calls run as {@link ScanPriority#BACKGROUND}, so a batch over a whole organization does not hold up
+ * single-repository scans.
+ */
+public class BatchScanService {
+
+    public record RepositoryScan(String repoUrl, DoraMetricsResult result, String error) {
+    }
+
+    public record Summary(int repositories, int failed, DoraMetricsResult aggregate) {
+    }
+
+    private final CachingDoraMetricsService doraMetricsService;
+    private final SourceControlPort sourceControlPort;
+    private final int parallelism;
+    private final int maxRepositories;
+
+    public BatchScanService(CachingDoraMetricsService doraMetricsService, SourceControlPort sourceControlPort,
+                            int parallelism, int maxRepositories) {
+        this.doraMetricsService = doraMetricsService;
+        this.sourceControlPort = sourceControlPort;
+        this.parallelism = parallelism;
+        this.maxRepositories = maxRepositories;
+    }
+
+    /**
+     * The given repositories plus those of {@code organization}, if set, without duplicates.
+     *
+     * @throws IllegalArgumentException when that leaves nothing to scan, or more than {@code maxRepositories}
+     */
+    public List<String> resolveRepositories(List<String> repoUrls, String organization) {
+        LinkedHashSet<String> resolved = new LinkedHashSet<>();
+        if (repoUrls != null) {
+            repoUrls.stream().filter(url -> url != null && !url.isBlank()).map(String::trim).forEach(resolved::add);
+        }
+        if (organization != null && !organization.isBlank()) {
+            resolved.addAll(sourceControlPort.listRepositories(organization.trim()));
+        }
+        if (resolved.isEmpty()) {
+            throw new IllegalArgumentException("No repositories to scan");
+        }
+        if (resolved.size() > maxRepositories) {
+            throw new IllegalArgumentException("Too many repositories to scan at once: " + resolved.size()
+                    + " (max " + maxRepositories + ")");
+        }
+        return List.copyOf(resolved);
+    }
+
+    /**
+     * Scans every repository and hands each result to {@code onResult} in completion order, one at a time.
+     */
+    public Summary scan(List<String> repoUrls, TimeWindow timeWindow, Consumer<RepositoryScan> onResult) {
+        List<RepositoryScan> scans = new ArrayList<>();
+        // Set when onResult throws, e.g. because the client went away; no further scans are started then
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        Semaphore permits = new Semaphore(parallelism);
+        // Closing the executor waits for the scans in flight. An interrupt cancels them, whether it reaches
+        // close() or, more likely, permits.acquire(), which clears it, so that path cancels them itself.
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            try {
+                for (String repoUrl : repoUrls) {
+                    permits.acquire();
+                    if (failure.get() != null) {
+                        break;
+                    }
+                    executor.execute(() -> {
+                        try {
+                            RepositoryScan scan = scanOne(repoUrl, timeWindow);
+                            synchronized (scans) {
+                                if (failure.get() == null) {
+                                    scans.add(scan);
+                                    onResult.accept(scan);
+                                }
+                            }
+                        } catch (RuntimeException e) {
+                            failure.compareAndSet(null, e);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while scanning repositories", e);
+            }
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+
+        List<DoraMetricsResult> results = scans.stream()
+                .filter(scan -> scan.result() != null)
+                .map(RepositoryScan::result)
+                .toList();
+        return new Summary(repoUrls.size(), scans.size() - results.size(), aggregate(results));
+    }
+
+    private RepositoryScan scanOne(String repoUrl, TimeWindow timeWindow) {
+        try {
+            DoraMetricsResult result = ScanPriority.BACKGROUND.call(() -> doraMetricsService.calculateMetrics(repoUrl, timeWindow));
+            return new RepositoryScan(repoUrl, result, null);
+        } catch (RuntimeException e) {
+            return new RepositoryScan(repoUrl, null, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Metrics of the repositories taken together over the shared window. Deployment frequencies add
+     * up, and change failure rate is averaged weighted by each repository's deployment frequency, which
+     * over the shared window is proportional to its number of deployments. Lead time and time to
+     * restore are the means of the merged sketches, i.e. over every matched change and every restored
+     * incident in the batch, so they agree with the percentiles reported next to them.
+     */
+    static DoraMetricsResult aggregate(List<DoraMetricsResult> results) {
+        double deploymentFrequency = 0;
+        double changeFailureRate = 0;
+        DurationSketch leadTimes = new DurationSketch();
+        DurationSketch restoreTimes = new DurationSketch();
+        for (DoraMetricsResult result : results) {
+            leadTimes.merge(result.leadTimeSketch());
+            restoreTimes.merge(result.timeToRestoreSketch());
+            deploymentFrequency += result.deploymentFrequency();
+            changeFailureRate += result.deploymentFrequency() * result.changeFailureRate();
+        }
+        return new DoraMetricsResult(
+                leadTimes.mean(),
+                deploymentFrequency,
+                deploymentFrequency == 0 ? 0 : changeFailureRate / deploymentFrequency,
+                restoreTimes.mean(),
+                leadTimes,
+                restoreTimes);
+    }
+}
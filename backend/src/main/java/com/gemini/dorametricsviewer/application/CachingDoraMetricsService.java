@@ -0,0 +1,47 @@
+package com.gemini.dorametricsviewer.application;
+
+import com.gemini.dorametricsviewer.domain.TimeWindow;
+import com.gemini.dorametricsviewer.domain.TrendBucket;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Entry point for metric queries: answers repeated {@code calculateMetrics} calls from a
+ * {@link MetricsResultCache} and only falls through to {@link DoraMetricsService} on a miss.
+ * Cached results of a repository are dropped once newly saved events for it are committed.
+ */
+@Service
+public class CachingDoraMetricsService {
+
+    private final DoraMetricsService doraMetricsService;
+    private final MetricsResultCache resultCache;
+
+    public CachingDoraMetricsService(DoraMetricsService doraMetricsService, MetricsResultCache resultCache) {
+        this.doraMetricsService = doraMetricsService;
+        this.resultCache = resultCache;
+    }
+
+    public DoraMetricsResult calculateMetrics(String repoUrl, TimeWindow timeWindow) {
+        return resultCache.get(repoUrl, timeWindow, () -> doraMetricsService.calculateMetrics(repoUrl, timeWindow));
+    }
+
+    public DoraMetricsResult calculateMetrics(String repoUrl, TimeWindow timeWindow, ScanProgress progress) {
+        return resultCache.get(repoUrl, timeWindow, () -> doraMetricsService.calculateMetrics(repoUrl, timeWindow, progress));
+    }
+
+    /**
+     * Trends are not cached: each call syncs the repository and folds the daily rollups afresh.
+     */
+    public MetricsTrend calculateTrend(String repoUrl, TimeWindow timeWindow, TrendBucket bucket) {
+        return doraMetricsService.calculateTrend(repoUrl, timeWindow, bucket);
+    }
+
+    public MetricsResultCache.Stats cacheStats() {
+        return resultCache.stats();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventsSaved(EventsSavedEvent event) {
+        resultCache.invalidate(event.repositoryUrl());
+    }
+}
@@ -1,11 +1,38 @@
 package com.gemini.dorametricsviewer.application;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.gemini.dorametricsviewer.domain.DurationPercentiles;
+import com.gemini.dorametricsviewer.domain.DurationSketch;
+
 import java.time.Duration;
 
 public record DoraMetricsResult(
     Duration leadTimeForChanges,
     double deploymentFrequency, // Deployments per day
     double changeFailureRate,   // Percentage (0-100)
-    Duration timeToRestoreService
+    Duration timeToRestoreService,
+    // Every lead time and restore time of the window, for percentiles and for merging results of
+    // several repositories. Results are shared through the cache, so never add to these.
+    @JsonIgnore DurationSketch leadTimeSketch,
+    @JsonIgnore DurationSketch timeToRestoreSketch
 ) {
-}
\ No newline at end of file
+    /**
+     * A result without the durations behind its means; its percentiles are all zero.
+     */
+    public DoraMetricsResult(Duration leadTimeForChanges, double deploymentFrequency, double changeFailureRate,
+                             Duration timeToRestoreService) {
+        this(leadTimeForChanges, deploymentFrequency, changeFailureRate, timeToRestoreService,
+                new DurationSketch(), new DurationSketch());
+    }
+
+    @JsonProperty
+    public DurationPercentiles leadTimePercentiles() {
+        return leadTimeSketch.percentiles();
+    }
+
+    @JsonProperty
+    public DurationPercentiles timeToRestorePercentiles() {
+        return timeToRestoreSketch.percentiles();
+    }
+}
@@ -1,102 +1,469 @@
 package com.gemini.dorametricsviewer.application;
 
+import com.gemini.dorametricsviewer.domain.DailyRollups;
+import com.gemini.dorametricsviewer.domain.DurationSketch;
 import com.gemini.dorametricsviewer.domain.LeadTimeCalculator;
+import com.gemini.dorametricsviewer.domain.PrReferences;
+import com.gemini.dorametricsviewer.domain.RepositoryUrls;
 import com.gemini.dorametricsviewer.domain.TimeWindow;
+import com.gemini.dorametricsviewer.domain.TrendBucket;
 import com.gemini.dorametricsviewer.domain.model.Change;
+import com.gemini.dorametricsviewer.domain.model.DailyRollup;
 import com.gemini.dorametricsviewer.domain.model.Deployment;
 import com.gemini.dorametricsviewer.domain.model.Incident;
+import com.gemini.dorametricsviewer.domain.model.SyncState;
 import com.gemini.dorametricsviewer.domain.port.MetricsRepositoryPort;
 import com.gemini.dorametricsviewer.domain.port.SourceControlPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class DoraMetricsService {
 
+    private static final Logger log = LoggerFactory.getLogger(DoraMetricsService.class);
+
     private final SourceControlPort sourceControlPort;
     private final MetricsRepositoryPort metricsRepositoryPort;
     private final LeadTimeCalculator leadTimeCalculator;
+    private final ScanMetrics scanMetrics;
 
     public DoraMetricsService(SourceControlPort sourceControlPort,
                               MetricsRepositoryPort metricsRepositoryPort,
-                              LeadTimeCalculator leadTimeCalculator) {
+                              LeadTimeCalculator leadTimeCalculator,
+                              ScanMetrics scanMetrics) {
         this.sourceControlPort = sourceControlPort;
         this.metricsRepositoryPort = metricsRepositoryPort;
         this.leadTimeCalculator = leadTimeCalculator;
+        this.scanMetrics = scanMetrics;
     }
 
     public DoraMetricsResult calculateMetrics(String repoUrl, TimeWindow timeWindow) {
-        // 1. Fetch all raw data starting from the window start
-        List<Deployment> deployments = sourceControlPort.fetchDeployments(repoUrl, timeWindow.start());
-        List<Change> changes = sourceControlPort.fetchChanges(repoUrl, timeWindow.start());
-        List<Incident> incidents = sourceControlPort.fetchIncidents(repoUrl, timeWindow.start());
-
-        // Filter data to exclude items after the window end
-        deployments = deployments.stream()
-                .filter(d -> !d.deployedAt().isAfter(timeWindow.end()))
-                .toList();
-        changes = changes.stream()
-                .filter(c -> !c.mergedAt().isAfter(timeWindow.end()))
-                .toList();
-        incidents = incidents.stream()
-                .filter(i -> !i.createdAt().isAfter(timeWindow.end()))
-                .toList();
-
-        System.out.println("DEBUG: Fetched " + deployments.size() + " deployments (in window)");
-        deployments.forEach(d -> {
-            String bodySnippet = d.description() != null ? d.description().substring(0, Math.min(d.description().length(), 50)).replace("\n", " ") : "null";
-            System.out.println("DEBUG: Deployment: " + d.id() + " at " + d.deployedAt() + " Body: " + bodySnippet + "...");
-        });
-
-        System.out.println("DEBUG: Fetched " + changes.size() + " changes (in window)");
-        if (!changes.isEmpty()) {
-            System.out.println("DEBUG: Newest Change: " + changes.get(0).id() + " mergedAt: " + changes.get(0).mergedAt());
-            System.out.println("DEBUG: Oldest Change: " + changes.get(changes.size() - 1).id() + " mergedAt: " + changes.get(changes.size() - 1).mergedAt());
-        }
-
-        // 2. Persist (Optional for MVP, but good practice)
-        metricsRepositoryPort.saveDeployments(deployments);
-        metricsRepositoryPort.saveChanges(changes);
-        metricsRepositoryPort.saveIncidents(incidents);
-
-        // 3. Calculate Lead Time
-        Duration leadTime = leadTimeCalculator.calculate(changes, deployments);
-        System.out.println("DEBUG: Calculated Lead Time: " + leadTime);
+        return calculateMetrics(repoUrl, timeWindow, ScanProgress.NONE);
+    }
+
+    public DoraMetricsResult calculateMetrics(String repoUrl, TimeWindow timeWindow, ScanProgress progress) {
+        // 1. Bring the stored history up to date.
+        // Once a repository has been synced from before the window start, only the delta is fetched
+        // and the window is answered from the daily rollups instead of the raw events.
+        Optional<SyncState> syncState = metricsRepositoryPort.findSyncState(repoUrl)
+                .filter(state -> !state.syncedFrom().isAfter(timeWindow.start()));
+        if (syncState.isPresent()) {
+            return scanMetrics.scan("delta", () -> {
+                syncDelta(repoUrl, syncState.get(), progress);
+                progress.stage(ScanProgress.Stage.AGGREGATE);
+                return scanMetrics.aggregate(() -> metricsFromRollups(repoUrl, timeWindow));
+            });
+        }
+        return scanMetrics.scan("window", () -> syncWindow(repoUrl, timeWindow, progress));
+    }
+
+    /**
+     * Metrics of every {@code bucket}-sized slice of the window in one pass over the daily rollups, after
+     * the same sync as {@link #calculateMetrics}. Results are not cached.
+     */
+    public MetricsTrend calculateTrend(String repoUrl, TimeWindow timeWindow, TrendBucket bucket) {
+        if (bucket == null) {
+            throw new IllegalArgumentException("bucket is required");
+        }
+        if (!timeWindow.end().isAfter(timeWindow.start())) {
+            throw new IllegalArgumentException("timeWindow must end after it starts");
+        }
+        Optional<SyncState> syncState = metricsRepositoryPort.findSyncState(repoUrl)
+                .filter(state -> !state.syncedFrom().isAfter(timeWindow.start()));
+        if (syncState.isPresent()) {
+            syncDelta(repoUrl, syncState.get(), ScanProgress.NONE);
+        } else {
+            // Saves the rollups of every day of the window on the way
+            syncWindow(repoUrl, timeWindow, ScanProgress.NONE);
+        }
+
+        List<TimeWindow> buckets = bucket.split(timeWindow);
+        List<DoraMetricsResult> metrics = scanMetrics.aggregate(() -> metricsFromRollups(repoUrl, timeWindow, buckets));
+        List<MetricsTrend.Point> points = new ArrayList<>(buckets.size());
+        for (int i = 0; i < buckets.size(); i++) {
+            points.add(new MetricsTrend.Point(buckets.get(i), metrics.get(i)));
+        }
+        return new MetricsTrend(timeWindow, bucket, points);
+    }
+
+    private DoraMetricsResult metricsFromRollups(String repoUrl, TimeWindow timeWindow) {
+        return metricsFromRollups(repoUrl, timeWindow, List.of(timeWindow)).get(0);
+    }
+
+    /**
+     * Sums one rollup row per day instead of loading the window's events, into the bucket each day falls
+     * in. Buckets split the window at UTC midnights, so only the partial first and last day of the window
+     * need their deployments and incidents counted from the raw events to keep the window bounds exact;
+     * lead time is averaged over the changes merged on every day the window touches. The days' duration
+     * sketches are merged the same way for the percentiles.
+     */
+    private List<DoraMetricsResult> metricsFromRollups(String repoUrl, TimeWindow timeWindow, List<TimeWindow> buckets) {
+        LocalDate firstDay = DailyRollups.dayOf(timeWindow.start());
+        LocalDate lastDay = DailyRollups.dayOf(timeWindow.end());
+        List<DailyRollup> rollups = metricsRepositoryPort.findDailyRollups(repoUrl, firstDay, lastDay);
+        log.debug("Summing {} daily rollups of {} from {} to {} into {} buckets", rollups.size(), repoUrl, firstDay, lastDay, buckets.size());
+
+        int n = buckets.size();
+        long[] deploymentCount = new long[n];
+        long[] incidentCount = new long[n];
+        long[] restoreSeconds = new long[n];
+        long[] leadTimeSeconds = new long[n];
+        long[] leadTimeCount = new long[n];
+        DurationSketch[] leadTimes = new DurationSketch[n];
+        DurationSketch[] restoreTimes = new DurationSketch[n];
+        for (int i = 0; i < n; i++) {
+            leadTimes[i] = new DurationSketch();
+            restoreTimes[i] = new DurationSketch();
+        }
 
+        // Rollups come ordered by day, so the bucket only ever moves forward
+        int b = 0;
+        for (DailyRollup rollup : rollups) {
+            Instant dayStart = DailyRollups.startOf(rollup.day());
+            while (b + 1 < n && !dayStart.isBefore(buckets.get(b + 1).start())) {
+                b++;
+            }
+            leadTimeSeconds[b] += rollup.leadTimeSeconds();
+            leadTimeCount[b] += rollup.leadTimeCount();
+            leadTimes[b].merge(rollup.leadTimeSketch());
+            if (rollup.day().isAfter(firstDay) && rollup.day().isBefore(lastDay)) {
+                deploymentCount[b] += rollup.deploymentCount();
+                incidentCount[b] += rollup.incidentCount();
+                restoreSeconds[b] += rollup.restoreSeconds();
+                restoreTimes[b].merge(rollup.restoreSketch());
+            }
+        }
+
+        for (LocalDate edge : firstDay.equals(lastDay) ? List.of(firstDay) : List.of(firstDay, lastDay)) {
+            int slot = edge.equals(firstDay) ? 0 : n - 1;
+            Instant from = max(DailyRollups.startOf(edge), timeWindow.start());
+            Instant to = min(DailyRollups.startOf(edge.plusDays(1)), timeWindow.end());
+            // The range query is inclusive, so drop anything at the next midnight
+            deploymentCount[slot] += metricsRepositoryPort.findDeployments(repoUrl, from, to).stream()
+                    .filter(d -> DailyRollups.dayOf(d.deployedAt()).equals(edge))
+                    .count();
+            for (Incident incident : metricsRepositoryPort.findIncidents(repoUrl, from, to)) {
+                if (DailyRollups.dayOf(incident.createdAt()).equals(edge)) {
+                    incidentCount[slot]++;
+                    if (incident.resolvedAt() != null) {
+                        Duration restore = Duration.between(incident.createdAt(), incident.resolvedAt());
+                        restoreSeconds[slot] += restore.getSeconds();
+                        restoreTimes[slot].add(restore);
+                    }
+                }
+            }
+        }
+
+        List<DoraMetricsResult> results = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            // 3. Calculate Lead Time
+            Duration leadTime = leadTimeCount[i] == 0 ? Duration.ZERO : Duration.ofSeconds(leadTimeSeconds[i] / leadTimeCount[i]);
+            results.add(result(buckets.get(i), leadTime, deploymentCount[i], incidentCount[i], restoreSeconds[i],
+                    leadTimes[i], restoreTimes[i]));
+        }
+        return results;
+    }
+
+    private static DoraMetricsResult result(TimeWindow timeWindow, Duration leadTime,
+                                            long deploymentCount, long incidentCount, long restoreSeconds,
+                                            DurationSketch leadTimes, DurationSketch restoreTimes) {
         // 4. Calculate Deployment Frequency
         // Logic: Total Deployments / Days in Window
         long daysInWindow = ChronoUnit.DAYS.between(timeWindow.start(), timeWindow.end());
         if (daysInWindow == 0) daysInWindow = 1; // Avoid division by zero
-        double deploymentFrequency = (double) deployments.size() / daysInWindow;
+        double deploymentFrequency = (double) deploymentCount / daysInWindow;
 
         // 5. Calculate Change Failure Rate
         // Logic: (Incidents / Deployments) * 100
         // Simplification: We assume 1 incident = 1 failed deployment.
         double changeFailureRate = 0.0;
-        if (!deployments.isEmpty()) {
-            changeFailureRate = ((double) incidents.size() / deployments.size()) * 100.0;
+        if (deploymentCount > 0) {
+            changeFailureRate = ((double) incidentCount / deploymentCount) * 100.0;
         }
 
         // 6. Calculate Time to Restore Service
         // Logic: Average (ResolvedAt - CreatedAt)
         Duration timeToRestore = Duration.ZERO;
-        if (!incidents.isEmpty()) {
-            long totalSeconds = incidents.stream()
-                    .mapToLong(i -> Duration.between(i.createdAt(), i.resolvedAt()).getSeconds())
-                    .sum();
-            timeToRestore = Duration.ofSeconds(totalSeconds / incidents.size());
+        if (incidentCount > 0) {
+            timeToRestore = Duration.ofSeconds(restoreSeconds / incidentCount);
         }
 
         return new DoraMetricsResult(
             leadTime,
             deploymentFrequency,
             changeFailureRate,
-            timeToRestore
+            timeToRestore,
+            leadTimes,
+            restoreTimes
         );
     }
+
+    /**
+     * First scan of a repository, or a window reaching further back than what is stored:
+     * fetches the whole window and records how far the stored history now reaches. Changes are
+     * persisted and folded into the lead time one page at a time while the next pages download.
+     */
+    private DoraMetricsResult syncWindow(String repoUrl, TimeWindow timeWindow, ScanProgress progress) {
+        Instant start = timeWindow.start();
+        try (Stream<List<Change>> changeStream = sourceControlPort.streamChanges(repoUrl, start)) {
+            Iterator<List<Change>> changePages = timed(changeStream.iterator());
+            progress.stage(ScanProgress.Stage.FETCH);
+            Fetched fetched = fetch(repoUrl, start, changePages, start);
+            progress.stage(ScanProgress.Stage.SYNC);
+
+            // Filter data to exclude items after the window end
+            List<Deployment> deployments = fetched.deployments().stream()
+                    .filter(d -> !d.deployedAt().isAfter(timeWindow.end()))
+                    .toList();
+            List<Incident> incidents = fetched.incidents().stream()
+                    .filter(i -> !i.createdAt().isAfter(timeWindow.end()))
+                    .toList();
+
+
+            // 2. Persist, then remember the high-water marks for the next scan.
+            // Nothing before the window start is stored and the fetch covers everything since, so the
+            // rollups of the window's days can be built from memory.
+            scanMetrics.persist("deployments", () -> metricsRepositoryPort.saveDeployments(deployments));
+            progress.eventsSaved(deployments.size());
+            scanMetrics.persist("incidents", () -> metricsRepositoryPort.saveIncidents(incidents));
+            progress.eventsSaved(incidents.size());
+            DailyRollups rollups = new DailyRollups(repoUrl, DailyRollups.dayOf(start), DailyRollups.dayOf(timeWindow.end()));
+            deployments.forEach(rollups::addDeployment);
+            incidents.forEach(rollups::addIncident);
+
+            // 3. Calculate Lead Time
+            LeadTimeCalculator.Accumulator leadTimes = leadTimeCalculator.accumulator(deployments);
+            Instant changesSyncedTo = start;
+            long changeCount = 0;
+            while (changePages.hasNext()) {
+                List<Change> page = changePages.next().stream()
+                        .filter(c -> !c.mergedAt().isAfter(timeWindow.end()))
+                        .toList();
+                progress.pageFetched(page.size());
+                scanMetrics.persist("changes", () -> metricsRepositoryPort.saveChanges(page));
+                progress.eventsSaved(page.size());
+                scanMetrics.match(() -> {
+                    for (Change change : page) {
+                        leadTimes.add(change).ifPresent(leadTime -> rollups.addLeadTime(change.mergedAt(), leadTime));
+                    }
+                });
+                changesSyncedTo = latest(page, Change::mergedAt, changesSyncedTo);
+                changeCount += page.size();
+            }
+
+            progress.stage(ScanProgress.Stage.AGGREGATE);
+            Duration leadTime = leadTimes.average();
+            if (log.isDebugEnabled()) {
+                log.debug("Synced {} from {}: {} deployments, {} changes ({} matched), {} incidents; lead time {}",
+                        repoUrl, start, deployments.size(), changeCount, leadTimes.sketch().count(), incidents.size(), leadTime);
+            }
+
+            scanMetrics.persist("rollups", () -> metricsRepositoryPort.saveDailyRollups(rollups.build()));
+            SyncState syncState = new SyncState(
+                    repoUrl,
+                    start,
+                    latest(deployments, Deployment::deployedAt, start),
+                    changesSyncedTo,
+                    latest(incidents, Incident::createdAt, start),
+                    Instant.now());
+            scanMetrics.persist("syncState", () -> metricsRepositoryPort.saveSyncState(syncState));
+
+            return scanMetrics.aggregate(() -> {
+                long restoreSeconds = 0;
+                DurationSketch restoreTimes = new DurationSketch();
+                for (Incident incident : incidents) {
+                    if (incident.resolvedAt() != null) {
+                        Duration restore = Duration.between(incident.createdAt(), incident.resolvedAt());
+                        restoreSeconds += restore.getSeconds();
+                        restoreTimes.add(restore);
+                    }
+                }
+                return result(timeWindow, leadTime, deployments.size(), incidents.size(), restoreSeconds,
+                        leadTimes.sketch(), restoreTimes);
+            });
+        }
+    }
+
+    /**
+     * The stored history already reaches back to the window start: fetch only what happened
+     * after the high-water marks and fold it into the stored events and rollups.
+     */
+    private void syncDelta(String repoUrl, SyncState state, ScanProgress progress) {
+        try (Stream<List<Change>> changeStream = sourceControlPort.streamChanges(repoUrl, state.changesSyncedTo())) {
+            Iterator<List<Change>> changePages = timed(changeStream.iterator());
+            progress.stage(ScanProgress.Stage.FETCH);
+            Fetched delta = fetch(repoUrl, state.deploymentsSyncedTo(), changePages, state.incidentsSyncedTo());
+            progress.stage(ScanProgress.Stage.SYNC);
+
+            // 2. Persist the delta page by page, refresh the rollups it touched and advance the high-water marks
+            TouchedSpan touched = new TouchedSpan();
+            scanMetrics.persist("deployments", () -> metricsRepositoryPort.saveDeployments(delta.deployments()));
+            progress.eventsSaved(delta.deployments().size());
+            delta.deployments().forEach(d -> touched.add(d.deployedAt()));
+            scanMetrics.persist("incidents", () -> metricsRepositoryPort.saveIncidents(delta.incidents()));
+            progress.eventsSaved(delta.incidents().size());
+            delta.incidents().forEach(i -> touched.add(i.createdAt()));
+            Instant changesSyncedTo = state.changesSyncedTo();
+            long changeCount = 0;
+            while (changePages.hasNext()) {
+                List<Change> page = changePages.next();
+                progress.pageFetched(page.size());
+                scanMetrics.persist("changes", () -> metricsRepositoryPort.saveChanges(page));
+                progress.eventsSaved(page.size());
+                page.forEach(c -> touched.add(c.mergedAt()));
+                changesSyncedTo = latest(page, Change::mergedAt, changesSyncedTo);
+                changeCount += page.size();
+            }
+            log.debug("Synced delta of {}: {} deployments, {} changes, {} incidents",
+                    repoUrl, delta.deployments().size(), changeCount, delta.incidents().size());
+
+            refreshRollups(repoUrl, touched, state.deploymentsSyncedTo(), delta.deployments());
+            SyncState syncState = new SyncState(
+                    repoUrl,
+                    state.syncedFrom(),
+                    latest(delta.deployments(), Deployment::deployedAt, state.deploymentsSyncedTo()),
+                    changesSyncedTo,
+                    latest(delta.incidents(), Incident::createdAt, state.incidentsSyncedTo()),
+                    Instant.now());
+            scanMetrics.persist("syncState", () -> metricsRepositoryPort.saveSyncState(syncState));
+        }
+    }
+
+    /**
+     * Recomputes, from the stored events, the rollups of every day between the earliest and the latest
+     * delta event. The range reaches back to the previous deployment high-water mark as well: changes
+     * merged after it had no later deployment to match yet and may match one from this delta. It also
+     * reaches back to the merge of every stored change a delta deployment names by SHA or in its release
+     * body, since those strategies run before the time window and have no time bound: such a change
+     * moves to the new deployment however long ago it was merged.
+     */
+    private void refreshRollups(String repoUrl, TouchedSpan touched, Instant deploymentsSyncedTo, List<Deployment> deployments) {
+        if (touched.latest == null) {
+            return;
+        }
+
+        Instant earliest = min(touched.earliest, deploymentsSyncedTo);
+        for (Change change : changesNamedBy(repoUrl, deployments)) {
+            if (change.mergedAt() != null) {
+                earliest = min(earliest, change.mergedAt());
+            }
+        }
+        LocalDate from = DailyRollups.dayOf(earliest);
+        LocalDate to = DailyRollups.dayOf(touched.latest);
+        Instant rangeStart = DailyRollups.startOf(from);
+        Instant rangeEnd = DailyRollups.startOf(to.plusDays(1));
+        List<DailyRollup> rollups = DailyRollups.compute(repoUrl, from, to,
+                metricsRepositoryPort.findDeployments(repoUrl, rangeStart, rangeEnd),
+                metricsRepositoryPort.findChanges(repoUrl, rangeStart, rangeEnd),
+                metricsRepositoryPort.findIncidents(repoUrl, rangeStart, rangeEnd),
+                leadTimeCalculator);
+        scanMetrics.persist("rollups", () -> metricsRepositoryPort.saveDailyRollups(rollups));
+    }
+
+    /**
+     * Stored changes the commit SHA or release body strategies could match to one of the deployments.
+     */
+    private List<Change> changesNamedBy(String repoUrl, List<Deployment> deployments) {
+        String repoPath = RepositoryUrls.path(repoUrl);
+        Set<String> ids = new HashSet<>();
+        Set<String> commitShas = new HashSet<>();
+        for (Deployment deployment : deployments) {
+            if (deployment.commitSha() != null) {
+                commitShas.add(deployment.commitSha());
+            }
+            PrReferences.parse(deployment.description()).forEach(prNumber -> ids.add(PrReferences.changeId(repoPath, prNumber)));
+        }
+        if (ids.isEmpty() && commitShas.isEmpty()) {
+            return List.of();
+        }
+        return metricsRepositoryPort.findChanges(repoUrl, ids, commitShas);
+    }
+
+    /**
+     * Fetches deployments and incidents and waits for the first page of changes, concurrently.
+     * The remaining change pages are left for the caller to pull.
+     */
+    private Fetched fetch(String repoUrl, Instant deploymentsSince, Iterator<List<Change>> changePages, Instant incidentsSince) {
+        // Fetch the three event streams concurrently
+        try (FetchScope scope = new FetchScope()) {
+            Supplier<List<Deployment>> deployments = scope.fork(() -> scanMetrics.fetch("fetchDeployments",
+                    () -> sourceControlPort.fetchDeployments(repoUrl, deploymentsSince)));
+            scope.fork(changePages::hasNext);
+            Supplier<List<Incident>> incidents = scope.fork(() -> scanMetrics.fetch("fetchIncidents",
+                    () -> sourceControlPort.fetchIncidents(repoUrl, incidentsSince)));
+            scope.join();
+
+            return new Fetched(deployments.get(), incidents.get());
+        }
+    }
+
+    /**
+     * Times every wait for the next page of changes, which is where the download happens.
+     */
+    private Iterator<List<Change>> timed(Iterator<List<Change>> changePages) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return scanMetrics.fetch("streamChanges", changePages::hasNext);
+            }
+
+            @Override
+            public List<Change> next() {
+                return changePages.next();
+            }
+        };
+    }
+
+    private static <T> Instant latest(List<T> events, Function<T, Instant> timestamp, Instant fallback) {
+        return events.stream()
+                .map(timestamp)
+                .filter(Objects::nonNull)
+                .reduce(fallback, (a, b) -> b.isAfter(a) ? b : a);
+    }
+
+    private static Instant min(Instant a, Instant b) {
+        return b.isBefore(a) ? b : a;
+    }
+
+    private static Instant max(Instant a, Instant b) {
+        return b.isAfter(a) ? b : a;
+    }
+
+    private record Fetched(List<Deployment> deployments, List<Incident> incidents) {
+    }
+
+    /**
+     * Earliest and latest timestamp seen among the delta events.
+     */
+    private static final class TouchedSpan {
+
+        private Instant earliest;
+        private Instant latest;
+
+        void add(Instant timestamp) {
+            if (timestamp == null) {
+                return;
+            }
+            earliest = earliest == null ? timestamp : min(earliest, timestamp);
+            latest = latest == null ? timestamp : max(latest, timestamp);
+        }
+    }
 }
@@ -0,0 +1,7 @@
+package com.gemini.dorametricsviewer.application;
+
+/**
+ * Published when deployments, changes or incidents of a repository have been saved.
+ */
+public record EventsSavedEvent(String repositoryUrl) {
+}
@@ -0,0 +1,69 @@
+package com.gemini.dorametricsviewer.application;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Runs a handful of blocking calls concurrently, one virtual thread each, with the semantics of
+ * {@code StructuredTaskScope.ShutdownOnFailure}: the first failure interrupts the sibling tasks and is
+ * rethrown from {@link #join()}, and no task outlives the scope.
+ * <p>
+ * Stands in for the JDK API while it is still a preview feature on Java 21.
+ */
+final class FetchScope implements AutoCloseable {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /**
+     * Starts the task and returns a handle whose {@code get()} may only be called after {@link #join()}.
+     */
+    <T> Supplier<T> fork(Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(task) {
+            @Override
+            protected void setException(Throwable t) {
+                super.setException(t);
+                if (failure.compareAndSet(null, t)) {
+                    executor.shutdownNow();
+                }
+            }
+        };
+        try {
+            executor.execute(future);
+        } catch (RejectedExecutionException e) {
+            // A sibling already failed and shut the scope down
+            future.cancel(false);
+        }
+        return future::resultNow;
+    }
+
+    /**
+     * Waits for every task to finish and rethrows the first failure, if any.
+     */
+    void join() {
+        // Waits for termination; an interrupt of the caller cancels the remaining tasks
+        executor.close();
+
+        Throwable t = failure.get();
+        if (t instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (t instanceof Error error) {
+            throw error;
+        }
+        if (t != null) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        executor.close();
+    }
+}
@@ -0,0 +1,123 @@
+package com.gemini.dorametricsviewer.application;
+
+import com.gemini.dorametricsviewer.domain.RepositoryUrls;
+import com.gemini.dorametricsviewer.domain.TimeWindow;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * In-process cache of {@link DoraMetricsResult}s keyed by canonical repository URL and time window.
+ * <p>
+ * Entries expire after a fixed TTL and are evicted least-recently-used beyond {@code maxEntries}.
+ * {@link #invalidate(String)} drops every entry of a repository; a result that was being computed while
+ * another thread saved events for the same repository is returned but not stored.
+ */
+public class MetricsResultCache {
+
+    public record Stats(long hits, long misses, long evictions, int entries) {
+    }
+
+    private record Key(String repository, Instant start, Instant end) {
+    }
+
+    private record Entry(DoraMetricsResult result, Instant expiresAt) {
+    }
+
+    /** A computation in flight; marked stale when another thread invalidates its repository. */
+    private static final class Load {
+        private final Thread thread = Thread.currentThread();
+        private boolean stale;
+    }
+
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, List<Load>> loads = new HashMap<>();
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public MetricsResultCache(int maxEntries, Duration ttl, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    public DoraMetricsResult get(String repoUrl, TimeWindow timeWindow, Supplier<DoraMetricsResult> loader) {
+        Key key = new Key(RepositoryUrls.canonical(repoUrl),
+                timeWindow.start().truncatedTo(ChronoUnit.SECONDS),
+                timeWindow.end().truncatedTo(ChronoUnit.SECONDS));
+        Load load = new Load();
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && clock.instant().isBefore(entry.expiresAt())) {
+                hits++;
+                return entry.result();
+            }
+            if (entry != null) {
+                entries.remove(key);
+                evictions++;
+            }
+            misses++;
+            loads.computeIfAbsent(key.repository(), r -> new ArrayList<>()).add(load);
+        }
+
+        try {
+            DoraMetricsResult result = loader.get();
+            synchronized (this) {
+                if (!load.stale && maxEntries > 0) {
+                    entries.put(key, new Entry(result, clock.instant().plus(ttl)));
+                    evictOverflow();
+                }
+            }
+            return result;
+        } finally {
+            synchronized (this) {
+                List<Load> pending = loads.get(key.repository());
+                pending.remove(load);
+                if (pending.isEmpty()) {
+                    loads.remove(key.repository());
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the cached results of a repository. Saves made by a computation itself (it stores the
+     * events it fetched) do not keep that computation's result out of the cache.
+     */
+    public synchronized void invalidate(String repoUrl) {
+        String repository = RepositoryUrls.canonical(repoUrl);
+        entries.keySet().removeIf(key -> key.repository().equals(repository));
+        for (Load load : loads.getOrDefault(repository, List.of())) {
+            if (load.thread != Thread.currentThread()) {
+                load.stale = true;
+            }
+        }
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, entries.size());
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions++;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.gemini.dorametricsviewer.application;
+
+import com.gemini.dorametricsviewer.domain.TimeWindow;
+import com.gemini.dorametricsviewer.domain.TrendBucket;
+
+import java.util.List;
+
+/**
+ * The four metrics of every bucket of a window, oldest bucket first.
+ */
+public record MetricsTrend(TimeWindow timeWindow, TrendBucket bucket, List<Point> points) {
+
+    public record Point(TimeWindow timeWindow, DoraMetricsResult metrics) {
+    }
+}
@@ -0,0 +1,205 @@
+package com.gemini.dorametricsviewer.application;
+
+import com.gemini.dorametricsviewer.domain.TimeWindow;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * One scan submitted to {@link ScanJobService}: records its progress while it runs and keeps its result
+ * afterwards. Subscribers are told about changes as {@link Snapshot}s, each on its own virtual thread,
+ * so a slow subscriber (an SSE client with a full send buffer) holds up neither the scan nor other
+ * readers of the job. A subscriber still busy with one snapshot gets only the latest one next; the
+ * intermediate ones are dropped, the final one never is.
+ */
+public final class ScanJob implements ScanProgress {
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED;
+
+        public boolean isDone() {
+            return this == SUCCEEDED || this == FAILED;
+        }
+    }
+
+    /**
+     * State of a job at one point in time; {@code stageTimings} holds how long each finished stage took.
+     */
+    public record Snapshot(String id, String repoUrl, TimeWindow timeWindow, Status status, Stage stage,
+                           int pagesFetched, long changesFetched, long eventsSaved, Map<Stage, Duration> stageTimings,
+                           Instant submittedAt, Instant finishedAt, DoraMetricsResult result, String error) {
+    }
+
+    private final String id;
+    private final String repoUrl;
+    private final TimeWindow timeWindow;
+    private final Instant submittedAt = Instant.now();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    private Status status = Status.QUEUED;
+    private Stage stage;
+    private long stageStartedNanos;
+    private final Map<Stage, Duration> stageTimings = new EnumMap<>(Stage.class);
+    private int pagesFetched;
+    private long changesFetched;
+    private long eventsSaved;
+    private Instant finishedAt;
+    private DoraMetricsResult result;
+    private String error;
+
+    ScanJob(String id, String repoUrl, TimeWindow timeWindow) {
+        this.id = id;
+        this.repoUrl = repoUrl;
+        this.timeWindow = timeWindow;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(id, repoUrl, timeWindow, status, stage, pagesFetched, changesFetched, eventsSaved,
+                Collections.unmodifiableMap(new EnumMap<>(stageTimings)), submittedAt, finishedAt, result, error);
+    }
+
+    /**
+     * Sends the current snapshot to {@code subscriber}, then later ones until the job is done. Returns
+     * the action that stops the updates.
+     */
+    public synchronized Runnable subscribe(Consumer<Snapshot> subscriber) {
+        Subscription subscription = new Subscription(subscriber);
+        subscription.offer(snapshot());
+        if (status.isDone()) {
+            return () -> { };
+        }
+        subscriptions.add(subscription);
+        return subscription::cancel;
+    }
+
+    synchronized Instant finishedAt() {
+        return finishedAt;
+    }
+
+    void run(CachingDoraMetricsService doraMetricsService) {
+        update(() -> status = Status.RUNNING);
+        try {
+            DoraMetricsResult metrics = doraMetricsService.calculateMetrics(repoUrl, timeWindow, this);
+            update(() -> {
+                endStage();
+                result = metrics;
+                status = Status.SUCCEEDED;
+                finishedAt = Instant.now();
+            });
+        } catch (RuntimeException e) {
+            update(() -> {
+                endStage();
+                error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                status = Status.FAILED;
+                finishedAt = Instant.now();
+            });
+        }
+    }
+
+    @Override
+    public void stage(Stage next) {
+        update(() -> {
+            endStage();
+            stage = next;
+            stageStartedNanos = System.nanoTime();
+        });
+    }
+
+    @Override
+    public void pageFetched(int changes) {
+        update(() -> {
+            pagesFetched++;
+            changesFetched += changes;
+        });
+    }
+
+    @Override
+    public void eventsSaved(int count) {
+        update(() -> eventsSaved += count);
+    }
+
+    private void endStage() {
+        if (stage != null && !stageTimings.containsKey(stage)) {
+            stageTimings.put(stage, Duration.ofNanos(System.nanoTime() - stageStartedNanos));
+        }
+    }
+
+    /**
+     * Applies {@code change} and hands the new snapshot to every subscription. Handing it over only
+     * swaps a reference, so holding the lock keeps the snapshots in order without waiting on anyone.
+     */
+    private synchronized void update(Runnable change) {
+        change.run();
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        Snapshot snapshot = snapshot();
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(snapshot);
+        }
+        if (status.isDone()) {
+            subscriptions.clear();
+        }
+    }
+
+    /**
+     * Delivers snapshots to one subscriber, one at a time and in order, keeping only the newest while
+     * the subscriber is busy.
+     */
+    private final class Subscription {
+
+        private final Consumer<Snapshot> subscriber;
+        private final AtomicReference<Snapshot> pending = new AtomicReference<>();
+        private final AtomicBoolean delivering = new AtomicBoolean();
+        private volatile boolean cancelled;
+
+        Subscription(Consumer<Snapshot> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        void offer(Snapshot snapshot) {
+            pending.set(snapshot);
+            if (delivering.compareAndSet(false, true)) {
+                Thread.ofVirtual().name("scan-job-" + id + "-subscriber").start(this::deliver);
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            pending.set(null);
+            subscriptions.remove(this);
+        }
+
+        private void deliver() {
+            while (true) {
+                Snapshot next = pending.getAndSet(null);
+                if (next == null || cancelled) {
+                    delivering.set(false);
+                    // An offer may have come in after the check and seen delivery still running
+                    if (cancelled || pending.get() == null || !delivering.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                try {
+                    subscriber.accept(next);
+                } catch (RuntimeException e) {
+                    // A subscriber that fails, e.g. on a closed connection, gets no further updates
+                    cancel();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.gemini.dorametricsviewer.application;
+
+import com.gemini.dorametricsviewer.domain.TimeWindow;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs scans in the background on {@code workers} threads so the request that submits one returns at
+ * once. At most {@code queueCapacity} jobs wait for a worker; beyond that submissions are rejected.
+ * Finished jobs, with their results, are kept for {@code retention}.
+ */
+public class ScanJobService implements AutoCloseable {
+
+    private final CachingDoraMetricsService doraMetricsService;
+    private final Duration retention;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ScanJob> jobs = new ConcurrentHashMap<>();
+
+    public ScanJobService(CachingDoraMetricsService doraMetricsService, int workers, int queueCapacity, Duration retention) {
+        this.doraMetricsService = doraMetricsService;
+        this.retention = retention;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> new Thread(task, "scan-job-" + threads.incrementAndGet()));
+    }
+
+    /**
+     * Queues a scan and returns its job right away.
+     *
+     * @throws RejectedExecutionException when the queue is full
+     */
+    public ScanJob submit(String repoUrl, TimeWindow timeWindow) {
+        if (repoUrl == null || repoUrl.isBlank()) {
+            throw new IllegalArgumentException("repoUrl is required");
+        }
+        if (timeWindow == null) {
+            throw new IllegalArgumentException("timeWindow is required");
+        }
+        evictExpired();
+
+        ScanJob job = new ScanJob(UUID.randomUUID().toString(), repoUrl, timeWindow);
+        jobs.put(job.id(), job);
+        try {
+            // The submitter is not waiting on the result, so interactive scans go ahead of it for GitHub calls
+            executor.execute(() -> ScanPriority.BACKGROUND.run(() -> job.run(doraMetricsService)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id());
+            throw new RejectedExecutionException("Too many scan jobs queued, try again later", e);
+        }
+        return job;
+    }
+
+    public Optional<ScanJob> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    private void evictExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            Instant finishedAt = job.finishedAt();
+            return finishedAt != null && finishedAt.isBefore(cutoff);
+        });
+    }
+
+    /**
+     * Interrupts running scans and drops queued ones.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,57 @@
+package com.gemini.dorametricsviewer.application;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+import java.util.function.Supplier;
+
+/**
+ * Timers for the stages of a scan, so it shows where scan latency goes:
+ * <ul>
+ *     <li>{@code dora.scan}: the whole {@code calculateMetrics} call, by {@code sync} (window or delta) and {@code outcome}</li>
+ *     <li>{@code dora.scan.fetch}: each source control call, by port {@code method}; change pages are timed one by one</li>
+ *     <li>{@code dora.scan.persist}: each save, by the {@code events} saved</li>
+ *     <li>{@code dora.scan.match}: matching a page of changes to deployments</li>
+ *     <li>{@code dora.scan.aggregate}: computing the metrics once everything is stored</li>
+ * </ul>
+ */
+public class ScanMetrics {
+
+    /** Records nothing. */
+    public static final ScanMetrics NONE = new ScanMetrics(new CompositeMeterRegistry());
+
+    private final MeterRegistry registry;
+
+    public ScanMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public <T> T scan(String sync, Supplier<T> scan) {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "error";
+        try {
+            T result = scan.get();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(registry.timer("dora.scan", "sync", sync, "outcome", outcome));
+        }
+    }
+
+    public <T> T fetch(String method, Supplier<T> call) {
+        return registry.timer("dora.scan.fetch", "method", method).record(call);
+    }
+
+    public void persist(String events, Runnable save) {
+        registry.timer("dora.scan.persist", "events", events).record(save);
+    }
+
+    public void match(Runnable match) {
+        registry.timer("dora.scan.match").record(match);
+    }
+
+    public <T> T aggregate(Supplier<T> aggregate) {
+        return registry.timer("dora.scan.aggregate").record(aggregate);
+    }
+}
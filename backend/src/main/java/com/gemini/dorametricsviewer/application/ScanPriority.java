@@ -0,0 +1,40 @@
+package com.gemini.dorametricsviewer.application;
+
+import java.util.function.Supplier;
+
+/**
+ * How urgently a scan's source control calls should be served when they have to queue: scans someone
+ * is waiting on go ahead of background refreshes. Set per thread and inherited by the threads a scan
+ * starts; unset means {@link #INTERACTIVE}. Scan jobs and batch scans run as {@link #BACKGROUND}.
+ */
+public enum ScanPriority {
+    INTERACTIVE,
+    BACKGROUND;
+
+    private static final InheritableThreadLocal<ScanPriority> CURRENT = new InheritableThreadLocal<>();
+
+    public static ScanPriority current() {
+        ScanPriority priority = CURRENT.get();
+        return priority != null ? priority : INTERACTIVE;
+    }
+
+    /**
+     * Runs {@code task} with this priority on the current thread.
+     */
+    public <T> T call(Supplier<T> task) {
+        ScanPriority previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return task.get();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    public void run(Runnable task) {
+        call(() -> {
+            task.run();
+            return null;
+        });
+    }
+}
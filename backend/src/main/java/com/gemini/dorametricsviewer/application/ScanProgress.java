@@ -0,0 +1,38 @@
+package com.gemini.dorametricsviewer.application;
+
+/**
+ * Receives progress of one {@link DoraMetricsService#calculateMetrics} call, always from the thread
+ * that made it. A result served from the cache reports nothing.
+ */
+public interface ScanProgress {
+
+    ScanProgress NONE = new ScanProgress() {
+    };
+
+    enum Stage {
+        /** Deployments, incidents and the first page of changes are downloaded concurrently. */
+        FETCH,
+        /** The remaining change pages are pulled and every event is saved. */
+        SYNC,
+        /** Rollups and sync state are written and the metrics are computed. */
+        AGGREGATE
+    }
+
+    /**
+     * The scan moved on to {@code stage}; the previous stage, if any, is over.
+     */
+    default void stage(Stage stage) {
+    }
+
+    /**
+     * A page of changes holding {@code changes} changes was fetched.
+     */
+    default void pageFetched(int changes) {
+    }
+
+    /**
+     * {@code count} deployments, changes or incidents were saved.
+     */
+    default void eventsSaved(int count) {
+    }
+}
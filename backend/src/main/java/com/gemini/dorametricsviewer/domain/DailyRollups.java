@@ -0,0 +1,140 @@
+package com.gemini.dorametricsviewer.domain;
+
+import com.gemini.dorametricsviewer.domain.model.Change;
+import com.gemini.dorametricsviewer.domain.model.DailyRollup;
+import com.gemini.dorametricsviewer.domain.model.Deployment;
+import com.gemini.dorametricsviewer.domain.model.Incident;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds {@link DailyRollup} rows from raw events. Days are UTC calendar days.
+ */
+public final class DailyRollups {
+
+    private final String repositoryUrl;
+    private final LocalDate from;
+    private final int days;
+    private final long[] deploymentCount;
+    private final long[] incidentCount;
+    private final long[] restoreSeconds;
+    private final long[] leadTimeSeconds;
+    private final long[] leadTimeCount;
+    private final DurationSketch[] leadTimeSketch;
+    private final DurationSketch[] restoreSketch;
+
+    /**
+     * Empty rollups for every day from {@code from} to {@code to} inclusive, to be filled event by event.
+     * Events outside those days are ignored.
+     */
+    public DailyRollups(String repositoryUrl, LocalDate from, LocalDate to) {
+        this.repositoryUrl = repositoryUrl;
+        this.from = from;
+        this.days = (int) Math.max(0, to.toEpochDay() - from.toEpochDay() + 1);
+        this.deploymentCount = new long[days];
+        this.incidentCount = new long[days];
+        this.restoreSeconds = new long[days];
+        this.leadTimeSeconds = new long[days];
+        this.leadTimeCount = new long[days];
+        this.leadTimeSketch = new DurationSketch[days];
+        this.restoreSketch = new DurationSketch[days];
+    }
+
+    public static LocalDate dayOf(Instant instant) {
+        return LocalDate.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    public static Instant startOf(LocalDate day) {
+        return day.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    /**
+     * One rollup for every day from {@code from} to {@code to} inclusive, empty days included so that
+     * stale rows get overwritten. Events outside those days are ignored, except that every deployment
+     * is a candidate when matching changes for lead time.
+     */
+    public static List<DailyRollup> compute(String repositoryUrl, LocalDate from, LocalDate to,
+                                            List<Deployment> deployments, List<Change> changes, List<Incident> incidents,
+                                            LeadTimeCalculator leadTimeCalculator) {
+        DailyRollups rollups = new DailyRollups(repositoryUrl, from, to);
+        deployments.forEach(rollups::addDeployment);
+        incidents.forEach(rollups::addIncident);
+
+        // Matching may run on several threads, each into its own list; the lists come back in change order
+        List<Change> inRange = changes.stream()
+                .filter(change -> rollups.slot(change.mergedAt()) >= 0)
+                .toList();
+        List<Shipped> shipped = leadTimeCalculator.fold(inRange, new DeploymentIndex(deployments), ArrayList::new,
+                (partial, change, leadTime) -> partial.add(new Shipped(change.mergedAt(), leadTime)),
+                (left, right) -> {
+                    left.addAll(right);
+                    return left;
+                });
+        shipped.forEach(change -> rollups.addLeadTime(change.mergedAt(), change.leadTime()));
+        return rollups.build();
+    }
+
+    private record Shipped(Instant mergedAt, Duration leadTime) {
+    }
+
+    public void addDeployment(Deployment deployment) {
+        int slot = slot(deployment.deployedAt());
+        if (slot >= 0) {
+            deploymentCount[slot]++;
+        }
+    }
+
+    public void addIncident(Incident incident) {
+        int slot = slot(incident.createdAt());
+        if (slot >= 0) {
+            incidentCount[slot]++;
+            if (incident.resolvedAt() != null) {
+                Duration restore = Duration.between(incident.createdAt(), incident.resolvedAt());
+                restoreSeconds[slot] += restore.getSeconds();
+                sketch(restoreSketch, slot).add(restore);
+            }
+        }
+    }
+
+    /**
+     * Counts the lead time of a change towards the day it was merged on.
+     */
+    public void addLeadTime(Instant mergedAt, Duration leadTime) {
+        int slot = slot(mergedAt);
+        if (slot >= 0) {
+            leadTimeSeconds[slot] += leadTime.getSeconds();
+            leadTimeCount[slot]++;
+            sketch(leadTimeSketch, slot).add(leadTime);
+        }
+    }
+
+    public List<DailyRollup> build() {
+        List<DailyRollup> rollups = new ArrayList<>(days);
+        for (int i = 0; i < days; i++) {
+            rollups.add(new DailyRollup(repositoryUrl, from.plusDays(i),
+                deploymentCount[i], incidentCount[i], restoreSeconds[i], leadTimeSeconds[i], leadTimeCount[i],
+                sketch(leadTimeSketch, i), sketch(restoreSketch, i)));
+        }
+        return rollups;
+    }
+
+    private static DurationSketch sketch(DurationSketch[] sketches, int slot) {
+        if (sketches[slot] == null) {
+            sketches[slot] = new DurationSketch();
+        }
+        return sketches[slot];
+    }
+
+    private int slot(Instant timestamp) {
+        if (timestamp == null) {
+            return -1;
+        }
+        long slot = dayOf(timestamp).toEpochDay() - from.toEpochDay();
+        return slot >= 0 && slot < days ? (int) slot : -1;
+    }
+}
@@ -0,0 +1,136 @@
+package com.gemini.dorametricsviewer.domain;
+
+import com.gemini.dorametricsviewer.domain.model.Deployment;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read-only lookup structures over a list of deployments, built once per calculation.
+ * <p>
+ * Every lookup returns the same deployment the corresponding list-based {@link MatchStrategy}
+ * would return: the first one in list order for SHA and release-body matches, and the earliest
+ * (first in list order on ties) for time-based matches.
+ */
+public class DeploymentIndex {
+
+    private final List<Deployment> deployments;
+    private final Map<String, Deployment> byCommitSha = new HashMap<>();
+    // Open-addressing map from PR number to deployment, 0 marking an empty slot (PR numbers start at 1)
+    private int[] prNumbers = new int[16];
+    private Deployment[] byPrNumber = new Deployment[16];
+    private int prNumberCount;
+    private final Deployment[] byDeployedAt;
+
+    public DeploymentIndex(List<Deployment> deployments) {
+        this.deployments = deployments;
+
+        for (Deployment deployment : deployments) {
+            if (deployment.commitSha() != null) {
+                byCommitSha.putIfAbsent(deployment.commitSha(), deployment);
+            }
+            // Each body is read exactly once, here
+            PrReferences.parse(deployment.description()).forEach(prNumber -> putIfAbsent(prNumber, deployment));
+        }
+
+        // List.sort is stable, so deployments sharing a timestamp keep their list order
+        this.byDeployedAt = deployments.stream()
+                .filter(d -> d.deployedAt() != null)
+                .sorted(Comparator.comparing(Deployment::deployedAt))
+                .toArray(Deployment[]::new);
+    }
+
+    public List<Deployment> deployments() {
+        return deployments;
+    }
+
+    public Optional<Deployment> findByCommitSha(String commitSha) {
+        if (commitSha == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(byCommitSha.get(commitSha));
+    }
+
+    /**
+     * Finds the first deployment whose description refers to {@code #prNumber} or {@code /pull/prNumber},
+     * as read by {@link PrReferences}.
+     */
+    public Optional<Deployment> findByPrReference(int prNumber) {
+        if (prNumber <= 0) {
+            return Optional.empty();
+        }
+        int mask = prNumbers.length - 1;
+        for (int i = slotOf(prNumber, mask); prNumbers[i] != 0; i = (i + 1) & mask) {
+            if (prNumbers[i] == prNumber) {
+                return Optional.of(byPrNumber[i]);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Finds the earliest deployment that happened at or after the given instant.
+     */
+    public Optional<Deployment> findFirstDeployedAtOrAfter(Instant instant) {
+        int low = 0;
+        int high = byDeployedAt.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (byDeployedAt[mid].deployedAt().isBefore(instant)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < byDeployedAt.length ? Optional.of(byDeployedAt[low]) : Optional.empty();
+    }
+
+    // Package-private for tests
+    int prNumberSlots() {
+        return prNumbers.length;
+    }
+
+    // Deployments are indexed in list order, so the first one to refer to a PR keeps it. A repeated
+    // reference is found before the table is grown, so only new PR numbers count towards its load.
+    private void putIfAbsent(int prNumber, Deployment deployment) {
+        int i = slotFor(prNumber);
+        if (prNumbers[i] == prNumber) {
+            return;
+        }
+        if (2 * (prNumberCount + 1) > prNumbers.length) {
+            int[] oldNumbers = prNumbers;
+            Deployment[] oldDeployments = byPrNumber;
+            prNumbers = new int[oldNumbers.length * 2];
+            byPrNumber = new Deployment[oldNumbers.length * 2];
+            for (int j = 0; j < oldNumbers.length; j++) {
+                if (oldNumbers[j] != 0) {
+                    int slot = slotFor(oldNumbers[j]);
+                    prNumbers[slot] = oldNumbers[j];
+                    byPrNumber[slot] = oldDeployments[j];
+                }
+            }
+            i = slotFor(prNumber);
+        }
+        prNumbers[i] = prNumber;
+        byPrNumber[i] = deployment;
+        prNumberCount++;
+    }
+
+    // The slot holding prNumber, or the empty slot where it belongs
+    private int slotFor(int prNumber) {
+        int mask = prNumbers.length - 1;
+        int i = slotOf(prNumber, mask);
+        while (prNumbers[i] != 0 && prNumbers[i] != prNumber) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private static int slotOf(int prNumber, int mask) {
+        return PrReferences.mix(prNumber) & mask;
+    }
+}
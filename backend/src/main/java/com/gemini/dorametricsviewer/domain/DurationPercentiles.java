@@ -0,0 +1,10 @@
+package com.gemini.dorametricsviewer.domain;
+
+import java.time.Duration;
+
+/**
+ * Median and upper percentiles of a set of durations, as read from a {@link DurationSketch}; all zero
+ * when there were none.
+ */
+public record DurationPercentiles(Duration p50, Duration p75, Duration p90, Duration p99) {
+}
@@ -0,0 +1,196 @@
+package com.gemini.dorametricsviewer.domain;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Quantile sketch of durations in fixed memory, in the style of DDSketch: every duration is counted in
+ * a logarithmic bucket, so any quantile is answered within 1% of the true value no matter how many
+ * durations were added. Sketches merge by adding bucket counts, so the sketches of several days or
+ * repositories combine into exactly the sketch of all their durations.
+ * <p>
+ * Durations are counted in whole seconds, negative ones as zero except in the mean, which is exact.
+ * Not thread-safe.
+ */
+public final class DurationSketch {
+
+    private static final double RELATIVE_ACCURACY = 0.01;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    // Bucket 0 holds zero; bucket i > 0 holds seconds in (GAMMA^(i-2), GAMMA^(i-1)]. About 1100 buckets
+    // reach 100 years, and anything longer is counted in the last one.
+    private static final int BUCKETS = bucketOf(Duration.ofDays(36_525).getSeconds()) + 1;
+    private static final byte FORMAT = 1;
+
+    // Allocated on the first add, so empty sketches (most days of most rollups) cost nothing
+    private long[] counts;
+    private long count;
+    private long totalSeconds;
+
+    public void add(Duration duration) {
+        long seconds = duration.getSeconds();
+        if (counts == null) {
+            counts = new long[BUCKETS];
+        }
+        counts[Math.min(BUCKETS - 1, bucketOf(Math.max(0, seconds)))]++;
+        count++;
+        totalSeconds += seconds;
+    }
+
+    /**
+     * Adds every duration counted in {@code other} to this sketch; {@code other} is left as is.
+     */
+    public void merge(DurationSketch other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (counts == null) {
+            counts = new long[BUCKETS];
+        }
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        totalSeconds += other.totalSeconds;
+    }
+
+    public static DurationSketch merged(Iterable<DurationSketch> sketches) {
+        DurationSketch merged = new DurationSketch();
+        sketches.forEach(merged::merge);
+        return merged;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Mean in whole seconds, rounded down; zero when empty.
+     */
+    public Duration mean() {
+        return count == 0 ? Duration.ZERO : Duration.ofSeconds(totalSeconds / count);
+    }
+
+    /**
+     * The duration at rank {@code quantile} (0 to 1), within 1% of the exact value; zero when empty.
+     */
+    public Duration quantile(double quantile) {
+        if (count == 0) {
+            return Duration.ZERO;
+        }
+        long rank = (long) Math.floor(Math.min(1, Math.max(0, quantile)) * (count - 1));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                return Duration.ofSeconds(Math.round(valueOf(i)));
+            }
+        }
+        throw new IllegalStateException("Bucket counts do not add up to " + count);
+    }
+
+    public DurationPercentiles percentiles() {
+        return new DurationPercentiles(quantile(0.5), quantile(0.75), quantile(0.9), quantile(0.99));
+    }
+
+    /**
+     * Compact form for storage: the non-empty buckets only, as variable-length integers.
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(FORMAT);
+        writeVarLong(out, totalSeconds);
+        int previous = 0;
+        for (int i = 0; counts != null && i < BUCKETS; i++) {
+            if (counts[i] > 0) {
+                writeVarLong(out, i - previous);
+                writeVarLong(out, counts[i]);
+                previous = i;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads what {@link #toBytes()} wrote; {@code null} or empty input gives an empty sketch.
+     */
+    public static DurationSketch fromBytes(byte[] bytes) {
+        DurationSketch sketch = new DurationSketch();
+        if (bytes == null || bytes.length == 0) {
+            return sketch;
+        }
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        if (in.get() != FORMAT) {
+            throw new IllegalArgumentException("Unknown duration sketch format");
+        }
+        sketch.totalSeconds = readVarLong(in);
+        int bucket = 0;
+        while (in.hasRemaining()) {
+            bucket += (int) readVarLong(in);
+            long bucketCount = readVarLong(in);
+            if (sketch.counts == null) {
+                sketch.counts = new long[BUCKETS];
+            }
+            sketch.counts[bucket] += bucketCount;
+            sketch.count += bucketCount;
+        }
+        return sketch;
+    }
+
+    private static int bucketOf(long seconds) {
+        return seconds == 0 ? 0 : 1 + (int) Math.ceil(Math.log(seconds) / LOG_GAMMA);
+    }
+
+    /**
+     * The value every duration in the bucket is taken for: the one with the same relative error to
+     * both bucket bounds.
+     */
+    private static double valueOf(int bucket) {
+        if (bucket == 0) {
+            return 0;
+        }
+        return 2 * Math.pow(GAMMA, bucket - 1) / (GAMMA + 1);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DurationSketch other) || count != other.count || totalSeconds != other.totalSeconds) {
+            return false;
+        }
+        return count == 0 || Arrays.equals(counts, other.counts);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(totalSeconds) * 31 + (count == 0 ? 0 : Arrays.hashCode(counts));
+    }
+
+    @Override
+    public String toString() {
+        return "DurationSketch[count=" + count + ", mean=" + mean() + "]";
+    }
+}
@@ -13,4 +13,9 @@ public class ExactMatchStrategy implements MatchStrategy {
                 .filter(d -> d.commitSha().equals(change.commitSha()))
                 .findFirst();
     }
+
+    @Override
+    public Optional<Deployment> findDeployment(Change change, DeploymentIndex index) {
+        return index.findByCommitSha(change.commitSha());
+    }
 }
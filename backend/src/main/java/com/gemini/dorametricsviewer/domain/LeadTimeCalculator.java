@@ -2,56 +2,217 @@ package com.gemini.dorametricsviewer.domain;
 
 import com.gemini.dorametricsviewer.domain.model.Change;
 import com.gemini.dorametricsviewer.domain.model.Deployment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
 
 public class LeadTimeCalculator {
 
-    private final List<MatchStrategy> strategies = List.of(
-        new ExactMatchStrategy(),
-        new ReleaseBodyStrategy(),
-        new TimeWindowStrategy()
-    );
+    private static final Logger log = LoggerFactory.getLogger(LeadTimeCalculator.class);
+
+    /**
+     * Changes below which a fold stays on the calling thread: splitting costs more than matching them.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 20_000;
+    // Smallest chunk a parallel fold hands to one task
+    private static final int MIN_CHUNK_SIZE = 1_024;
+
+    private final List<MatchStrategy> strategies;
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+
+    public LeadTimeCalculator() {
+        this(defaultStrategies());
+    }
+
+    /**
+     * Matches each change with the first of {@code strategies}, in order, that finds a deployment.
+     */
+    public LeadTimeCalculator(List<MatchStrategy> strategies) {
+        this(strategies, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * As {@link #LeadTimeCalculator(List)}, matching on {@code pool} once there are at least
+     * {@code parallelThreshold} changes. Strategies must then be safe to call from several threads.
+     */
+    public LeadTimeCalculator(List<MatchStrategy> strategies, ForkJoinPool pool, int parallelThreshold) {
+        this.strategies = List.copyOf(strategies);
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    public static List<MatchStrategy> defaultStrategies() {
+        return List.of(
+            new ExactMatchStrategy(),
+            new ReleaseBodyStrategy(),
+            new TimeWindowStrategy()
+        );
+    }
 
     public Duration calculate(List<Change> changes, List<Deployment> deployments) {
-        System.out.println("DEBUG: Calculating Lead Time for " + changes.size() + " changes and " + deployments.size() + " deployments");
-        
-        List<Duration> validLeadTimes = changes.stream()
-            .map(change -> {
-                Optional<Deployment> match = findDeploymentFor(change, deployments);
-                if (match.isEmpty()) {
-                    System.out.println("DEBUG: No match found for change " + change.id());
-                    return null;
-                }
-                System.out.println("DEBUG: Match found! Change " + change.id() + " -> Deployment " + match.get().id());
-                return Duration.between(change.createdAt(), match.get().deployedAt());
-            })
-            .filter(d -> d != null)
-            .toList();
+        DurationSketch leadTimes = fold(changes, new DeploymentIndex(deployments), DurationSketch::new,
+                (sketch, change, leadTime) -> sketch.add(leadTime),
+                (left, right) -> {
+                    left.merge(right);
+                    return left;
+                });
+        log.debug("Matched {} of {} changes against {} deployments", leadTimes.count(), changes.size(), deployments.size());
+        return leadTimes.mean();
+    }
 
-        if (validLeadTimes.isEmpty()) {
-            System.out.println("DEBUG: No valid lead times calculated.");
-            return Duration.ZERO;
+    /**
+     * Feeds the lead time of every change that shipped to {@code sink}, collecting them into partial
+     * results made by {@code partial}.
+     * <p>
+     * From the parallel threshold on, the changes are split into chunks matched on the pool, each into a
+     * partial of its own, and partials are combined pairwise, left before right, so the result holds the
+     * changes in list order as a sequential fold would. Below it one partial takes every change on the
+     * calling thread. Either way {@code index} is only read.
+     */
+    public <P> P fold(List<Change> changes, DeploymentIndex index, Supplier<P> partial,
+                      LeadTimeSink<P> sink, BinaryOperator<P> combine) {
+        if (changes.size() < parallelThreshold || pool.getParallelism() < 2) {
+            return foldRange(changes, 0, changes.size(), index, partial.get(), sink);
+        }
+        List<Change> chunked = changes instanceof RandomAccess ? changes : new ArrayList<>(changes);
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, chunked.size() / (4 * pool.getParallelism()));
+        return pool.invoke(new FoldTask<>(chunked, 0, chunked.size(), chunkSize, index, partial, sink, combine));
+    }
+
+    private <P> P foldRange(List<Change> changes, int from, int to, DeploymentIndex index, P partial, LeadTimeSink<P> sink) {
+        for (int i = from; i < to; i++) {
+            Change change = changes.get(i);
+            Optional<Duration> leadTime = leadTime(change, index);
+            if (leadTime.isPresent()) {
+                sink.accept(partial, change, leadTime.get());
+            }
         }
+        return partial;
+    }
 
-        long averageSeconds = (long) validLeadTimes.stream()
-            .mapToLong(Duration::getSeconds)
-            .average()
-            .orElse(0);
+    /**
+     * Running average for changes that arrive a page at a time, matched against {@code deployments}.
+     */
+    public Accumulator accumulator(List<Deployment> deployments) {
+        return new Accumulator(this, new DeploymentIndex(deployments));
+    }
 
-        return Duration.ofSeconds(averageSeconds);
+    /**
+     * Lead time of a single change: from its creation until the deployment that shipped it, if any.
+     */
+    public Optional<Duration> leadTime(Change change, DeploymentIndex index) {
+        Optional<Deployment> match = findDeploymentFor(change, index);
+        if (match.isEmpty()) {
+            log.trace("No deployment found for change {}", change.id());
+            return Optional.empty();
+        }
+        return Optional.of(Duration.between(change.createdAt(), match.get().deployedAt()));
     }
 
-    private Optional<Deployment> findDeploymentFor(Change change, List<Deployment> deployments) {
+    private Optional<Deployment> findDeploymentFor(Change change, DeploymentIndex index) {
         for (MatchStrategy strategy : strategies) {
-            Optional<Deployment> match = strategy.findDeployment(change, deployments);
+            Optional<Deployment> match = strategy.findDeployment(change, index);
             if (match.isPresent()) {
-                System.out.println("DEBUG: Strategy " + strategy.getClass().getSimpleName() + " matched.");
+                if (log.isTraceEnabled()) {
+                    log.trace("Change {} shipped in deployment {}, matched by {}",
+                            change.id(), match.get().id(), strategy.name());
+                }
                 return match;
             }
         }
         return Optional.empty();
     }
+
+    /**
+     * Receives the lead time of a change that shipped, into a partial result of a {@link #fold}.
+     */
+    @FunctionalInterface
+    public interface LeadTimeSink<P> {
+        void accept(P partial, Change change, Duration leadTime);
+    }
+
+    private final class FoldTask<P> extends RecursiveTask<P> {
+
+        private final List<Change> changes;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        private final DeploymentIndex index;
+        private final Supplier<P> partial;
+        private final LeadTimeSink<P> sink;
+        private final BinaryOperator<P> combine;
+
+        FoldTask(List<Change> changes, int from, int to, int chunkSize, DeploymentIndex index,
+                 Supplier<P> partial, LeadTimeSink<P> sink, BinaryOperator<P> combine) {
+            this.changes = changes;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.index = index;
+            this.partial = partial;
+            this.sink = sink;
+            this.combine = combine;
+        }
+
+        @Override
+        protected P compute() {
+            if (to - from <= chunkSize) {
+                return foldRange(changes, from, to, index, partial.get(), sink);
+            }
+            int mid = (from + to) >>> 1;
+            FoldTask<P> left = new FoldTask<>(changes, from, mid, chunkSize, index, partial, sink, combine);
+            left.fork();
+            P right = new FoldTask<>(changes, mid, to, chunkSize, index, partial, sink, combine).compute();
+            return combine.apply(left.join(), right);
+        }
+    }
+
+    /**
+     * Records lead times in a {@link DurationSketch} as changes are added, so callers never need to hold
+     * every change at once.
+     */
+    public static class Accumulator {
+
+        private final LeadTimeCalculator calculator;
+        private final DeploymentIndex index;
+        private final DurationSketch leadTimes = new DurationSketch();
+
+        protected Accumulator(LeadTimeCalculator calculator, DeploymentIndex index) {
+            this.calculator = calculator;
+            this.index = index;
+        }
+
+        /**
+         * Counts the change's lead time towards the average, if it shipped, and returns it.
+         */
+        public Optional<Duration> add(Change change) {
+            Optional<Duration> leadTime = calculator.leadTime(change, index);
+            leadTime.ifPresent(leadTimes::add);
+            return leadTime;
+        }
+
+        public Duration average() {
+            if (leadTimes.count() == 0) {
+                return Duration.ZERO;
+            }
+            return leadTimes.mean();
+        }
+
+        /**
+         * Every lead time added so far.
+         */
+        public DurationSketch sketch() {
+            return leadTimes;
+        }
+    }
 }
@@ -8,4 +8,19 @@ import java.util.Optional;
 
 public interface MatchStrategy {
     Optional<Deployment> findDeployment(Change change, List<Deployment> deployments);
+
+    /**
+     * Same contract as {@link #findDeployment(Change, List)}, answered from a prebuilt index.
+     * Strategies should override this to avoid scanning every deployment per change.
+     */
+    default Optional<Deployment> findDeployment(Change change, DeploymentIndex index) {
+        return findDeployment(change, index.deployments());
+    }
+
+    /**
+     * Identifies the strategy in logs and metrics.
+     */
+    default String name() {
+        return getClass().getSimpleName();
+    }
 }
@@ -0,0 +1,222 @@
+package com.gemini.dorametricsviewer.domain;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * The pull request numbers a release body refers to, as {@code #123} or {@code .../pull/123}, read in a
+ * single pass and held in a primitive open-addressing set.
+ * <p>
+ * A reference is a whole number: the digit run must not go on into another digit or a letter, so
+ * {@code #12} is not found in {@code #123} and colours like {@code #123abc} are not references. PR
+ * numbers start at 1, so runs with a leading zero are skipped as well, which leaves 0 free to mark
+ * empty slots.
+ */
+public final class PrReferences {
+
+    private static final String PULL_PATH = "/pull/";
+    // Nine digits always fit in an int; longer runs are not PR numbers.
+    private static final int MAX_DIGITS = 9;
+    private static final PrReferences NONE = new PrReferences(new int[0], 0);
+
+    private final int[] slots;
+    private final int size;
+
+    private PrReferences(int[] slots, int size) {
+        this.slots = slots;
+        this.size = size;
+    }
+
+    public static PrReferences parse(String text) {
+        if (text == null || text.isEmpty()) {
+            return NONE;
+        }
+        Builder builder = new Builder();
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '#') {
+                builder.add(numberAt(text, i + 1));
+            } else if (c == '/' && text.startsWith(PULL_PATH, i)) {
+                builder.add(numberAt(text, i + PULL_PATH.length()));
+                i += PULL_PATH.length() - 1;
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * The id the GitHub adapters give the change of pull request {@code prNumber}, {@code owner/repo/pr/123};
+     * the form {@link ReleaseBodyStrategy} reads the number back from.
+     */
+    public static String changeId(String repoPath, int prNumber) {
+        return repoPath + "/pr/" + prNumber;
+    }
+
+    /**
+     * Whether {@code text} refers to {@code prNumber}, with the same boundaries as {@link #parse} but
+     * without building the set; for one-off checks against a body that is not parsed anyway.
+     */
+    public static boolean references(String text, int prNumber) {
+        if (text == null || prNumber <= 0) {
+            return false;
+        }
+        String digits = Integer.toString(prNumber);
+        return references(text, "#", digits, prNumber) || references(text, PULL_PATH, digits, prNumber);
+    }
+
+    public boolean contains(int prNumber) {
+        if (prNumber <= 0 || size == 0) {
+            return false;
+        }
+        int mask = slots.length - 1;
+        for (int i = mix(prNumber) & mask; slots[i] != 0; i = (i + 1) & mask) {
+            if (slots[i] == prNumber) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Visits every number once, in no particular order.
+     */
+    public void forEach(IntConsumer action) {
+        for (int slot : slots) {
+            if (slot != 0) {
+                action.accept(slot);
+            }
+        }
+    }
+
+    private static boolean references(String text, String prefix, String digits, int prNumber) {
+        String reference = prefix + digits;
+        for (int i = text.indexOf(reference); i != -1; i = text.indexOf(reference, i + 1)) {
+            if (numberAt(text, i + prefix.length()) == prNumber) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The number whose digits start at {@code start}, or 0 when there is no well-formed one.
+     */
+    private static int numberAt(String text, int start) {
+        int length = text.length();
+        if (start >= length || text.charAt(start) < '1' || text.charAt(start) > '9') {
+            return 0;
+        }
+        int value = 0;
+        int end = start;
+        while (end < length && isAsciiDigit(text.charAt(end))) {
+            if (end - start == MAX_DIGITS) {
+                return 0;
+            }
+            value = value * 10 + (text.charAt(end) - '0');
+            end++;
+        }
+        return end < length && Character.isLetter(text.charAt(end)) ? 0 : value;
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Spreads PR numbers over the slots of an open-addressing table; shared by the PR-number tables of
+     * this package.
+     */
+    static int mix(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PrReferences other) || size != other.size) {
+            return false;
+        }
+        for (int slot : slots) {
+            if (slot != 0 && !other.contains(slot)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int slot : slots) {
+            hash += slot;
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        int[] numbers = new int[size];
+        int[] next = {0};
+        forEach(n -> numbers[next[0]++] = n);
+        Arrays.sort(numbers);
+        return "PrReferences" + Arrays.toString(numbers);
+    }
+
+    private static final class Builder {
+
+        private int[] slots = new int[8];
+        private int size;
+
+        void add(int prNumber) {
+            if (prNumber == 0) {
+                return;
+            }
+            // Keep the table at most half full so probe runs stay short
+            if (2 * (size + 1) > slots.length) {
+                grow();
+            }
+            if (insert(slots, prNumber)) {
+                size++;
+            }
+        }
+
+        PrReferences build() {
+            return size == 0 ? NONE : new PrReferences(slots, size);
+        }
+
+        private void grow() {
+            int[] grown = new int[slots.length * 2];
+            for (int slot : slots) {
+                if (slot != 0) {
+                    insert(grown, slot);
+                }
+            }
+            slots = grown;
+        }
+
+        private static boolean insert(int[] table, int prNumber) {
+            int mask = table.length - 1;
+            int i = mix(prNumber) & mask;
+            while (table[i] != 0) {
+                if (table[i] == prNumber) {
+                    return false;
+                }
+                i = (i + 1) & mask;
+            }
+            table[i] = prNumber;
+            return true;
+        }
+    }
+}
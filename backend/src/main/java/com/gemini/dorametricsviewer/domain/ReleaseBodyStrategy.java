@@ -7,33 +7,41 @@ import java.util.List;
 import java.util.Optional;
 
 public class ReleaseBodyStrategy implements MatchStrategy {
+
+    private static final int NO_PR_NUMBER = -1;
+
     @Override
     public Optional<Deployment> findDeployment(Change change, List<Deployment> deployments) {
-        String prNumber = extractPrNumber(change.id());
-        if (prNumber == null) {
+        int prNumber = extractPrNumber(change.id());
+        if (prNumber == NO_PR_NUMBER) {
             return Optional.empty();
         }
 
         return deployments.stream()
-                .filter(d -> d.description() != null)
-                .filter(d -> containsPrReference(d.description(), prNumber))
+                .filter(d -> PrReferences.references(d.description(), prNumber))
                 .findFirst();
     }
 
-    private String extractPrNumber(String changeId) {
-        // Expected format: .../pr/{number}
-        int idx = changeId.lastIndexOf("/pr/");
-        if (idx != -1) {
-            return changeId.substring(idx + 4);
+    @Override
+    public Optional<Deployment> findDeployment(Change change, DeploymentIndex index) {
+        int prNumber = extractPrNumber(change.id());
+        if (prNumber == NO_PR_NUMBER) {
+            return Optional.empty();
         }
-        return null;
+        return index.findByPrReference(prNumber);
     }
 
-    private boolean containsPrReference(String description, String prNumber) {
-        // Check for #123
-        if (description.contains("#" + prNumber)) return true;
-        // Check for /pull/123
-        if (description.contains("/pull/" + prNumber)) return true;
-        return false;
+    private int extractPrNumber(String changeId) {
+        // Expected format: .../pr/{number}
+        int idx = changeId.lastIndexOf("/pr/");
+        if (idx == -1) {
+            return NO_PR_NUMBER;
+        }
+        try {
+            int prNumber = Integer.parseInt(changeId, idx + 4, changeId.length(), 10);
+            return prNumber > 0 ? prNumber : NO_PR_NUMBER;
+        } catch (NumberFormatException e) {
+            return NO_PR_NUMBER;
+        }
     }
 }
@@ -0,0 +1,62 @@
+package com.gemini.dorametricsviewer.domain;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * One spelling per repository: {@code https://github.com/owner/repo}, {@code github.com/owner/repo/},
+ * {@code git@github.com:owner/repo.git} and plain {@code owner/repo} all name the same GitHub repository,
+ * and so does {@code Owner/Repo}: GitHub owner and repository names are case-insensitive.
+ */
+public final class RepositoryUrls {
+
+    private static final String GITHUB = "https://github.com/";
+    private static final String[] GITHUB_PREFIXES = {
+        "https://github.com/", "http://github.com/", "https://www.github.com/", "http://www.github.com/",
+        "git@github.com:", "github.com/"
+    };
+    private static final Pattern OWNER_AND_REPO = Pattern.compile("[\\w.-]+/[\\w.-]+");
+
+    private RepositoryUrls() {
+    }
+
+    /**
+     * The canonical URL: GitHub repositories as {@code https://github.com/owner/repo} in lower case, without
+     * a {@code .git} suffix or trailing slash. Other URLs only lose the suffix and the slash, as their hosts
+     * may tell paths apart by case.
+     */
+    public static String canonical(String url) {
+        String clean = url.strip();
+        clean = stripTrailingSlashes(clean);
+        if (clean.endsWith(".git")) {
+            clean = stripTrailingSlashes(clean.substring(0, clean.length() - 4));
+        }
+        for (String prefix : GITHUB_PREFIXES) {
+            if (clean.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                return github(clean.substring(prefix.length()));
+            }
+        }
+        return OWNER_AND_REPO.matcher(clean).matches() ? github(clean) : clean;
+    }
+
+    /**
+     * The {@code owner/repo} path of a GitHub repository, as the GitHub APIs address it; URLs of other
+     * hosts come back canonical but whole.
+     */
+    public static String path(String url) {
+        String canonical = canonical(url);
+        return canonical.startsWith(GITHUB) ? canonical.substring(GITHUB.length()) : canonical;
+    }
+
+    private static String github(String ownerAndRepo) {
+        return GITHUB + ownerAndRepo.toLowerCase(Locale.ROOT);
+    }
+
+    private static String stripTrailingSlashes(String url) {
+        int end = url.length();
+        while (end > 0 && url.charAt(end - 1) == '/') {
+            end--;
+        }
+        return url.substring(0, end);
+    }
+}
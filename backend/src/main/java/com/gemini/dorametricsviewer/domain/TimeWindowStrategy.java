@@ -21,4 +21,12 @@ public class TimeWindowStrategy implements MatchStrategy {
                 .sorted(Comparator.comparing(Deployment::deployedAt))
                 .findFirst();
     }
+
+    @Override
+    public Optional<Deployment> findDeployment(Change change, DeploymentIndex index) {
+        if (change.mergedAt() == null) {
+            return Optional.empty();
+        }
+        return index.findFirstDeployedAtOrAfter(change.mergedAt());
+    }
 }
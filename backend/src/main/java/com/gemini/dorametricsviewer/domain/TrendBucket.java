@@ -0,0 +1,52 @@
+package com.gemini.dorametricsviewer.domain;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Size of the buckets a trend splits its window into. Buckets are aligned to UTC calendar days,
+ * ISO weeks starting on Monday, or calendar months.
+ */
+public enum TrendBucket {
+    DAY,
+    WEEK,
+    MONTH;
+
+    /**
+     * The bucket windows covering {@code window} in order. Inner boundaries fall on bucket starts; the
+     * first and last bucket are cut to the window and may be shorter than the others.
+     */
+    public List<TimeWindow> split(TimeWindow window) {
+        List<TimeWindow> buckets = new ArrayList<>();
+        Instant start = window.start();
+        LocalDate next = next(startOf(DailyRollups.dayOf(start)));
+        while (DailyRollups.startOf(next).isBefore(window.end())) {
+            Instant end = DailyRollups.startOf(next);
+            buckets.add(new TimeWindow(start, end));
+            start = end;
+            next = next(next);
+        }
+        buckets.add(new TimeWindow(start, window.end()));
+        return buckets;
+    }
+
+    private LocalDate startOf(LocalDate day) {
+        return switch (this) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    private LocalDate next(LocalDate bucketStart) {
+        return switch (this) {
+            case DAY -> bucketStart.plusDays(1);
+            case WEEK -> bucketStart.plusWeeks(1);
+            case MONTH -> bucketStart.plusMonths(1);
+        };
+    }
+}
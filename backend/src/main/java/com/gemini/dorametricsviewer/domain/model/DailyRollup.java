@@ -0,0 +1,30 @@
+package com.gemini.dorametricsviewer.domain.model;
+
+import com.gemini.dorametricsviewer.domain.DurationSketch;
+
+import java.time.LocalDate;
+
+/**
+ * Per-repository totals for one UTC day, maintained on ingest so window metrics can be summed from
+ * one row per day instead of loading every event.
+ */
+public record DailyRollup(
+    String repositoryUrl,
+    LocalDate day,
+    long deploymentCount,  // deployments by deployedAt
+    long incidentCount,    // incidents by createdAt
+    long restoreSeconds,   // sum of (resolvedAt - createdAt) over resolved incidents
+    long leadTimeSeconds,  // sum of lead times of changes merged that day that matched a deployment
+    long leadTimeCount,    // number of those matched changes
+    DurationSketch leadTimeSketch,  // those lead times, for percentiles
+    DurationSketch restoreSketch    // restore times of the resolved incidents
+) {
+    /**
+     * A rollup without duration sketches.
+     */
+    public DailyRollup(String repositoryUrl, LocalDate day, long deploymentCount, long incidentCount,
+                       long restoreSeconds, long leadTimeSeconds, long leadTimeCount) {
+        this(repositoryUrl, day, deploymentCount, incidentCount, restoreSeconds, leadTimeSeconds, leadTimeCount,
+                new DurationSketch(), new DurationSketch());
+    }
+}
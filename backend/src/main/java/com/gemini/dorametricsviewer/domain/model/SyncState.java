@@ -0,0 +1,18 @@
+package com.gemini.dorametricsviewer.domain.model;
+
+import java.time.Instant;
+
+/**
+ * How much of a repository's history is already stored.
+ * <p>
+ * Events from {@code syncedFrom} up to each high-water mark are persisted, so later scans only need
+ * to fetch what happened after the marks.
+ */
+public record SyncState(
+    String repositoryUrl,
+    Instant syncedFrom,
+    Instant deploymentsSyncedTo, // latest stored deployedAt (release publishedAt)
+    Instant changesSyncedTo,     // latest stored mergedAt
+    Instant incidentsSyncedTo,   // latest stored createdAt
+    Instant lastSyncedAt
+) {}
@@ -1,11 +1,16 @@
 package com.gemini.dorametricsviewer.domain.port;
 
 import com.gemini.dorametricsviewer.domain.model.Change;
+import com.gemini.dorametricsviewer.domain.model.DailyRollup;
 import com.gemini.dorametricsviewer.domain.model.Deployment;
 import com.gemini.dorametricsviewer.domain.model.Incident;
+import com.gemini.dorametricsviewer.domain.model.SyncState;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface MetricsRepositoryPort {
     void saveDeployments(List<Deployment> deployments);
@@ -16,7 +21,18 @@ public interface MetricsRepositoryPort {
     List<Change> findChanges(String repoUrl, Instant since);
     List<Change> findChanges(String repoUrl, Instant start, Instant end);
 
+    /**
+     * Stored changes with any of the given ids or merge commit SHAs, whenever they were merged.
+     */
+    List<Change> findChanges(String repoUrl, Collection<String> ids, Collection<String> commitShas);
+
     void saveIncidents(List<Incident> incidents);
     List<Incident> findIncidents(String repoUrl, Instant since);
     List<Incident> findIncidents(String repoUrl, Instant start, Instant end);
+
+    void saveSyncState(SyncState syncState);
+    Optional<SyncState> findSyncState(String repoUrl);
+
+    void saveDailyRollups(List<DailyRollup> rollups);
+    List<DailyRollup> findDailyRollups(String repoUrl, LocalDate from, LocalDate to);
 }
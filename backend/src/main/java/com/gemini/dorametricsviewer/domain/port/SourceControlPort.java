@@ -6,9 +6,27 @@ import com.gemini.dorametricsviewer.domain.model.Incident;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface SourceControlPort {
     List<Deployment> fetchDeployments(String repoUrl, Instant since);
     List<Change> fetchChanges(String repoUrl, Instant since);
+
+    /**
+     * Same changes as {@link #fetchChanges}, one source page per element, fetched lazily as the stream is
+     * consumed so callers can process a page while later ones download. Close the stream to stop
+     * pending downloads. The default wraps {@link #fetchChanges} as a single page.
+     */
+    default Stream<List<Change>> streamChanges(String repoUrl, Instant since) {
+        return Stream.of(repoUrl).map(url -> fetchChanges(url, since));
+    }
     List<Incident> fetchIncidents(String repoUrl, Instant since);
+
+    /**
+     * URLs of the repositories of an organization that are worth scanning, in the form
+     * {@link #fetchDeployments} accepts. Sources without organizations do not support it.
+     */
+    default List<String> listRepositories(String organization) {
+        throw new UnsupportedOperationException("Listing repositories is not supported by this source");
+    }
 }
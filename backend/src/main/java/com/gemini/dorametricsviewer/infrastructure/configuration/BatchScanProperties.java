@@ -0,0 +1,19 @@
+package com.gemini.dorametricsviewer.infrastructure.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "dora.batch-scan")
+@Data
+public class BatchScanProperties {
+    // Repositories scanned at the same time by one batch scan
+    private int parallelism = 8;
+    // Upper bound on repositories per batch scan, after resolving the organization
+    private int maxRepositories = 500;
+    // How long a batch scan response may stream before it is cut off and the remaining scans cancelled
+    private Duration timeout = Duration.ofMinutes(30);
+}
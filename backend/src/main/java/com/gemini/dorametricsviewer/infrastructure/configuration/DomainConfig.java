@@ -1,14 +1,59 @@
 package com.gemini.dorametricsviewer.infrastructure.configuration;
 
+import com.gemini.dorametricsviewer.application.BatchScanService;
+import com.gemini.dorametricsviewer.application.CachingDoraMetricsService;
+import com.gemini.dorametricsviewer.application.MetricsResultCache;
+import com.gemini.dorametricsviewer.application.ScanJobService;
+import com.gemini.dorametricsviewer.application.ScanMetrics;
 import com.gemini.dorametricsviewer.domain.LeadTimeCalculator;
+import com.gemini.dorametricsviewer.domain.MatchStrategy;
+import com.gemini.dorametricsviewer.domain.port.SourceControlPort;
+import com.gemini.dorametricsviewer.infrastructure.metrics.MeteredMatchStrategy;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Clock;
+import java.util.concurrent.ForkJoinPool;
+
 @Configuration
 public class DomainConfig {
 
+    /**
+     * Every match strategy is wrapped to record its attempts, hits and time.
+     */
+    @Bean
+    public LeadTimeCalculator leadTimeCalculator(MeterRegistry meterRegistry, ForkJoinPool leadTimePool,
+                                                 LeadTimeProperties properties) {
+        return new LeadTimeCalculator(LeadTimeCalculator.defaultStrategies().stream()
+                .<MatchStrategy>map(strategy -> new MeteredMatchStrategy(strategy, meterRegistry))
+                .toList(), leadTimePool, properties.getParallelThreshold());
+    }
+
+    // Shutting down the common pool is a no-op, so only a dedicated pool is actually stopped
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool leadTimePool(LeadTimeProperties properties) {
+        return properties.getParallelism() > 0 ? new ForkJoinPool(properties.getParallelism()) : ForkJoinPool.commonPool();
+    }
+
+    @Bean
+    public ScanMetrics scanMetrics(MeterRegistry meterRegistry) {
+        return new ScanMetrics(meterRegistry);
+    }
+
+    @Bean
+    public MetricsResultCache metricsResultCache(MetricsCacheProperties properties) {
+        return new MetricsResultCache(properties.getMaxEntries(), properties.getTtl(), Clock.systemUTC());
+    }
+
+    @Bean
+    public BatchScanService batchScanService(CachingDoraMetricsService doraMetricsService, SourceControlPort sourceControlPort,
+                                             BatchScanProperties properties) {
+        return new BatchScanService(doraMetricsService, sourceControlPort, properties.getParallelism(), properties.getMaxRepositories());
+    }
+
     @Bean
-    public LeadTimeCalculator leadTimeCalculator() {
-        return new LeadTimeCalculator();
+    public ScanJobService scanJobService(CachingDoraMetricsService doraMetricsService, ScanJobProperties properties) {
+        return new ScanJobService(doraMetricsService, properties.getWorkers(), properties.getQueueCapacity(), properties.getRetention());
     }
 }
@@ -0,0 +1,16 @@
+package com.gemini.dorametricsviewer.infrastructure.configuration;
+
+import com.gemini.dorametricsviewer.domain.LeadTimeCalculator;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+@Configuration
+@ConfigurationProperties(prefix = "dora.lead-time")
+@Data
+public class LeadTimeProperties {
+    // Changes from which lead times are matched on several cores at once
+    private int parallelThreshold = LeadTimeCalculator.DEFAULT_PARALLEL_THRESHOLD;
+    // Threads matching in parallel; 0 shares the JVM's common fork/join pool
+    private int parallelism = 0;
+}
@@ -0,0 +1,17 @@
+package com.gemini.dorametricsviewer.infrastructure.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "dora.metrics-cache")
+@Data
+public class MetricsCacheProperties {
+    // Cached metric results (0 disables caching)
+    private int maxEntries = 1000;
+    // How long a result is served before it is recomputed
+    private Duration ttl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,21 @@
+package com.gemini.dorametricsviewer.infrastructure.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "dora.scan-jobs")
+@Data
+public class ScanJobProperties {
+    // Scans run at the same time in the background
+    private int workers = 4;
+    // Submitted scans waiting for a worker before new ones are rejected
+    private int queueCapacity = 50;
+    // How long a finished job and its result can be retrieved
+    private Duration retention = Duration.ofHours(1);
+    // How long a progress stream stays open
+    private Duration eventsTimeout = Duration.ofMinutes(30);
+}
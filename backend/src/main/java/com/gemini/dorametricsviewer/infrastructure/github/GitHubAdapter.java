@@ -1,129 +1,303 @@
 package com.gemini.dorametricsviewer.infrastructure.github;
 
+import com.gemini.dorametricsviewer.domain.RepositoryUrls;
 import com.gemini.dorametricsviewer.domain.model.Change;
 import com.gemini.dorametricsviewer.domain.model.Deployment;
 import com.gemini.dorametricsviewer.domain.model.Incident;
 import com.gemini.dorametricsviewer.domain.port.SourceControlPort;
-import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.ResponseErrorHandler;
 import org.springframework.web.client.RestClient;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Component
+@ConditionalOnProperty(prefix = "dora.github", name = "api", havingValue = "rest", matchIfMissing = true)
 public class GitHubAdapter implements SourceControlPort {
 
+    private static final int PULLS_PER_PAGE = 100;
+    private static final int REPOS_PER_PAGE = 100;
+    private static final Pattern LAST_PAGE_LINK = Pattern.compile("<[^>]*[?&]page=(\\d+)[^>]*>;\\s*rel=\"last\"");
+
+    private final GitHubProperties properties;
     private final RestClient restClient;
+    private final GitHubResponseCache responseCache;
+    private final GitHubPayloadDecoder decoder = new GitHubPayloadDecoder();
+    private final ResponseErrorHandler errorHandler = new DefaultResponseErrorHandler();
 
-    public GitHubAdapter(GitHubProperties properties, RestClient.Builder builder) {
+    public GitHubAdapter(GitHubProperties properties, RestClient.Builder builder, GitHubRateLimiter rateLimiter,
+                         GitHubRequestMetrics requestMetrics) {
+        this.properties = properties;
         var clientBuilder = builder.baseUrl(properties.getBaseUrl());
-        if (properties.getToken() != null && !properties.getToken().isBlank()) {
-            clientBuilder.defaultHeader("Authorization", "Bearer " + properties.getToken());
+        GitHubProperties.Cache cache = properties.getCache();
+        this.responseCache = cache.isEnabled()
+                ? new GitHubResponseCache(cache.getMaxEntries(), cache.getMaxBytes(), responseStore(cache))
+                : null;
+        if (responseCache != null) {
+            clientBuilder.requestInterceptor(responseCache);
         }
+        // Inside the cache, so it reads GitHub's own rate-limit headers rather than a cached copy; it also
+        // picks the token each request is sent with. Last, because its retries skip any interceptor after
+        // it, so the metrics run inside it and measure every call that reaches GitHub, retries included.
+        clientBuilder.requestInterceptor(rateLimiter.eachAttemptThrough(requestMetrics));
         this.restClient = clientBuilder.build();
     }
 
+    private static GitHubResponseStore responseStore(GitHubProperties.Cache cache) {
+        return cache.getDirectory() == null || cache.getDirectory().isBlank()
+                ? null
+                : new GitHubResponseStore(Path.of(cache.getDirectory()));
+    }
+
+    /**
+     * Hit/miss/eviction counters of the conditional-request cache; all zero when it is disabled.
+     */
+    public GitHubResponseCache.Stats responseCacheStats() {
+        return responseCache != null ? responseCache.stats() : new GitHubResponseCache.Stats(0, 0, 0, 0, 0);
+    }
+
     @Override
     public List<Deployment> fetchDeployments(String repoUrl, Instant since) {
-        var repoPath = extractRepoPath(repoUrl);
-        List<GitHubReleaseDTO> releases = restClient.get()
+        var repoPath = RepositoryUrls.path(repoUrl);
+        return restClient.get()
                 .uri("/repos/" + repoPath + "/releases")
-                .retrieve()
-                .body(new ParameterizedTypeReference<>() {});
+                .exchange((request, response) -> {
+                    failOnError(request, response);
+                    return decoder.readReleases(response.getBody(), repoPath, repoUrl, since);
+                });
+    }
 
-        if (releases == null) {
-            return Collections.emptyList();
+    @Override
+    public List<String> listRepositories(String organization) {
+        List<String> repoUrls = new ArrayList<>();
+        for (int page = 1; ; page++) {
+            int pageNumber = page;
+            GitHubPayloadDecoder.RepositoryPage repositories = restClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/orgs/{org}/repos")
+                            .queryParam("per_page", REPOS_PER_PAGE)
+                            .queryParam("page", pageNumber)
+                            .build(organization))
+                    .exchange((request, response) -> {
+                        failOnError(request, response);
+                        return decoder.readRepositories(response.getBody());
+                    });
+            repoUrls.addAll(repositories.repoUrls());
+            if (repositories.repositories() < REPOS_PER_PAGE) {
+                return repoUrls;
+            }
         }
-
-        return releases.stream()
-                .filter(r -> r.publishedAt() != null && r.publishedAt().isAfter(since))
-                .map(r -> new Deployment(
-                        repoPath + "/release/" + r.id(),
-                        repoUrl,
-                        r.targetCommitish(),
-                        r.createdAt(),
-                        r.publishedAt(),
-                        "production",
-                        "SUCCESS",
-                        r.body()
-                ))
-                .collect(Collectors.toList());
     }
 
     @Override
     public List<Change> fetchChanges(String repoUrl, Instant since) {
-        var repoPath = extractRepoPath(repoUrl);
-        List<Change> allChanges = new ArrayList<>();
-        int page = 1;
-        // Fetch up to 8 pages (800 items) to cover enough history for busy repos like vscode
-        while (page <= 8) {
-            int currentPage = page;
-            List<GitHubPullRequestDTO> prs = restClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/repos/" + repoPath + "/pulls")
-                            .queryParam("state", "closed")
-                            .queryParam("per_page", 100)
-                            .queryParam("page", currentPage)
-                            .build())
-                    .retrieve()
-                    .body(new ParameterizedTypeReference<>() {});
-
-            if (prs == null || prs.isEmpty()) {
-                break;
+        try (Stream<List<Change>> pages = streamChanges(repoUrl, since)) {
+            return pages.flatMap(List::stream).collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    @Override
+    public Stream<List<Change>> streamChanges(String repoUrl, Instant since) {
+        PullRequestPages pages = new PullRequestPages(RepositoryUrls.path(repoUrl), repoUrl, since);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pages, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(pages::close);
+    }
+
+    private PulledPage fetchPullRequestPage(String repoPath, String repoUrl, Instant since, int page) {
+        return restClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/repos/" + repoPath + "/pulls")
+                        .queryParam("state", "closed")
+                        .queryParam("per_page", PULLS_PER_PAGE)
+                        .queryParam("page", page)
+                        .build())
+                .exchange((request, response) -> {
+                    failOnError(request, response);
+                    return new PulledPage(response.getHeaders(),
+                            decoder.readPullRequests(response.getBody(), repoPath, repoUrl, since));
+                });
+    }
+
+    /**
+     * Responses are decoded straight from the body stream, so status handling is ours to do.
+     */
+    private void failOnError(HttpRequest request, ClientHttpResponse response) throws IOException {
+        if (errorHandler.hasError(response)) {
+            errorHandler.handleError(request.getURI(), request.getMethod(), response);
+        }
+    }
+
+    private record PulledPage(HttpHeaders headers, GitHubPayloadDecoder.PullRequestPage page) {
+    }
+
+    /**
+     * Merged PRs of one {@code /pulls} page, and whether the next page is still worth reading.
+     */
+    private record Page(List<Change> changes, boolean more) {
+    }
+
+    /**
+     * Pulls {@code /pulls} pages in order while up to {@code pageWindow} later pages download in the
+     * background, so the caller's work on one page overlaps with fetching the next ones. Only the
+     * previous page's ids are kept to drop PRs that shifted across the page boundary, which keeps memory
+     * bounded by the window rather than by the repository's history.
+     */
+    private final class PullRequestPages implements Iterator<List<Change>>, AutoCloseable {
+
+        private final String repoPath;
+        private final String repoUrl;
+        private final Instant since;
+        private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        private final Deque<Future<PulledPage>> inFlight = new ArrayDeque<>();
+
+        private Set<String> previousIds = Set.of();
+        private int nextPage = 1;
+        private int lastPage;
+        private int window;
+        private boolean done;
+        private List<Change> ready;
+
+        PullRequestPages(String repoPath, String repoUrl, Instant since) {
+            this.repoPath = repoPath;
+            this.repoUrl = repoUrl;
+            this.since = since;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (ready == null && !done) {
+                advance();
             }
+            return ready != null;
+        }
 
-            List<Change> pageChanges = prs.stream()
-                    .filter(pr -> pr.mergedAt() != null && pr.mergedAt().isAfter(since))
-                    .map(pr -> new Change(
-                            repoPath + "/pr/" + pr.number(),
-                            repoUrl,
-                            pr.mergeCommitSha(),
-                            pr.createdAt(),
-                            pr.mergedAt(),
-                            pr.user() != null ? pr.user().login() : "unknown"
-                    ))
-                    .collect(Collectors.toList());
-            
-            allChanges.addAll(pageChanges);
-            
-            // If the last PR in the page is older than 'since', we can stop.
-            // Note: This relies on the API returning roughly roughly reverse chronological order.
-            // We check the mergedAt of the last item if it exists.
-            if (!prs.isEmpty()) {
-                GitHubPullRequestDTO lastPr = prs.get(prs.size() - 1);
-                if (lastPr.mergedAt() != null && lastPr.mergedAt().isBefore(since)) {
-                    break;
-                }
-                // If created_at is significantly before since, we might also stop, 
-                // but mergedAt is the source of truth for the filter.
+        @Override
+        public List<Change> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            List<Change> page = ready;
+            ready = null;
+            return page;
+        }
+
+        private void advance() {
+            PulledPage pulled;
+            if (nextPage == 1) {
+                pulled = fetchPullRequestPage(repoPath, repoUrl, since, nextPage++);
+                // With a rel="last" link we know how far to go and can fill the window right away;
+                // without one, widen the window only as pages keep coming back full.
+                OptionalInt linkedLastPage = lastPageOf(pulled.headers());
+                lastPage = Math.min(properties.getMaxPullRequestPages(), linkedLastPage.orElse(Integer.MAX_VALUE));
+                window = linkedLastPage.isPresent() ? maxWindow() : 1;
+            } else if (inFlight.isEmpty()) {
+                close();
+                return;
+            } else {
+                pulled = awaitPage(inFlight.poll());
+                window = Math.min(maxWindow(), window * 2);
             }
 
-            if (prs.size() < 100) {
-                break;
+            Page page = toPage(pulled.page(), since, previousIds);
+            if (page.more()) {
+                // Start downloading the following pages before the caller gets to work on this one
+                while (inFlight.size() < window && nextPage <= lastPage) {
+                    int pageNumber = nextPage++;
+                    inFlight.add(executor.submit(() -> fetchPullRequestPage(repoPath, repoUrl, since, pageNumber)));
+                }
+            } else {
+                close();
+            }
+            previousIds = page.changes().stream().map(Change::id).collect(Collectors.toSet());
+            if (!page.changes().isEmpty()) {
+                ready = page.changes();
             }
-            page++;
         }
 
-        return allChanges;
+        private int maxWindow() {
+            return Math.max(1, properties.getPageWindow());
+        }
+
+        @Override
+        public void close() {
+            done = true;
+            // Pages past the stopping point are not needed any more
+            inFlight.forEach(page -> page.cancel(true));
+            inFlight.clear();
+            executor.close();
+        }
     }
 
-    @Override
-    public List<Incident> fetchIncidents(String repoUrl, Instant since) {
-        return Collections.emptyList();
+    private static Page toPage(GitHubPayloadDecoder.PullRequestPage pulled, Instant since, Set<String> previousIds) {
+        if (pulled.pullRequests() == 0) {
+            return new Page(List.of(), false);
+        }
+
+        // PRs can shift between pages while we paginate, so drop the ones the previous page already had
+        List<Change> changes = previousIds.isEmpty()
+                ? pulled.changes()
+                : pulled.changes().stream().filter(change -> !previousIds.contains(change.id())).toList();
+
+        // If the last PR in the page is older than 'since', we can stop.
+        // Note: This relies on the API returning roughly reverse chronological order.
+        if (pulled.lastMergedAt() != null && pulled.lastMergedAt().isBefore(since)) {
+            return new Page(changes, false);
+        }
+        return new Page(changes, pulled.pullRequests() >= PULLS_PER_PAGE);
     }
 
-    private String extractRepoPath(String repoUrl) {
-        String cleanUrl = repoUrl;
-        if (cleanUrl.endsWith(".git")) {
-            cleanUrl = cleanUrl.substring(0, cleanUrl.length() - 4);
+    private static <T> T awaitPage(Future<T> page) {
+        try {
+            return page.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fetching pull requests", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
         }
-        if (cleanUrl.startsWith("https://github.com/")) {
-            return cleanUrl.substring("https://github.com/".length());
+    }
+
+    static OptionalInt lastPageOf(HttpHeaders headers) {
+        String link = headers.getFirst(HttpHeaders.LINK);
+        if (link == null) {
+            return OptionalInt.empty();
         }
-        return cleanUrl;
+        Matcher matcher = LAST_PAGE_LINK.matcher(link);
+        return matcher.find() ? OptionalInt.of(Integer.parseInt(matcher.group(1))) : OptionalInt.empty();
+    }
+
+    @Override
+    public List<Incident> fetchIncidents(String repoUrl, Instant since) {
+        return Collections.emptyList();
     }
-}
\ No newline at end of file
+}
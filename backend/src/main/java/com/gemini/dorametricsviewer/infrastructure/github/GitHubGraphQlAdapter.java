@@ -0,0 +1,318 @@
+package com.gemini.dorametricsviewer.infrastructure.github;
+
+import com.gemini.dorametricsviewer.domain.RepositoryUrls;
+import com.gemini.dorametricsviewer.domain.model.Change;
+import com.gemini.dorametricsviewer.domain.model.Deployment;
+import com.gemini.dorametricsviewer.domain.model.Incident;
+import com.gemini.dorametricsviewer.domain.port.SourceControlPort;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link SourceControlPort} on the GitHub GraphQL API, selected with {@code dora.github.api=graphql}.
+ * One query pages through merged pull requests and releases together, asking only for the fields we
+ * map, so a typical scan needs a single round trip instead of a {@code /releases} call plus one
+ * {@code /pulls} call per 100 pull requests.
+ */
+@Component
+@ConditionalOnProperty(prefix = "dora.github", name = "api", havingValue = "graphql")
+public class GitHubGraphQlAdapter implements SourceControlPort {
+
+    private static final String SCAN_QUERY = """
+            query($owner: String!, $name: String!,
+                  $pulls: Boolean!, $pullsAfter: String, $releases: Boolean!, $releasesAfter: String) {
+              repository(owner: $owner, name: $name) {
+                pullRequests(states: MERGED, first: 100, after: $pullsAfter,
+                             orderBy: {field: UPDATED_AT, direction: DESC}) @include(if: $pulls) {
+                  pageInfo { hasNextPage endCursor }
+                  nodes { number createdAt updatedAt mergedAt mergeCommit { oid } author { login } }
+                }
+                releases(first: 100, after: $releasesAfter,
+                         orderBy: {field: CREATED_AT, direction: DESC}) @include(if: $releases) {
+                  pageInfo { hasNextPage endCursor }
+                  nodes { databaseId createdAt publishedAt description tagCommit { oid } }
+                }
+              }
+            }
+            """;
+
+    private static final String REPOSITORIES_QUERY = """
+            query($login: String!, $after: String) {
+              organization(login: $login) {
+                repositories(first: 100, after: $after, orderBy: {field: NAME, direction: ASC}) {
+                  pageInfo { hasNextPage endCursor }
+                  nodes { url isArchived }
+                }
+              }
+            }
+            """;
+
+    private final GitHubProperties properties;
+    private final RestClient restClient;
+    // First page of both connections per repository while it is in flight, so the concurrent
+    // deployment and change fetches of a scan share one round trip
+    private final ConcurrentMap<String, CompletableFuture<GitHubGraphQlResponse.Repository>> firstPages = new ConcurrentHashMap<>();
+
+    public GitHubGraphQlAdapter(GitHubProperties properties, RestClient.Builder builder, GitHubRateLimiter rateLimiter,
+                                GitHubRequestMetrics requestMetrics) {
+        this.properties = properties;
+        var clientBuilder = builder.baseUrl(properties.getBaseUrl());
+        // Picks the token each request is sent with; the metrics run inside it so that its retries are
+        // measured as well
+        clientBuilder.requestInterceptor(rateLimiter.eachAttemptThrough(requestMetrics));
+        this.restClient = clientBuilder.build();
+    }
+
+    @Override
+    public List<Deployment> fetchDeployments(String repoUrl, Instant since) {
+        String repoPath = RepositoryUrls.path(repoUrl);
+        List<Deployment> deployments = new ArrayList<>();
+        GitHubGraphQlResponse.Connection<GitHubGraphQlResponse.Release> releases = firstPage(repoPath).releases();
+        while (true) {
+            Instant lastCreatedAt = null;
+            boolean publishedInWindow = false;
+            for (GitHubGraphQlResponse.Release release : releases.nodes()) {
+                lastCreatedAt = release.createdAt();
+                if (release.publishedAt() != null && release.publishedAt().isAfter(since)) {
+                    publishedInWindow = true;
+                    deployments.add(new Deployment(
+                            repoPath + "/release/" + release.databaseId(),
+                            repoUrl,
+                            release.tagCommit() != null ? release.tagCommit().oid() : null,
+                            release.createdAt(),
+                            release.publishedAt(),
+                            "production",
+                            "SUCCESS",
+                            release.description()
+                    ));
+                }
+            }
+            // Releases come newest first by creation, but are filtered by publication: a draft created before
+            // 'since' may be published inside the window, so paging goes on while a page still has one
+            if (!releases.pageInfo().hasNextPage()
+                    || (lastCreatedAt != null && lastCreatedAt.isBefore(since) && !publishedInWindow)) {
+                return deployments;
+            }
+            releases = query(repoPath, null, releases.pageInfo().endCursor()).releases();
+        }
+    }
+
+    @Override
+    public List<Change> fetchChanges(String repoUrl, Instant since) {
+        try (Stream<List<Change>> pages = streamChanges(repoUrl, since)) {
+            return pages.flatMap(List::stream).collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    @Override
+    public Stream<List<Change>> streamChanges(String repoUrl, Instant since) {
+        PullRequestPages pages = new PullRequestPages(RepositoryUrls.path(repoUrl), repoUrl, since);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pages, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public List<Incident> fetchIncidents(String repoUrl, Instant since) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<String> listRepositories(String organization) {
+        List<String> repoUrls = new ArrayList<>();
+        String cursor = null;
+        while (true) {
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("login", organization);
+            variables.put("after", cursor);
+            GitHubGraphQlResponse.Data data = execute(REPOSITORIES_QUERY, variables);
+            if (data.organization() == null) {
+                throw new RestClientException("GitHub GraphQL returned no organization for " + organization);
+            }
+            GitHubGraphQlResponse.Connection<GitHubGraphQlResponse.RepositoryNode> repositories = data.organization().repositories();
+            for (GitHubGraphQlResponse.RepositoryNode repository : repositories.nodes()) {
+                if (!repository.isArchived()) {
+                    repoUrls.add(repository.url());
+                }
+            }
+            if (!repositories.pageInfo().hasNextPage()) {
+                return repoUrls;
+            }
+            cursor = repositories.pageInfo().endCursor();
+        }
+    }
+
+    /**
+     * Cursor pagination is sequential, so each page is requested when the previous one has been consumed.
+     */
+    private final class PullRequestPages implements Iterator<List<Change>> {
+
+        private final String repoPath;
+        private final String repoUrl;
+        private final Instant since;
+
+        private int pages;
+        private String cursor;
+        private boolean done;
+        private List<Change> ready;
+
+        PullRequestPages(String repoPath, String repoUrl, Instant since) {
+            this.repoPath = repoPath;
+            this.repoUrl = repoUrl;
+            this.since = since;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (ready == null && !done) {
+                advance();
+            }
+            return ready != null;
+        }
+
+        @Override
+        public List<Change> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            List<Change> page = ready;
+            ready = null;
+            return page;
+        }
+
+        private void advance() {
+            GitHubGraphQlResponse.Connection<GitHubGraphQlResponse.PullRequest> pullRequests = pages == 0
+                    ? firstPage(repoPath).pullRequests()
+                    : query(repoPath, cursor, null).pullRequests();
+            pages++;
+
+            List<Change> changes = new ArrayList<>();
+            Instant lastUpdatedAt = null;
+            for (GitHubGraphQlResponse.PullRequest pr : pullRequests.nodes()) {
+                lastUpdatedAt = pr.updatedAt();
+                if (pr.mergedAt() != null && pr.mergedAt().isAfter(since)) {
+                    changes.add(new Change(
+                            repoPath + "/pr/" + pr.number(),
+                            repoUrl,
+                            pr.mergeCommit() != null ? pr.mergeCommit().oid() : null,
+                            pr.createdAt(),
+                            pr.mergedAt(),
+                            pr.author() != null ? pr.author().login() : "unknown"
+                    ));
+                }
+            }
+
+            // Merging bumps updatedAt, so once a page ends before 'since' no later page can hold a newer merge
+            cursor = pullRequests.pageInfo().endCursor();
+            done = !pullRequests.pageInfo().hasNextPage()
+                    || pages >= properties.getMaxPullRequestPages()
+                    || (lastUpdatedAt != null && lastUpdatedAt.isBefore(since));
+            if (!changes.isEmpty()) {
+                ready = changes;
+            }
+        }
+    }
+
+    /**
+     * First page of both connections. A caller arriving while another one's request is in flight
+     * waits for it instead of sending its own.
+     */
+    private GitHubGraphQlResponse.Repository firstPage(String repoPath) {
+        CompletableFuture<GitHubGraphQlResponse.Repository> page = new CompletableFuture<>();
+        CompletableFuture<GitHubGraphQlResponse.Repository> inFlight = firstPages.putIfAbsent(repoPath, page);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+        try {
+            page.complete(scan(repoPath, true, null, true, null));
+        } catch (RuntimeException e) {
+            page.completeExceptionally(e);
+            throw e;
+        } finally {
+            firstPages.remove(repoPath, page);
+        }
+        return page.join();
+    }
+
+    /**
+     * Next page of the pull requests (given {@code pullsAfter}) or of the releases (given {@code releasesAfter}).
+     */
+    private GitHubGraphQlResponse.Repository query(String repoPath, String pullsAfter, String releasesAfter) {
+        return scan(repoPath, pullsAfter != null, pullsAfter, releasesAfter != null, releasesAfter);
+    }
+
+    private GitHubGraphQlResponse.Repository scan(String repoPath, boolean pulls, String pullsAfter,
+                                                  boolean releases, String releasesAfter) {
+        int slash = repoPath.indexOf('/');
+        if (slash < 0) {
+            throw new IllegalArgumentException("Not a GitHub repository: " + repoPath);
+        }
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("owner", repoPath.substring(0, slash));
+        variables.put("name", repoPath.substring(slash + 1));
+        variables.put("pulls", pulls);
+        variables.put("pullsAfter", pullsAfter);
+        variables.put("releases", releases);
+        variables.put("releasesAfter", releasesAfter);
+
+        GitHubGraphQlResponse.Data data = execute(SCAN_QUERY, variables);
+        if (data.repository() == null) {
+            throw new RestClientException("GitHub GraphQL returned no repository for " + repoPath);
+        }
+        return data.repository();
+    }
+
+    private GitHubGraphQlResponse.Data execute(String query, Map<String, Object> variables) {
+        GitHubGraphQlResponse response = restClient.post()
+                .uri("/graphql")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("query", query, "variables", variables))
+                .retrieve()
+                .body(GitHubGraphQlResponse.class);
+
+        // GraphQL reports failures such as an unknown repository in the body of a 200 response. RATE_LIMITED
+        // answers are waited out and sent again by GitHubRateLimiter; one that gets here used up every attempt.
+        if (response != null && response.errors() != null && !response.errors().isEmpty()) {
+            throw new RestClientException("GitHub GraphQL query failed: " + response.errors().stream()
+                    .map(GitHubGraphQlResponse.Error::message)
+                    .collect(Collectors.joining("; ")));
+        }
+        if (response == null || response.data() == null) {
+            throw new RestClientException("GitHub GraphQL returned no data");
+        }
+        return response.data();
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for GitHub", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.gemini.dorametricsviewer.infrastructure.github;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Response of {@link GitHubGraphQlAdapter}'s queries; a connection is {@code null} when the query
+ * did not include it.
+ */
+record GitHubGraphQlResponse(Data data, List<Error> errors) {
+
+    record Data(Repository repository, Organization organization) {}
+
+    record Repository(Connection<PullRequest> pullRequests, Connection<Release> releases) {}
+
+    record Organization(Connection<RepositoryNode> repositories) {}
+
+    record RepositoryNode(String url, boolean isArchived) {}
+
+    record Connection<T>(PageInfo pageInfo, List<T> nodes) {}
+
+    record PageInfo(boolean hasNextPage, String endCursor) {}
+
+    record PullRequest(String number, Instant createdAt, Instant updatedAt, Instant mergedAt, Commit mergeCommit, Actor author) {}
+
+    record Release(String databaseId, Instant createdAt, Instant publishedAt, String description, Commit tagCommit) {}
+
+    record Commit(String oid) {}
+
+    record Actor(String login) {}
+
+    record Error(String message) {}
+}
@@ -0,0 +1,176 @@
+package com.gemini.dorametricsviewer.infrastructure.github;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.gemini.dorametricsviewer.domain.model.Change;
+import com.gemini.dorametricsviewer.domain.model.Deployment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads {@code /pulls}, {@code /releases} and {@code /orgs/{org}/repos} payloads token by token and builds domain records
+ * straight from the few fields we use. Everything else, such as the head/base repository objects
+ * of every pull request, is skipped without being materialized.
+ */
+public final class GitHubPayloadDecoder {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * Merged pull requests of one {@code /pulls} page, plus what paging needs: how many pull requests
+     * the page held and when the last of them was merged, if it was.
+     */
+    public record PullRequestPage(List<Change> changes, int pullRequests, Instant lastMergedAt) {
+    }
+
+    /**
+     * Repositories of one {@code /orgs/{org}/repos} page worth scanning, plus how many the page held.
+     */
+    public record RepositoryPage(List<String> repoUrls, int repositories) {
+    }
+
+    /**
+     * Pull requests merged after {@code since}, in payload order.
+     */
+    public PullRequestPage readPullRequests(InputStream body, String repoPath, String repoUrl, Instant since) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            List<Change> changes = new ArrayList<>();
+            int pullRequests = 0;
+            Instant lastMergedAt = null;
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return new PullRequestPage(changes, 0, null);
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                String number = null;
+                String mergeCommitSha = null;
+                Instant createdAt = null;
+                Instant mergedAt = null;
+                String login = "unknown";
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    switch (field) {
+                        case "number" -> number = parser.getValueAsString();
+                        case "merge_commit_sha" -> mergeCommitSha = text(parser, value);
+                        case "created_at" -> createdAt = instant(parser, value);
+                        case "merged_at" -> mergedAt = instant(parser, value);
+                        case "user" -> login = login(parser, value);
+                        default -> parser.skipChildren();
+                    }
+                }
+                pullRequests++;
+                lastMergedAt = mergedAt;
+                if (mergedAt != null && mergedAt.isAfter(since)) {
+                    changes.add(new Change(repoPath + "/pr/" + number, repoUrl, mergeCommitSha, createdAt, mergedAt, login));
+                }
+            }
+            return new PullRequestPage(changes, pullRequests, lastMergedAt);
+        }
+    }
+
+    /**
+     * Releases published after {@code since}, in payload order.
+     */
+    public List<Deployment> readReleases(InputStream body, String repoPath, String repoUrl, Instant since) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            List<Deployment> deployments = new ArrayList<>();
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return deployments;
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                String id = null;
+                String targetCommitish = null;
+                Instant createdAt = null;
+                Instant publishedAt = null;
+                String description = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    switch (field) {
+                        case "id" -> id = parser.getValueAsString();
+                        case "target_commitish" -> targetCommitish = text(parser, value);
+                        case "created_at" -> createdAt = instant(parser, value);
+                        case "published_at" -> publishedAt = instant(parser, value);
+                        case "body" -> description = text(parser, value);
+                        default -> parser.skipChildren();
+                    }
+                }
+                if (publishedAt != null && publishedAt.isAfter(since)) {
+                    deployments.add(new Deployment(repoPath + "/release/" + id, repoUrl, targetCommitish,
+                            createdAt, publishedAt, "production", "SUCCESS", description));
+                }
+            }
+            return deployments;
+        }
+    }
+
+    /**
+     * Web URLs of the repositories on the page, leaving out archived ones, in payload order.
+     */
+    public RepositoryPage readRepositories(InputStream body) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            List<String> repoUrls = new ArrayList<>();
+            int repositories = 0;
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return new RepositoryPage(repoUrls, 0);
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                repositories++;
+                String htmlUrl = null;
+                boolean archived = false;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    switch (field) {
+                        case "html_url" -> htmlUrl = text(parser, value);
+                        case "archived" -> archived = value == JsonToken.VALUE_TRUE;
+                        default -> parser.skipChildren();
+                    }
+                }
+                if (htmlUrl != null && !archived) {
+                    repoUrls.add(htmlUrl);
+                }
+            }
+            return new RepositoryPage(repoUrls, repositories);
+        }
+    }
+
+    private static String login(JsonParser parser, JsonToken value) throws IOException {
+        if (value != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return "unknown";
+        }
+        String login = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken fieldValue = parser.nextToken();
+            if (field.equals("login")) {
+                login = text(parser, fieldValue);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return login;
+    }
+
+    private static String text(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (value.isScalarValue()) {
+            return parser.getText();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private static Instant instant(JsonParser parser, JsonToken value) throws IOException {
+        String text = text(parser, value);
+        return text != null ? Instant.parse(text) : null;
+    }
+}
@@ -4,10 +4,43 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import lombok.Data;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 @ConfigurationProperties(prefix = "dora.github")
 @Data
 public class GitHubProperties {
     private String token;
+    // More tokens to spread calls over, each with its own rate limit; combined with 'token'
+    private List<String> tokens = new ArrayList<>();
     private String baseUrl = "https://api.github.com";
+    // "rest" for GitHubAdapter, "graphql" for GitHubGraphQlAdapter
+    private String api = "rest";
+    // Upper bound on /pulls pages read per scan (100 PRs each)
+    private int maxPullRequestPages = 8;
+    // Number of /pulls page requests kept in flight at once
+    private int pageWindow = 4;
+    private Cache cache = new Cache();
+    private RateLimit rateLimit = new RateLimit();
+
+    @Data
+    public static class Cache {
+        // Conditional-request (ETag / Last-Modified) cache for GET calls
+        private boolean enabled = true;
+        private int maxEntries = 500;
+        private long maxBytes = 64L * 1024 * 1024;
+        // Directory the entries are kept in across restarts; empty keeps them in memory only
+        private String directory = "";
+    }
+
+    @Data
+    public static class RateLimit {
+        // Queue GitHub calls against the X-RateLimit budget instead of failing once it is spent
+        private boolean enabled = true;
+        // Requests that may go out back to back before pacing kicks in
+        private int burst = 20;
+        // Sends of one request, counting retries after a rate-limited response
+        private int maxAttempts = 3;
+    }
 }
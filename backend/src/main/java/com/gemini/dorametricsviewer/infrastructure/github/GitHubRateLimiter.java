@@ -0,0 +1,459 @@
+package com.gemini.dorametricsviewer.infrastructure.github;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.gemini.dorametricsviewer.application.ScanPriority;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Schedules every GitHub call against the rate limits GitHub reports back, shared by all scans, and
+ * spreads the calls over the configured pool of tokens.
+ * <p>
+ * Each token has separate REST ({@code core}) and GraphQL budgets, tracked from the
+ * {@code X-RateLimit-*} headers of every response. Waiting requests are served by {@link ScanPriority},
+ * then in arrival order, on the least-loaded token: of the tokens allowed to send, the one with the
+ * most budget left. A token sends through a token bucket that refills at the rate which spends its
+ * remaining budget exactly by its reset time, allowing bursts of up to {@code burst} requests. A token
+ * whose budget is spent, or that GitHub answered with {@code Retry-After} or an exhausted limit, is
+ * left out until its reset; when every token is out, requests wait instead of failing and the limited
+ * request is sent again. GraphQL refuses a query over budget with a 200 and a {@code RATE_LIMITED}
+ * error in the body, which is treated the same way.
+ */
+@Component
+public class GitHubRateLimiter implements ClientHttpRequestInterceptor {
+
+    private static final String LIMIT = "X-RateLimit-Limit";
+    private static final String REMAINING = "X-RateLimit-Remaining";
+    private static final String RESET = "X-RateLimit-Reset";
+    private static final String GRAPHQL = "graphql";
+    // GraphQL error type of a query refused because the budget is spent, sent with a 200
+    private static final String RATE_LIMITED = "RATE_LIMITED";
+    private static final JsonFactory JSON = new JsonFactory();
+    // How long to wait for an in-flight response when the budget is spent but its reset time is unknown
+    private static final long RECHECK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final GitHubProperties.RateLimit properties;
+    // A null entry stands for unauthenticated access when no token is configured
+    private final List<String> tokens;
+    private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+
+    public GitHubRateLimiter(GitHubProperties properties) {
+        this.properties = properties.getRateLimit();
+        this.tokens = tokenPool(properties);
+    }
+
+    /**
+     * {@code token} and {@code tokens} together, without blanks or duplicates.
+     */
+    static List<String> tokenPool(GitHubProperties properties) {
+        List<String> tokens = Stream.concat(Stream.ofNullable(properties.getToken()), properties.getTokens().stream())
+                .filter(token -> token != null && !token.isBlank())
+                .map(String::trim)
+                .distinct()
+                .toList();
+        return tokens.isEmpty() ? Collections.singletonList(null) : tokens;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        return intercept(request, body, execution, (attemptRequest, attemptBody, send) -> send.execute(attemptRequest, attemptBody));
+    }
+
+    /**
+     * This limiter with every attempt, retries included, sent through {@code perAttempt}. A client's
+     * interceptor chain is walked only once per request, so a retry bypasses every interceptor registered
+     * after the limiter; one that must see each attempt, like {@link GitHubRequestMetrics}, goes here
+     * instead, with the limiter registered last.
+     */
+    public ClientHttpRequestInterceptor eachAttemptThrough(ClientHttpRequestInterceptor perAttempt) {
+        return (request, body, execution) -> intercept(request, body, execution, perAttempt);
+    }
+
+    private ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution,
+                                         ClientHttpRequestInterceptor perAttempt) throws IOException {
+        Pool pool = pools.computeIfAbsent(resourceOf(request), Pool::new);
+        ScanPriority priority = ScanPriority.current();
+        for (int attempt = 1; ; attempt++) {
+            Budget budget = pool.acquire(priority);
+            if (budget.token != null) {
+                request.getHeaders().setBearerAuth(budget.token);
+            }
+            ClientHttpResponse response;
+            boolean limitedInBody = false;
+            try {
+                response = perAttempt.intercept(request, body, execution);
+                if (GRAPHQL.equals(pool.resource) && isBudgetSpentAnswer(response)) {
+                    BufferedResponse buffered = new BufferedResponse(response);
+                    response = buffered;
+                    limitedInBody = reportsRateLimited(buffered.body);
+                }
+            } catch (IOException | RuntimeException e) {
+                pool.release(budget);
+                throw e;
+            }
+            boolean limited = pool.complete(budget, response.getStatusCode(), response.getHeaders(), limitedInBody);
+            if (!limited || attempt >= properties.getMaxAttempts()) {
+                return response;
+            }
+            response.close();
+        }
+    }
+
+    /**
+     * Usage of every token, per rate-limit resource it has been used for. Tokens are identified by
+     * their last four characters only.
+     */
+    public List<TokenStats> stats() {
+        List<TokenStats> stats = new ArrayList<>();
+        pools.values().forEach(pool -> stats.addAll(pool.stats()));
+        return stats;
+    }
+
+    public record TokenStats(String token, String resource, long limit, long remaining, Instant resetAt,
+                             int inFlight, long requests, long rateLimited, boolean ejected) {
+    }
+
+    private static String resourceOf(HttpRequest request) {
+        return request.getURI().getPath().endsWith("/graphql") ? GRAPHQL : "core";
+    }
+
+    /**
+     * A successful status that spent the last of the budget: GraphQL answers a rate-limited query this
+     * way, with the reason only in the body.
+     */
+    private static boolean isBudgetSpentAnswer(ClientHttpResponse response) throws IOException {
+        return response.getStatusCode().is2xxSuccessful() && Long.valueOf(0).equals(longHeader(response.getHeaders(), REMAINING));
+    }
+
+    /**
+     * Whether a GraphQL body carries a top-level error of type {@code RATE_LIMITED}. Only the
+     * {@code errors} member is looked at, so release notes or PR titles mentioning it do not count.
+     */
+    static boolean reportsRateLimited(byte[] body) {
+        try (JsonParser parser = JSON.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!"errors".equals(field) || value != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String errorField = parser.currentName();
+                        parser.nextToken();
+                        if ("type".equals(errorField) && RATE_LIMITED.equals(parser.getValueAsString())) {
+                            return true;
+                        }
+                        parser.skipChildren();
+                    }
+                }
+                return false;
+            }
+            return false;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static String mask(String token) {
+        if (token == null) {
+            return "anonymous";
+        }
+        return "..." + token.substring(Math.max(0, token.length() - 4));
+    }
+
+    /**
+     * The budgets of every token for one resource, and the requests waiting for one of them.
+     */
+    private final class Pool {
+
+        private final String resource;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        private final PriorityQueue<Waiter> waiters = new PriorityQueue<>();
+        private final List<Budget> budgets;
+        private long sequence;
+
+        Pool(String resource) {
+            this.resource = resource;
+            this.budgets = tokens.stream().map(Budget::new).toList();
+        }
+
+        Budget acquire(ScanPriority priority) throws InterruptedIOException {
+            lock.lock();
+            try {
+                Waiter waiter = new Waiter(priority.ordinal(), sequence++);
+                waiters.add(waiter);
+                Budget chosen;
+                try {
+                    while (true) {
+                        if (waiters.peek() != waiter) {
+                            changed.await();
+                            continue;
+                        }
+                        Instant now = Instant.now();
+                        chosen = null;
+                        long nanos = Long.MAX_VALUE;
+                        for (Budget budget : budgets) {
+                            long wait = properties.isEnabled() ? budget.nanosUntilPermit(now) : 0;
+                            if (wait <= 0 && (chosen == null || budget.isLessLoadedThan(chosen))) {
+                                chosen = budget;
+                            }
+                            nanos = Math.min(nanos, wait);
+                        }
+                        if (chosen != null) {
+                            break;
+                        }
+                        changed.awaitNanos(nanos);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for the GitHub rate limit");
+                } finally {
+                    waiters.remove(waiter);
+                    changed.signalAll();
+                }
+                chosen.take();
+                return chosen;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void release(Budget budget) {
+            lock.lock();
+            try {
+                budget.inFlight--;
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Records what the response says about the token's budget and returns whether it was rate limited.
+         */
+        boolean complete(Budget budget, HttpStatusCode status, HttpHeaders headers, boolean limitedInBody) {
+            lock.lock();
+            try {
+                boolean limited = budget.record(status, headers, limitedInBody);
+                changed.signalAll();
+                return limited;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        List<TokenStats> stats() {
+            lock.lock();
+            try {
+                Instant now = Instant.now();
+                return budgets.stream()
+                        .map(budget -> new TokenStats(mask(budget.token), resource, budget.limit, budget.remaining,
+                                budget.resetAt, budget.inFlight, budget.requests, budget.rateLimited, budget.isEjected(now)))
+                        .toList();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Rate-limit state of one token for one resource, guarded by its pool's lock.
+     */
+    private final class Budget {
+
+        private final String token;
+        // Unknown (-1) until the first response carries rate-limit headers
+        private long limit = -1;
+        private long remaining = -1;
+        private Instant resetAt;
+        private Instant pausedUntil = Instant.MIN;
+        private int inFlight;
+        private double credits = properties.getBurst();
+        private long refilledAt = System.nanoTime();
+        private long requests;
+        private long rateLimited;
+
+        Budget(String token) {
+            this.token = token;
+        }
+
+        long available() {
+            return remaining < 0 ? Long.MAX_VALUE : remaining - inFlight;
+        }
+
+        boolean isLessLoadedThan(Budget other) {
+            return available() != other.available() ? available() > other.available() : inFlight < other.inFlight;
+        }
+
+        boolean isEjected(Instant now) {
+            return now.isBefore(pausedUntil) || (available() <= 0 && resetAt != null && now.isBefore(resetAt));
+        }
+
+        void take() {
+            inFlight++;
+            requests++;
+            credits -= 1;
+        }
+
+        long nanosUntilPermit(Instant now) {
+            if (now.isBefore(pausedUntil)) {
+                return Duration.between(now, pausedUntil).toNanos();
+            }
+            if (resetAt != null && !now.isBefore(resetAt)) {
+                // A new window has started; its reset time arrives with the next response
+                remaining = limit;
+                resetAt = null;
+            }
+
+            long available = available();
+            if (available <= 0) {
+                return resetAt != null ? Duration.between(now, resetAt).toNanos() : RECHECK_NANOS;
+            }
+            if (resetAt == null) {
+                credits = properties.getBurst();
+                return 0;
+            }
+
+            // Refill at the rate that spends what is left of the budget exactly by the reset
+            double secondsToReset = Math.max(Duration.between(now, resetAt).toNanos() / 1e9, 1e-3);
+            double perSecond = available / secondsToReset;
+            long nowNanos = System.nanoTime();
+            credits = Math.min(properties.getBurst(), credits + (nowNanos - refilledAt) / 1e9 * perSecond);
+            refilledAt = nowNanos;
+            if (credits >= 1) {
+                return 0;
+            }
+            return (long) Math.ceil((1 - credits) / perSecond * 1e9);
+        }
+
+        boolean record(HttpStatusCode status, HttpHeaders headers, boolean limitedInBody) {
+            inFlight--;
+            Long headerRemaining = longHeader(headers, REMAINING);
+            Long headerReset = longHeader(headers, RESET);
+            if (headerRemaining != null && headerReset != null) {
+                Instant reset = Instant.ofEpochSecond(headerReset);
+                if (resetAt == null || reset.isAfter(resetAt)) {
+                    remaining = headerRemaining;
+                    resetAt = reset;
+                } else if (reset.equals(resetAt)) {
+                    // Responses can arrive out of order; within a window the lowest count is the latest
+                    remaining = Math.min(remaining, headerRemaining);
+                }
+                Long headerLimit = longHeader(headers, LIMIT);
+                if (headerLimit != null) {
+                    limit = headerLimit;
+                }
+            }
+
+            Long retryAfter = longHeader(headers, HttpHeaders.RETRY_AFTER);
+            boolean limited = limitedInBody
+                    || status.isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)
+                    || (status.isSameCodeAs(HttpStatus.FORBIDDEN) && (retryAfter != null || Long.valueOf(0).equals(headerRemaining)));
+            if (limited) {
+                rateLimited++;
+                Instant now = Instant.now();
+                Instant until = retryAfter != null ? now.plusSeconds(retryAfter)
+                        : resetAt != null ? resetAt
+                        : now.plus(Duration.ofMinutes(1));
+                if (until.isAfter(pausedUntil)) {
+                    pausedUntil = until;
+                }
+            }
+            return limited;
+        }
+    }
+
+    private record Waiter(int priority, long sequence) implements Comparable<Waiter> {
+
+        @Override
+        public int compareTo(Waiter other) {
+            return priority != other.priority
+                    ? Integer.compare(priority, other.priority)
+                    : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * A response whose body has been read, so it can be inspected and still handed on.
+     */
+    private static final class BufferedResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse response;
+        private final byte[] body;
+
+        private BufferedResponse(ClientHttpResponse response) throws IOException {
+            this.response = response;
+            try (InputStream in = response.getBody()) {
+                this.body = in.readAllBytes();
+            }
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+            response.close();
+        }
+    }
+
+    private static Long longHeader(HttpHeaders headers, String name) {
+        String value = headers.getFirst(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
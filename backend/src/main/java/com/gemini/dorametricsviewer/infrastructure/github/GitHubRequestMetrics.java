@@ -0,0 +1,141 @@
+package com.gemini.dorametricsviewer.infrastructure.github;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.regex.Pattern;
+
+/**
+ * Records every HTTP call made to GitHub, retries included, tagged with the API and the endpoint with
+ * owner, repository, organization and ids replaced by placeholders:
+ * <ul>
+ *     <li>{@code dora.github.requests}: latency until the response headers arrive, by {@code status}</li>
+ *     <li>{@code dora.github.response.size}: bytes read from the response body</li>
+ *     <li>{@code dora.github.request.page}: the {@code page} requested from paged REST endpoints</li>
+ * </ul>
+ * Runs inside {@link GitHubRateLimiter} on the adapters' clients, once per attempt (see
+ * {@link GitHubRateLimiter#eachAttemptThrough}), so cached responses and rate-limit waits are not counted
+ * but every rate-limited attempt is.
+ */
+@Component
+public class GitHubRequestMetrics implements ClientHttpRequestInterceptor {
+
+    private static final Pattern REPOSITORY = Pattern.compile("^/repos/[^/]+/[^/]+");
+    private static final Pattern ORGANIZATION = Pattern.compile("^/orgs/[^/]+");
+    private static final Pattern ID = Pattern.compile("/\\d+(?=/|$)");
+
+    private final MeterRegistry registry;
+
+    public GitHubRequestMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        URI uri = request.getURI();
+        String endpoint = endpoint(uri.getPath());
+        String api = endpoint.equals("/graphql") ? "graphql" : "rest";
+        String page = UriComponentsBuilder.fromUri(uri).build().getQueryParams().getFirst("page");
+        if (page != null && page.chars().allMatch(Character::isDigit)) {
+            DistributionSummary.builder("dora.github.request.page")
+                    .tags("api", api, "endpoint", endpoint)
+                    .register(registry)
+                    .record(Integer.parseInt(page));
+        }
+
+        Timer.Sample sample = Timer.start(registry);
+        String status = "IO_ERROR";
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            status = String.valueOf(response.getStatusCode().value());
+            return new CountingResponse(response, DistributionSummary.builder("dora.github.response.size")
+                    .baseUnit("bytes")
+                    .tags("api", api, "endpoint", endpoint)
+                    .register(registry));
+        } finally {
+            sample.stop(registry.timer("dora.github.requests", "api", api, "endpoint", endpoint, "status", status));
+        }
+    }
+
+    static String endpoint(String path) {
+        String endpoint = REPOSITORY.matcher(path).replaceFirst("/repos/{owner}/{repo}");
+        endpoint = ORGANIZATION.matcher(endpoint).replaceFirst("/orgs/{org}");
+        return ID.matcher(endpoint).replaceAll("/{id}");
+    }
+
+    /**
+     * Counts the body bytes the client reads and records them once the response is closed.
+     */
+    private static final class CountingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final DistributionSummary size;
+        private long bytes;
+        private boolean recorded;
+
+        CountingResponse(ClientHttpResponse delegate, DistributionSummary size) {
+            this.delegate = delegate;
+            this.size = size;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return new FilterInputStream(delegate.getBody()) {
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b >= 0) {
+                        bytes++;
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int n = super.read(buffer, offset, length);
+                    if (n > 0) {
+                        bytes += n;
+                    }
+                    return n;
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            if (!recorded) {
+                recorded = true;
+                size.record(bytes);
+            }
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.gemini.dorametricsviewer.infrastructure.github;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conditional-request cache for GitHub GET calls, keyed by request URI.
+ * <p>
+ * Responses carrying an {@code ETag} or {@code Last-Modified} validator are kept together with their
+ * body. Later requests for the same URI send {@code If-None-Match} / {@code If-Modified-Since}, and a
+ * {@code 304 Not Modified} is answered from the cache as a regular 200. GitHub does not count 304s against
+ * the rate limit. Entries are evicted least-recently-used once the entry count or total body size exceeds
+ * its bounds. With a {@link GitHubResponseStore} they are also kept on disk and loaded again on start, so
+ * the first scans after a restart or deploy revalidate instead of downloading everything again.
+ */
+public class GitHubResponseCache implements ClientHttpRequestInterceptor {
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final GitHubResponseStore store;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Orders the file writes and deletes of a key, striped by its hash
+    private final Object[] fileLocks = new Object[64];
+
+    private long totalBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    GitHubResponseCache(int maxEntries, long maxBytes) {
+        this(maxEntries, maxBytes, null);
+    }
+
+    GitHubResponseCache(int maxEntries, long maxBytes, GitHubResponseStore store) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.store = store;
+        for (int i = 0; i < fileLocks.length; i++) {
+            fileLocks[i] = new Object();
+        }
+        if (store != null) {
+            for (GitHubResponseStore.Stored stored : store.load()) {
+                put(stored.uri(), new Entry(stored.headers(), stored.body()), false);
+            }
+        }
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        if (request.getMethod() != HttpMethod.GET) {
+            return execution.execute(request, body);
+        }
+
+        String key = request.getURI().toString();
+        Entry cached = get(key);
+        if (cached != null) {
+            if (cached.headers().getETag() != null) {
+                request.getHeaders().setIfNoneMatch(cached.headers().getETag());
+            } else {
+                request.getHeaders().set(HttpHeaders.IF_MODIFIED_SINCE, cached.headers().getFirst(HttpHeaders.LAST_MODIFIED));
+            }
+        }
+
+        ClientHttpResponse response = execution.execute(request, body);
+        if (cached != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            response.close();
+            recordHit();
+            if (store != null) {
+                store.touch(key);
+            }
+            return new CachedResponse(cached);
+        }
+        recordMiss();
+
+        HttpHeaders headers = response.getHeaders();
+        boolean cacheable = response.getStatusCode().isSameCodeAs(HttpStatus.OK)
+                && (headers.getETag() != null || headers.getFirst(HttpHeaders.LAST_MODIFIED) != null);
+        if (!cacheable) {
+            return response;
+        }
+
+        Entry entry;
+        try (response) {
+            HttpHeaders copy = new HttpHeaders();
+            copy.putAll(headers);
+            entry = new Entry(copy, response.getBody().readAllBytes());
+        }
+        put(key, entry, true);
+        return new CachedResponse(entry);
+    }
+
+    synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, entries.size(), totalBytes);
+    }
+
+    private synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Adds the entry and evicts down to the bounds; {@code write} stores it on disk as well, which is
+     * skipped for entries just loaded from there. Evicted entries leave the disk too.
+     * <p>
+     * Files are written and deleted outside the cache lock, under the lock of their key. An entry is
+     * written and inserted under it, and an evicted file is only deleted, under it, when its key has not
+     * been put back meanwhile, so a file is never deleted from under an entry in the cache.
+     */
+    private void put(String key, Entry entry, boolean write) {
+        if (entry.body().length > maxBytes) {
+            return;
+        }
+        List<String> evictedKeys;
+        synchronized (fileLock(key)) {
+            if (store != null && write) {
+                store.write(key, entry.headers(), entry.body());
+            }
+            evictedKeys = insert(key, entry);
+        }
+        // One key lock at a time, so two puts never wait on each other's
+        for (String evicted : evictedKeys) {
+            synchronized (fileLock(evicted)) {
+                if (!contains(evicted)) {
+                    store.delete(evicted);
+                }
+            }
+        }
+    }
+
+    private Object fileLock(String key) {
+        return fileLocks[Math.floorMod(key.hashCode(), fileLocks.length)];
+    }
+
+    private synchronized boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * The keys evicted to make room, only non-empty when a store is attached.
+     */
+    private synchronized List<String> insert(String key, Entry entry) {
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            totalBytes -= previous.body().length;
+        }
+        totalBytes += entry.body().length;
+
+        List<String> evicted = new ArrayList<>();
+        Iterator<Map.Entry<String, Entry>> eldestFirst = entries.entrySet().iterator();
+        while (entries.size() > maxEntries || totalBytes > maxBytes) {
+            Map.Entry<String, Entry> eldest = eldestFirst.next();
+            totalBytes -= eldest.getValue().body().length;
+            if (store != null) {
+                evicted.add(eldest.getKey());
+            }
+            eldestFirst.remove();
+            evictions++;
+        }
+        return evicted;
+    }
+
+    private synchronized void recordHit() {
+        hits++;
+    }
+
+    private synchronized void recordMiss() {
+        misses++;
+    }
+
+    public record Stats(long hits, long misses, long evictions, int entries, long bytes) {
+    }
+
+    private record Entry(HttpHeaders headers, byte[] body) {
+    }
+
+    private static final class CachedResponse implements ClientHttpResponse {
+
+        private final Entry entry;
+
+        private CachedResponse(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return HttpStatus.OK;
+        }
+
+        @Override
+        public String getStatusText() {
+            return HttpStatus.OK.getReasonPhrase();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return HttpHeaders.readOnlyHttpHeaders(entry.headers());
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(entry.body());
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
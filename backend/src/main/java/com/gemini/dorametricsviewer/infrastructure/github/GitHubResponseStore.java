@@ -0,0 +1,166 @@
+package com.gemini.dorametricsviewer.infrastructure.github;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * On-disk copy of the {@link GitHubResponseCache} entries, one file per request URI, so validators and
+ * bodies survive a restart. A file's modification time is the entry's last use, which lets the cache
+ * rebuild its least-recently-used order on load.
+ * <p>
+ * The cache works without it: a file that cannot be written or read is logged and skipped, and the
+ * request simply goes to GitHub without validators next time.
+ */
+class GitHubResponseStore {
+
+    private static final Logger log = LoggerFactory.getLogger(GitHubResponseStore.class);
+    private static final int FORMAT = 1;
+    private static final String SUFFIX = ".entry";
+
+    private final Path directory;
+
+    GitHubResponseStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Every stored entry, least recently used first.
+     */
+    List<Stored> load() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                    .sorted(Comparator.comparing(GitHubResponseStore::lastModified))
+                    .toList();
+        } catch (IOException e) {
+            log.warn("Could not list GitHub response cache directory {}: {}", directory, e.toString());
+            return List.of();
+        }
+        List<Stored> entries = new ArrayList<>(files.size());
+        for (Path file : files) {
+            try {
+                entries.add(read(file));
+            } catch (IOException e) {
+                log.warn("Dropping unreadable GitHub response cache file {}: {}", file, e.toString());
+                delete(file);
+            }
+        }
+        return entries;
+    }
+
+    void write(String uri, HttpHeaders headers, byte[] body) {
+        Path temp = null;
+        try {
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, "write-", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(FORMAT);
+                out.writeUTF(uri);
+                out.writeInt(headers.size());
+                for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                    out.writeUTF(header.getKey());
+                    out.writeInt(header.getValue().size());
+                    for (String value : header.getValue()) {
+                        out.writeUTF(value);
+                    }
+                }
+                out.writeInt(body.length);
+                out.write(body);
+            }
+            Files.move(temp, fileOf(uri), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not store GitHub response for {}: {}", uri, e.toString());
+            if (temp != null) {
+                delete(temp);
+            }
+        }
+    }
+
+    /**
+     * Marks the entry as just used, so it is not among the first evicted after a restart.
+     */
+    void touch(String uri) {
+        try {
+            Files.setLastModifiedTime(fileOf(uri), FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // Gone or not writable; only the eviction order after a restart is affected
+        }
+    }
+
+    void delete(String uri) {
+        delete(fileOf(uri));
+    }
+
+    private Stored read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FORMAT) {
+                throw new IOException("unknown format");
+            }
+            String uri = in.readUTF();
+            HttpHeaders headers = new HttpHeaders();
+            for (int names = in.readInt(); names > 0; names--) {
+                String name = in.readUTF();
+                for (int values = in.readInt(); values > 0; values--) {
+                    headers.add(name, in.readUTF());
+                }
+            }
+            int length = in.readInt();
+            byte[] body = in.readNBytes(length);
+            if (body.length != length) {
+                throw new IOException("truncated body");
+            }
+            return new Stored(uri, headers, body);
+        }
+    }
+
+    private Path fileOf(String uri) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(uri.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(digest) + SUFFIX);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete GitHub response cache file {}: {}", file, e.toString());
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    record Stored(String uri, HttpHeaders headers, byte[] body) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.gemini.dorametricsviewer.infrastructure.metrics;
+
+import com.gemini.dorametricsviewer.domain.DeploymentIndex;
+import com.gemini.dorametricsviewer.domain.MatchStrategy;
+import com.gemini.dorametricsviewer.domain.model.Change;
+import com.gemini.dorametricsviewer.domain.model.Deployment;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Wraps a {@link MatchStrategy} to record, tagged with the strategy's name, every attempt and its time
+ * in the {@code dora.match} timer and every change it matched in the {@code dora.match.hits} counter.
+ */
+public class MeteredMatchStrategy implements MatchStrategy {
+
+    private final MatchStrategy delegate;
+    private final Timer attempts;
+    private final Counter hits;
+
+    public MeteredMatchStrategy(MatchStrategy delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.attempts = Timer.builder("dora.match")
+                .description("Attempts to match a change to a deployment")
+                .tag("strategy", delegate.name())
+                .register(registry);
+        this.hits = Counter.builder("dora.match.hits")
+                .description("Changes matched to a deployment")
+                .tag("strategy", delegate.name())
+                .register(registry);
+    }
+
+    @Override
+    public Optional<Deployment> findDeployment(Change change, List<Deployment> deployments) {
+        return record(() -> delegate.findDeployment(change, deployments));
+    }
+
+    @Override
+    public Optional<Deployment> findDeployment(Change change, DeploymentIndex index) {
+        return record(() -> delegate.findDeployment(change, index));
+    }
+
+    @Override
+    public String name() {
+        return delegate.name();
+    }
+
+    private Optional<Deployment> record(Supplier<Optional<Deployment>> attempt) {
+        Optional<Deployment> match = attempts.record(attempt);
+        if (match != null && match.isPresent()) {
+            hits.increment();
+        }
+        return match;
+    }
+}
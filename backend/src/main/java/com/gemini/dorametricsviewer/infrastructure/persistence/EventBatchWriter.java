@@ -0,0 +1,122 @@
+package com.gemini.dorametricsviewer.infrastructure.persistence;
+
+import com.gemini.dorametricsviewer.domain.model.Change;
+import com.gemini.dorametricsviewer.domain.model.DailyRollup;
+import com.gemini.dorametricsviewer.domain.model.Deployment;
+import com.gemini.dorametricsviewer.domain.model.Incident;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk upserts for the event tables and their daily rollups.
+ * <p>
+ * Events carry assigned ids, so Spring Data's {@code saveAll} merges them one by one (a SELECT followed
+ * by an INSERT or UPDATE per row). Here every row is a single {@code MERGE INTO ... KEY (id)} statement,
+ * sent in JDBC batches of {@code dora.persistence.batch-size}. Event and rollup rows refer to their
+ * repository by its {@link RepositoryKeys key}, resolved once per repository per call.
+ */
+@Component
+public class EventBatchWriter {
+
+    private static final String UPSERT_DEPLOYMENT = """
+            MERGE INTO deployments (id, repository_id, commit_sha, created_at, deployed_at, environment, status, description)
+            KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final String UPSERT_CHANGE = """
+            MERGE INTO changes (id, repository_id, commit_sha, created_at, merged_at, author)
+            KEY (id) VALUES (?, ?, ?, ?, ?, ?)
+            """;
+    private static final String UPSERT_INCIDENT = """
+            MERGE INTO incidents (id, repository_id, created_at, resolved_at, severity, description)
+            KEY (id) VALUES (?, ?, ?, ?, ?, ?)
+            """;
+    private static final String UPSERT_DAILY_ROLLUP = """
+            MERGE INTO daily_rollups (repository_id, rollup_day, deployment_count, incident_count, restore_seconds, lead_time_seconds, lead_time_count,
+                                      lead_time_sketch, restore_sketch)
+            KEY (repository_id, rollup_day) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RepositoryKeys repositoryKeys;
+    private final PersistenceProperties properties;
+
+    public EventBatchWriter(JdbcTemplate jdbcTemplate, RepositoryKeys repositoryKeys, PersistenceProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.repositoryKeys = repositoryKeys;
+        this.properties = properties;
+    }
+
+    public void upsertDeployments(List<Deployment> deployments) {
+        Map<String, Long> repositories = repositoryKeys.keysOf(deployments, Deployment::repositoryUrl);
+        jdbcTemplate.batchUpdate(UPSERT_DEPLOYMENT, deployments, batchSize(), (ps, d) -> {
+            ps.setString(1, d.id());
+            ps.setLong(2, repositories.get(d.repositoryUrl()));
+            ps.setString(3, d.commitSha());
+            setInstant(ps, 4, d.createdAt());
+            setInstant(ps, 5, d.deployedAt());
+            ps.setString(6, d.environment());
+            ps.setString(7, d.status());
+            ps.setString(8, d.description());
+        });
+    }
+
+    public void upsertChanges(List<Change> changes) {
+        Map<String, Long> repositories = repositoryKeys.keysOf(changes, Change::repositoryUrl);
+        jdbcTemplate.batchUpdate(UPSERT_CHANGE, changes, batchSize(), (ps, c) -> {
+            ps.setString(1, c.id());
+            ps.setLong(2, repositories.get(c.repositoryUrl()));
+            ps.setString(3, c.commitSha());
+            setInstant(ps, 4, c.createdAt());
+            setInstant(ps, 5, c.mergedAt());
+            ps.setString(6, c.author());
+        });
+    }
+
+    public void upsertIncidents(List<Incident> incidents) {
+        Map<String, Long> repositories = repositoryKeys.keysOf(incidents, Incident::repositoryUrl);
+        jdbcTemplate.batchUpdate(UPSERT_INCIDENT, incidents, batchSize(), (ps, i) -> {
+            ps.setString(1, i.id());
+            ps.setLong(2, repositories.get(i.repositoryUrl()));
+            setInstant(ps, 3, i.createdAt());
+            setInstant(ps, 4, i.resolvedAt());
+            ps.setString(5, i.severity());
+            ps.setString(6, i.description());
+        });
+    }
+
+    public void upsertDailyRollups(List<DailyRollup> rollups) {
+        Map<String, Long> repositories = repositoryKeys.keysOf(rollups, DailyRollup::repositoryUrl);
+        jdbcTemplate.batchUpdate(UPSERT_DAILY_ROLLUP, rollups, batchSize(), (ps, r) -> {
+            ps.setLong(1, repositories.get(r.repositoryUrl()));
+            ps.setObject(2, r.day());
+            ps.setLong(3, r.deploymentCount());
+            ps.setLong(4, r.incidentCount());
+            ps.setLong(5, r.restoreSeconds());
+            ps.setLong(6, r.leadTimeSeconds());
+            ps.setLong(7, r.leadTimeCount());
+            ps.setBytes(8, r.leadTimeSketch().toBytes());
+            ps.setBytes(9, r.restoreSketch().toBytes());
+        });
+    }
+
+    private int batchSize() {
+        return Math.max(1, properties.getBatchSize());
+    }
+
+    private static void setInstant(PreparedStatement ps, int index, Instant instant) throws SQLException {
+        if (instant == null) {
+            ps.setNull(index, Types.TIMESTAMP_WITH_TIMEZONE);
+        } else {
+            ps.setObject(index, OffsetDateTime.ofInstant(instant, ZoneOffset.UTC));
+        }
+    }
+}
@@ -1,18 +1,32 @@
 package com.gemini.dorametricsviewer.infrastructure.persistence;
 
+import com.gemini.dorametricsviewer.application.EventsSavedEvent;
+import com.gemini.dorametricsviewer.domain.RepositoryUrls;
 import com.gemini.dorametricsviewer.domain.model.Change;
+import com.gemini.dorametricsviewer.domain.model.DailyRollup;
 import com.gemini.dorametricsviewer.domain.model.Deployment;
 import com.gemini.dorametricsviewer.domain.model.Incident;
+import com.gemini.dorametricsviewer.domain.model.SyncState;
 import com.gemini.dorametricsviewer.domain.port.MetricsRepositoryPort;
 import com.gemini.dorametricsviewer.infrastructure.persistence.mapper.MetricsMapper;
 import com.gemini.dorametricsviewer.infrastructure.persistence.repository.SpringDataChangeRepository;
+import com.gemini.dorametricsviewer.infrastructure.persistence.repository.SpringDataDailyRollupRepository;
 import com.gemini.dorametricsviewer.infrastructure.persistence.repository.SpringDataDeploymentRepository;
 import com.gemini.dorametricsviewer.infrastructure.persistence.repository.SpringDataIncidentRepository;
+import com.gemini.dorametricsviewer.infrastructure.persistence.repository.SpringDataSyncStateRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -21,74 +35,133 @@ public class MetricsRepositoryAdapter implements MetricsRepositoryPort {
     private final SpringDataDeploymentRepository deploymentRepository;
     private final SpringDataChangeRepository changeRepository;
     private final SpringDataIncidentRepository incidentRepository;
+    private final SpringDataSyncStateRepository syncStateRepository;
+    private final SpringDataDailyRollupRepository dailyRollupRepository;
     private final MetricsMapper mapper;
+    private final EventBatchWriter batchWriter;
+    private final RepositoryKeys repositoryKeys;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public void saveDeployments(List<Deployment> deployments) {
-        deploymentRepository.saveAll(deployments.stream()
-            .map(mapper::toEntity)
-            .toList());
+        batchWriter.upsertDeployments(deployments);
+        publishSaved(deployments.stream().map(Deployment::repositoryUrl));
     }
 
     @Override
     public List<Deployment> findDeployments(String repoUrl, Instant since) {
-        return deploymentRepository.findByRepositoryUrlAndDeployedAtAfter(repoUrl, since)
+        return find(repoUrl, (repositoryId, url) -> deploymentRepository.findByRepositoryIdAndDeployedAtAfter(repositoryId, since)
             .stream()
-            .map(mapper::toDomain)
-            .toList();
+            .map(entity -> mapper.toDomain(entity, url))
+            .toList());
     }
 
     @Override
     public List<Deployment> findDeployments(String repoUrl, Instant start, Instant end) {
-        return deploymentRepository.findByRepositoryUrlAndDeployedAtBetween(repoUrl, start, end)
+        return find(repoUrl, (repositoryId, url) -> deploymentRepository.findByRepositoryIdAndDeployedAtBetween(repositoryId, start, end)
             .stream()
-            .map(mapper::toDomain)
-            .toList();
+            .map(entity -> mapper.toDomain(entity, url))
+            .toList());
     }
 
     @Override
     public void saveChanges(List<Change> changes) {
-        changeRepository.saveAll(changes.stream()
-            .map(mapper::toEntity)
-            .toList());
+        batchWriter.upsertChanges(changes);
+        publishSaved(changes.stream().map(Change::repositoryUrl));
     }
 
     @Override
     public List<Change> findChanges(String repoUrl, Instant since) {
-        return changeRepository.findByRepositoryUrlAndMergedAtAfter(repoUrl, since)
+        return find(repoUrl, (repositoryId, url) -> changeRepository.findByRepositoryIdAndMergedAtAfter(repositoryId, since)
             .stream()
-            .map(mapper::toDomain)
-            .toList();
+            .map(entity -> mapper.toDomain(entity, url))
+            .toList());
     }
 
     @Override
     public List<Change> findChanges(String repoUrl, Instant start, Instant end) {
-        return changeRepository.findByRepositoryUrlAndMergedAtBetween(repoUrl, start, end)
+        return find(repoUrl, (repositoryId, url) -> changeRepository.findByRepositoryIdAndMergedAtBetween(repositoryId, start, end)
             .stream()
-            .map(mapper::toDomain)
-            .toList();
+            .map(entity -> mapper.toDomain(entity, url))
+            .toList());
+    }
+
+    @Override
+    public List<Change> findChanges(String repoUrl, Collection<String> ids, Collection<String> commitShas) {
+        return find(repoUrl, (repositoryId, url) -> {
+            Map<String, Change> changes = new LinkedHashMap<>();
+            // An empty IN list is not valid SQL
+            if (!ids.isEmpty()) {
+                changeRepository.findByRepositoryIdAndIdIn(repositoryId, ids)
+                    .forEach(entity -> changes.put(entity.getId(), mapper.toDomain(entity, url)));
+            }
+            if (!commitShas.isEmpty()) {
+                changeRepository.findByRepositoryIdAndCommitShaIn(repositoryId, commitShas)
+                    .forEach(entity -> changes.putIfAbsent(entity.getId(), mapper.toDomain(entity, url)));
+            }
+            return List.copyOf(changes.values());
+        });
     }
 
     @Override
     public void saveIncidents(List<Incident> incidents) {
-        incidentRepository.saveAll(incidents.stream()
-            .map(mapper::toEntity)
-            .toList());
+        batchWriter.upsertIncidents(incidents);
+        publishSaved(incidents.stream().map(Incident::repositoryUrl));
     }
 
     @Override
     public List<Incident> findIncidents(String repoUrl, Instant since) {
-        return incidentRepository.findByRepositoryUrlAndCreatedAtAfter(repoUrl, since)
+        return find(repoUrl, (repositoryId, url) -> incidentRepository.findByRepositoryIdAndCreatedAtAfter(repositoryId, since)
             .stream()
-            .map(mapper::toDomain)
-            .toList();
+            .map(entity -> mapper.toDomain(entity, url))
+            .toList());
     }
 
     @Override
     public List<Incident> findIncidents(String repoUrl, Instant start, Instant end) {
-        return incidentRepository.findByRepositoryUrlAndCreatedAtBetween(repoUrl, start, end)
+        return find(repoUrl, (repositoryId, url) -> incidentRepository.findByRepositoryIdAndCreatedAtBetween(repositoryId, start, end)
+            .stream()
+            .map(entity -> mapper.toDomain(entity, url))
+            .toList());
+    }
+
+    @Override
+    public void saveSyncState(SyncState syncState) {
+        syncStateRepository.save(mapper.toEntity(syncState, repositoryKeys.keyOf(syncState.repositoryUrl())));
+    }
+
+    @Override
+    public Optional<SyncState> findSyncState(String repoUrl) {
+        return repositoryKeys.find(repoUrl)
+            .flatMap(syncStateRepository::findById)
+            .map(entity -> mapper.toDomain(entity, RepositoryUrls.canonical(repoUrl)));
+    }
+
+    @Override
+    public void saveDailyRollups(List<DailyRollup> rollups) {
+        batchWriter.upsertDailyRollups(rollups);
+    }
+
+    @Override
+    public List<DailyRollup> findDailyRollups(String repoUrl, LocalDate from, LocalDate to) {
+        return find(repoUrl, (repositoryId, url) -> dailyRollupRepository.findByRepositoryIdAndRollupDayBetweenOrderByRollupDay(repositoryId, from, to)
             .stream()
-            .map(mapper::toDomain)
-            .toList();
+            .map(entity -> mapper.toDomain(entity, url))
+            .toList());
+    }
+
+    /**
+     * Runs {@code query} with the repository's key and canonical URL; a repository never stored has no rows.
+     */
+    private <T> List<T> find(String repoUrl, BiFunction<Long, String, List<T>> query) {
+        return repositoryKeys.find(repoUrl)
+            .map(repositoryId -> query.apply(repositoryId, RepositoryUrls.canonical(repoUrl)))
+            .orElse(List.of());
+    }
+
+    private void publishSaved(Stream<String> repositoryUrls) {
+        repositoryUrls.map(RepositoryUrls::canonical)
+            .distinct()
+            .forEach(repositoryUrl -> eventPublisher.publishEvent(new EventsSavedEvent(repositoryUrl)));
     }
 }
@@ -0,0 +1,13 @@
+package com.gemini.dorametricsviewer.infrastructure.persistence;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+@Configuration
+@ConfigurationProperties(prefix = "dora.persistence")
+@Data
+public class PersistenceProperties {
+    // Rows per JDBC batch when upserting events
+    private int batchSize = 500;
+}
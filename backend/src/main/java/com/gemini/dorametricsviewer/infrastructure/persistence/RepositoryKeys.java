@@ -0,0 +1,53 @@
+package com.gemini.dorametricsviewer.infrastructure.persistence;
+
+import com.gemini.dorametricsviewer.domain.RepositoryUrls;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Numeric keys of the {@code repositories} table. Every spelling of a repository URL resolves to the row
+ * of its {@link RepositoryUrls#canonical canonical} form.
+ */
+@Component
+public class RepositoryKeys {
+
+    private static final String INSERT_IF_ABSENT = "MERGE INTO repositories (url) KEY (url) VALUES (?)";
+    private static final String FIND_ID = "SELECT id FROM repositories WHERE url = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RepositoryKeys(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * The key of every repository the rows belong to, by the URL the rows carry; repositories seen for
+     * the first time are added.
+     */
+    public <T> Map<String, Long> keysOf(List<T> rows, Function<T, String> repositoryUrl) {
+        Map<String, Long> keys = new HashMap<>();
+        for (T row : rows) {
+            keys.computeIfAbsent(repositoryUrl.apply(row), this::keyOf);
+        }
+        return keys;
+    }
+
+    public long keyOf(String repositoryUrl) {
+        String url = RepositoryUrls.canonical(repositoryUrl);
+        jdbcTemplate.update(INSERT_IF_ABSENT, url);
+        return jdbcTemplate.queryForObject(FIND_ID, Long.class, url);
+    }
+
+    /**
+     * The key of a repository already stored, if it is.
+     */
+    public Optional<Long> find(String repositoryUrl) {
+        return jdbcTemplate.queryForList(FIND_ID, Long.class, RepositoryUrls.canonical(repositoryUrl)).stream().findFirst();
+    }
+}
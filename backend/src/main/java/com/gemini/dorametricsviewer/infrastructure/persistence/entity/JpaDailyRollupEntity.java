@@ -0,0 +1,56 @@
+package com.gemini.dorametricsviewer.infrastructure.persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "daily_rollups")
+@IdClass(JpaDailyRollupEntity.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JpaDailyRollupEntity {
+    @Id
+    @Column(name = "repository_id")
+    private Long repositoryId;
+    // Read-only side of the repository_id column, mapped so the schema gets its foreign key
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "repository_id", insertable = false, updatable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private JpaRepositoryEntity repository;
+    @Id
+    private LocalDate rollupDay;
+    private long deploymentCount;
+    private long incidentCount;
+    private long restoreSeconds;
+    private long leadTimeSeconds;
+    private long leadTimeCount;
+    // DurationSketch.toBytes() of the day's lead times and restore times
+    @Column(length = 65_536)
+    private byte[] leadTimeSketch;
+    @Column(length = 65_536)
+    private byte[] restoreSketch;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long repositoryId;
+        private LocalDate rollupDay;
+    }
+}
@@ -1,24 +1,38 @@
 package com.gemini.dorametricsviewer.infrastructure.persistence.entity;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Lob;
+import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.ToString;
 
 import java.time.Instant;
 
 @Entity
-@Table(name = "deployments")
+@Table(name = "deployments", indexes = @Index(name = "idx_deployments_repository_deployed_at", columnList = "repository_id, deployed_at"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class JpaDeploymentEntity {
     @Id
     private String id;
-    private String repositoryUrl;
+    @Column(name = "repository_id", nullable = false)
+    private Long repositoryId;
+    // Read-only side of the repository_id column, mapped so the schema gets its foreign key
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "repository_id", insertable = false, updatable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private JpaRepositoryEntity repository;
     private String commitSha;
     private Instant createdAt;
     private Instant deployedAt;
@@ -1,23 +1,37 @@
 package com.gemini.dorametricsviewer.infrastructure.persistence.entity;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.ToString;
 
 import java.time.Instant;
 
 @Entity
-@Table(name = "incidents")
+@Table(name = "incidents", indexes = @Index(name = "idx_incidents_repository_created_at", columnList = "repository_id, created_at"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class JpaIncidentEntity {
     @Id
     private String id;
-    private String repositoryUrl;
+    @Column(name = "repository_id", nullable = false)
+    private Long repositoryId;
+    // Read-only side of the repository_id column, mapped so the schema gets its foreign key
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "repository_id", insertable = false, updatable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private JpaRepositoryEntity repository;
     private Instant createdAt;
     private Instant resolvedAt;
     private String severity;
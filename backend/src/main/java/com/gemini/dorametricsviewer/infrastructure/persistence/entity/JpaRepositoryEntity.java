@@ -0,0 +1,28 @@
+package com.gemini.dorametricsviewer.infrastructure.persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * One row per repository, so that event rows refer to it by a numeric key instead of repeating its URL.
+ */
+@Entity
+@Table(name = "repositories")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JpaRepositoryEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    // Canonical form, see RepositoryUrls
+    @Column(nullable = false, unique = true, length = 512)
+    private String url;
+}
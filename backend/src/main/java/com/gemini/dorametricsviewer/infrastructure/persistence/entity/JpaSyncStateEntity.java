@@ -0,0 +1,38 @@
+package com.gemini.dorametricsviewer.infrastructure.persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "sync_states")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JpaSyncStateEntity {
+    @Id
+    @Column(name = "repository_id")
+    private Long repositoryId;
+    // Read-only side of the repository_id column, mapped so the schema gets its foreign key
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "repository_id", insertable = false, updatable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private JpaRepositoryEntity repository;
+    private Instant syncedFrom;
+    private Instant deploymentsSyncedTo;
+    private Instant changesSyncedTo;
+    private Instant incidentsSyncedTo;
+    private Instant lastSyncedAt;
+}
@@ -1,21 +1,27 @@
 package com.gemini.dorametricsviewer.infrastructure.persistence.mapper;
 
+import com.gemini.dorametricsviewer.domain.DurationSketch;
 import com.gemini.dorametricsviewer.domain.model.Change;
+import com.gemini.dorametricsviewer.domain.model.DailyRollup;
 import com.gemini.dorametricsviewer.domain.model.Deployment;
 import com.gemini.dorametricsviewer.domain.model.Incident;
+import com.gemini.dorametricsviewer.domain.model.SyncState;
 import com.gemini.dorametricsviewer.infrastructure.persistence.entity.JpaChangeEntity;
+import com.gemini.dorametricsviewer.infrastructure.persistence.entity.JpaDailyRollupEntity;
 import com.gemini.dorametricsviewer.infrastructure.persistence.entity.JpaDeploymentEntity;
 import com.gemini.dorametricsviewer.infrastructure.persistence.entity.JpaIncidentEntity;
+import com.gemini.dorametricsviewer.infrastructure.persistence.entity.JpaSyncStateEntity;
 import org.springframework.stereotype.Component;
 
 @Component
 public class MetricsMapper {
 
-    public JpaDeploymentEntity toEntity(Deployment domain) {
+    public JpaDeploymentEntity toEntity(Deployment domain, Long repositoryId) {
         if (domain == null) return null;
         return new JpaDeploymentEntity(
             domain.id(),
-            domain.repositoryUrl(),
+            repositoryId,
+            null,
             domain.commitSha(),
             domain.createdAt(),
             domain.deployedAt(),
@@ -25,11 +31,14 @@ public class MetricsMapper {
         );
     }
 
-    public Deployment toDomain(JpaDeploymentEntity entity) {
+    /**
+     * Rows hold the repository's key only, so its URL comes from the caller that looked it up.
+     */
+    public Deployment toDomain(JpaDeploymentEntity entity, String repositoryUrl) {
         if (entity == null) return null;
         return new Deployment(
             entity.getId(),
-            entity.getRepositoryUrl(),
+            repositoryUrl,
             entity.getCommitSha(),
             entity.getCreatedAt(),
             entity.getDeployedAt(),
@@ -39,11 +48,12 @@ public class MetricsMapper {
         );
     }
 
-    public JpaChangeEntity toEntity(Change domain) {
+    public JpaChangeEntity toEntity(Change domain, Long repositoryId) {
         if (domain == null) return null;
         return new JpaChangeEntity(
             domain.id(),
-            domain.repositoryUrl(),
+            repositoryId,
+            null,
             domain.commitSha(),
             domain.createdAt(),
             domain.mergedAt(),
@@ -51,11 +61,14 @@ public class MetricsMapper {
         );
     }
 
-    public Change toDomain(JpaChangeEntity entity) {
+    /**
+     * Rows hold the repository's key only, so its URL comes from the caller that looked it up.
+     */
+    public Change toDomain(JpaChangeEntity entity, String repositoryUrl) {
         if (entity == null) return null;
         return new Change(
             entity.getId(),
-            entity.getRepositoryUrl(),
+            repositoryUrl,
             entity.getCommitSha(),
             entity.getCreatedAt(),
             entity.getMergedAt(),
@@ -63,11 +76,12 @@ public class MetricsMapper {
         );
     }
 
-    public JpaIncidentEntity toEntity(Incident domain) {
+    public JpaIncidentEntity toEntity(Incident domain, Long repositoryId) {
         if (domain == null) return null;
         return new JpaIncidentEntity(
             domain.id(),
-            domain.repositoryUrl(),
+            repositoryId,
+            null,
             domain.createdAt(),
             domain.resolvedAt(),
             domain.severity(),
@@ -75,15 +89,64 @@ public class MetricsMapper {
         );
     }
 
-    public Incident toDomain(JpaIncidentEntity entity) {
+    /**
+     * Rows hold the repository's key only, so its URL comes from the caller that looked it up.
+     */
+    public Incident toDomain(JpaIncidentEntity entity, String repositoryUrl) {
         if (entity == null) return null;
         return new Incident(
             entity.getId(),
-            entity.getRepositoryUrl(),
+            repositoryUrl,
             entity.getCreatedAt(),
             entity.getResolvedAt(),
             entity.getSeverity(),
             entity.getDescription()
         );
     }
-}
\ No newline at end of file
+
+    public JpaSyncStateEntity toEntity(SyncState domain, Long repositoryId) {
+        if (domain == null) return null;
+        return new JpaSyncStateEntity(
+            repositoryId,
+            null,
+            domain.syncedFrom(),
+            domain.deploymentsSyncedTo(),
+            domain.changesSyncedTo(),
+            domain.incidentsSyncedTo(),
+            domain.lastSyncedAt()
+        );
+    }
+
+    /**
+     * Rows hold the repository's key only, so its URL comes from the caller that looked it up.
+     */
+    public SyncState toDomain(JpaSyncStateEntity entity, String repositoryUrl) {
+        if (entity == null) return null;
+        return new SyncState(
+            repositoryUrl,
+            entity.getSyncedFrom(),
+            entity.getDeploymentsSyncedTo(),
+            entity.getChangesSyncedTo(),
+            entity.getIncidentsSyncedTo(),
+            entity.getLastSyncedAt()
+        );
+    }
+
+    /**
+     * Rows hold the repository's key only, so its URL comes from the caller that looked it up.
+     */
+    public DailyRollup toDomain(JpaDailyRollupEntity entity, String repositoryUrl) {
+        if (entity == null) return null;
+        return new DailyRollup(
+            repositoryUrl,
+            entity.getRollupDay(),
+            entity.getDeploymentCount(),
+            entity.getIncidentCount(),
+            entity.getRestoreSeconds(),
+            entity.getLeadTimeSeconds(),
+            entity.getLeadTimeCount(),
+            DurationSketch.fromBytes(entity.getLeadTimeSketch()),
+            DurationSketch.fromBytes(entity.getRestoreSketch())
+        );
+    }
+}
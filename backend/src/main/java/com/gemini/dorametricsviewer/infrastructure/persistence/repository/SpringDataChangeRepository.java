@@ -5,10 +5,13 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface SpringDataChangeRepository extends JpaRepository<JpaChangeEntity, String> {
-    List<JpaChangeEntity> findByRepositoryUrlAndMergedAtAfter(String repositoryUrl, Instant since);
-    List<JpaChangeEntity> findByRepositoryUrlAndMergedAtBetween(String repositoryUrl, Instant start, Instant end);
+    List<JpaChangeEntity> findByRepositoryIdAndMergedAtAfter(Long repositoryId, Instant since);
+    List<JpaChangeEntity> findByRepositoryIdAndMergedAtBetween(Long repositoryId, Instant start, Instant end);
+    List<JpaChangeEntity> findByRepositoryIdAndIdIn(Long repositoryId, Collection<String> ids);
+    List<JpaChangeEntity> findByRepositoryIdAndCommitShaIn(Long repositoryId, Collection<String> commitShas);
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.gemini.dorametricsviewer.infrastructure.persistence.repository;
+
+import com.gemini.dorametricsviewer.infrastructure.persistence.entity.JpaDailyRollupEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SpringDataDailyRollupRepository extends JpaRepository<JpaDailyRollupEntity, JpaDailyRollupEntity.Key> {
+    List<JpaDailyRollupEntity> findByRepositoryIdAndRollupDayBetweenOrderByRollupDay(Long repositoryId, LocalDate from, LocalDate to);
+}
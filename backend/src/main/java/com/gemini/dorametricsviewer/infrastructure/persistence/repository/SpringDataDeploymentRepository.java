@@ -9,6 +9,6 @@ import java.util.List;
 
 @Repository
 public interface SpringDataDeploymentRepository extends JpaRepository<JpaDeploymentEntity, String> {
-    List<JpaDeploymentEntity> findByRepositoryUrlAndDeployedAtAfter(String repositoryUrl, Instant since);
-    List<JpaDeploymentEntity> findByRepositoryUrlAndDeployedAtBetween(String repositoryUrl, Instant start, Instant end);
+    List<JpaDeploymentEntity> findByRepositoryIdAndDeployedAtAfter(Long repositoryId, Instant since);
+    List<JpaDeploymentEntity> findByRepositoryIdAndDeployedAtBetween(Long repositoryId, Instant start, Instant end);
 }
\ No newline at end of file
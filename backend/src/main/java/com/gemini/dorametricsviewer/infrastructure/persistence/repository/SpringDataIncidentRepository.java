@@ -9,6 +9,6 @@ import java.util.List;
 
 @Repository
 public interface SpringDataIncidentRepository extends JpaRepository<JpaIncidentEntity, String> {
-    List<JpaIncidentEntity> findByRepositoryUrlAndCreatedAtAfter(String repositoryUrl, Instant since);
-    List<JpaIncidentEntity> findByRepositoryUrlAndCreatedAtBetween(String repositoryUrl, Instant start, Instant end);
+    List<JpaIncidentEntity> findByRepositoryIdAndCreatedAtAfter(Long repositoryId, Instant since);
+    List<JpaIncidentEntity> findByRepositoryIdAndCreatedAtBetween(Long repositoryId, Instant start, Instant end);
 }
\ No newline at end of file
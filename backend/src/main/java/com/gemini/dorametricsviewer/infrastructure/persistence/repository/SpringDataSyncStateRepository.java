@@ -0,0 +1,9 @@
+package com.gemini.dorametricsviewer.infrastructure.persistence.repository;
+
+import com.gemini.dorametricsviewer.infrastructure.persistence.entity.JpaSyncStateEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SpringDataSyncStateRepository extends JpaRepository<JpaSyncStateEntity, Long> {
+}
@@ -1,21 +1,42 @@
 package com.gemini.dorametricsviewer.infrastructure.web;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gemini.dorametricsviewer.application.BatchScanService;
+import com.gemini.dorametricsviewer.application.CachingDoraMetricsService;
 import com.gemini.dorametricsviewer.application.DoraMetricsResult;
-import com.gemini.dorametricsviewer.application.DoraMetricsService;
+import com.gemini.dorametricsviewer.application.MetricsResultCache;
+import com.gemini.dorametricsviewer.application.MetricsTrend;
+import com.gemini.dorametricsviewer.infrastructure.configuration.BatchScanProperties;
+import com.gemini.dorametricsviewer.infrastructure.web.dto.BatchScanRequest;
 import com.gemini.dorametricsviewer.infrastructure.web.dto.ScanRequest;
+import com.gemini.dorametricsviewer.infrastructure.web.dto.TrendRequest;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/metrics")
 @Tag(name = "Dora Metrics")
 public class DoraMetricsController {
 
-    private final DoraMetricsService doraMetricsService;
+    private final CachingDoraMetricsService doraMetricsService;
+    private final BatchScanService batchScanService;
+    private final BatchScanProperties batchScanProperties;
+    private final ObjectMapper objectMapper;
 
-    public DoraMetricsController(DoraMetricsService doraMetricsService) {
+    public DoraMetricsController(CachingDoraMetricsService doraMetricsService, BatchScanService batchScanService,
+                                 BatchScanProperties batchScanProperties, ObjectMapper objectMapper) {
         this.doraMetricsService = doraMetricsService;
+        this.batchScanService = batchScanService;
+        this.batchScanProperties = batchScanProperties;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/scan")
@@ -24,6 +45,61 @@ public class DoraMetricsController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * The four metrics per day, week or month of the window, from a single scan.
+     */
+    @PostMapping("/trend")
+    public ResponseEntity<MetricsTrend> trend(@RequestBody TrendRequest request) {
+        if (request.timeWindow() == null) {
+            throw new IllegalArgumentException("timeWindow is required");
+        }
+        return ResponseEntity.ok(doraMetricsService.calculateTrend(request.repoUrl(), request.timeWindow(), request.bucket()));
+    }
+
+    /**
+     * Streams newline-delimited JSON: one line per repository as its scan completes, then a summary
+     * line with the aggregate over all repositories. The response stays open for up to
+     * {@code dora.batch-scan.timeout}; when it ends early, by timeout or because the client went away,
+     * the scans still running are cancelled.
+     */
+    @PostMapping("/scan/batch")
+    public ResponseEntity<ResponseBodyEmitter> scanBatch(@RequestBody BatchScanRequest request) {
+        if (request.timeWindow() == null) {
+            throw new IllegalArgumentException("timeWindow is required");
+        }
+        List<String> repoUrls = batchScanService.resolveRepositories(request.repoUrls(), request.organization());
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(batchScanProperties.getTimeout().toMillis());
+        Thread scan = Thread.ofVirtual().name("batch-scan").unstarted(() -> {
+            try {
+                BatchScanService.Summary summary = batchScanService.scan(repoUrls, request.timeWindow(), line -> writeLine(emitter, line));
+                writeLine(emitter, summary);
+                emitter.complete();
+            } catch (RuntimeException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        emitter.onTimeout(scan::interrupt);
+        emitter.onError(e -> scan.interrupt());
+        scan.start();
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
+    }
+
+    @GetMapping("/cache")
+    public MetricsResultCache.Stats cacheStats() {
+        return doraMetricsService.cacheStats();
+    }
+
+    private void writeLine(ResponseBodyEmitter emitter, Object line) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(line);
+            byte[] bytes = Arrays.copyOf(json, json.length + 1);
+            bytes[json.length] = '\n';
+            emitter.send(bytes, MediaType.APPLICATION_NDJSON);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException e) {
         return ResponseEntity.badRequest().body(e.getMessage());
@@ -1,22 +1,31 @@
 package com.gemini.dorametricsviewer.infrastructure.web;
 
-import com.gemini.dorametricsviewer.application.DoraMetricsService;
+import com.gemini.dorametricsviewer.application.BatchScanService;
+import com.gemini.dorametricsviewer.application.CachingDoraMetricsService;
 import com.gemini.dorametricsviewer.domain.TimeWindow;
+import com.gemini.dorametricsviewer.domain.TrendBucket;
+import com.gemini.dorametricsviewer.infrastructure.web.dto.GraphQLBatchScanResult;
 import com.gemini.dorametricsviewer.infrastructure.web.dto.GraphQLDoraMetricsResult;
+import com.gemini.dorametricsviewer.infrastructure.web.dto.GraphQLMetricsTrend;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.stereotype.Controller;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 
 @Controller
 public class DoraMetricsGraphQLController {
 
-    private final DoraMetricsService doraMetricsService;
+    private final CachingDoraMetricsService doraMetricsService;
+    private final BatchScanService batchScanService;
 
-    public DoraMetricsGraphQLController(DoraMetricsService doraMetricsService) {
+    public DoraMetricsGraphQLController(CachingDoraMetricsService doraMetricsService, BatchScanService batchScanService) {
         this.doraMetricsService = doraMetricsService;
+        this.batchScanService = batchScanService;
     }
 
     @MutationMapping
@@ -31,4 +40,38 @@ public class DoraMetricsGraphQLController {
                 doraMetricsService.calculateMetrics(repoUrl, window)
         );
     }
+
+    @MutationMapping
+    public GraphQLMetricsTrend scanTrend(
+            @Argument String repoUrl,
+            @Argument Map<String, String> timeWindow,
+            @Argument TrendBucket bucket) {
+        TimeWindow window = new TimeWindow(
+                Instant.parse(timeWindow.get("start")),
+                Instant.parse(timeWindow.get("end"))
+        );
+        return GraphQLMetricsTrend.from(
+                doraMetricsService.calculateTrend(repoUrl, window, bucket)
+        );
+    }
+
+    /**
+     * Same scan as {@code POST /api/metrics/scan/batch}, answered once every repository is done;
+     * repositories are listed in request order.
+     */
+    @MutationMapping
+    public GraphQLBatchScanResult scanRepositories(
+            @Argument List<String> repoUrls,
+            @Argument String organization,
+            @Argument Map<String, String> timeWindow) {
+        TimeWindow window = new TimeWindow(
+                Instant.parse(timeWindow.get("start")),
+                Instant.parse(timeWindow.get("end"))
+        );
+        List<String> resolved = batchScanService.resolveRepositories(repoUrls, organization);
+        List<BatchScanService.RepositoryScan> scans = new ArrayList<>();
+        BatchScanService.Summary summary = batchScanService.scan(resolved, window, scans::add);
+        scans.sort(Comparator.comparingInt(scan -> resolved.indexOf(scan.repoUrl())));
+        return GraphQLBatchScanResult.from(scans, summary);
+    }
 }
@@ -0,0 +1,26 @@
+package com.gemini.dorametricsviewer.infrastructure.web;
+
+import com.gemini.dorametricsviewer.infrastructure.github.GitHubRateLimiter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/github")
+@Tag(name = "GitHub")
+public class GitHubStatusController {
+
+    private final GitHubRateLimiter rateLimiter;
+
+    public GitHubStatusController(GitHubRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @GetMapping("/tokens")
+    public List<GitHubRateLimiter.TokenStats> tokens() {
+        return rateLimiter.stats();
+    }
+}
@@ -0,0 +1,93 @@
+package com.gemini.dorametricsviewer.infrastructure.web;
+
+import com.gemini.dorametricsviewer.application.ScanJob;
+import com.gemini.dorametricsviewer.application.ScanJobService;
+import com.gemini.dorametricsviewer.infrastructure.configuration.ScanJobProperties;
+import com.gemini.dorametricsviewer.infrastructure.web.dto.ScanRequest;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Scans that run in the background: submitting returns a job id at once, progress streams as
+ * Server-Sent Events and the result stays retrievable once the job is done.
+ */
+@RestController
+@RequestMapping("/api/metrics/jobs")
+@Tag(name = "Dora Metrics")
+public class ScanJobController {
+
+    private final ScanJobService scanJobService;
+    private final ScanJobProperties properties;
+
+    public ScanJobController(ScanJobService scanJobService, ScanJobProperties properties) {
+        this.scanJobService = scanJobService;
+        this.properties = properties;
+    }
+
+    @PostMapping
+    public ResponseEntity<ScanJob.Snapshot> submit(@RequestBody ScanRequest request) {
+        ScanJob job = scanJobService.submit(request.repoUrl(), request.timeWindow());
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/metrics/jobs/" + job.id()))
+                .body(job.snapshot());
+    }
+
+    @GetMapping("/{id}")
+    public ScanJob.Snapshot status(@PathVariable String id) {
+        return job(id).snapshot();
+    }
+
+    /**
+     * A {@code progress} event with the job's snapshot on every change, then a single {@code done} event
+     * holding the result or error, after which the stream ends.
+     */
+    @GetMapping(path = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@PathVariable String id) {
+        ScanJob job = job(id);
+        SseEmitter emitter = new SseEmitter(properties.getEventsTimeout().toMillis());
+        AtomicReference<Runnable> unsubscribe = new AtomicReference<>(() -> { });
+        emitter.onCompletion(() -> unsubscribe.get().run());
+        emitter.onTimeout(() -> unsubscribe.get().run());
+        emitter.onError(e -> unsubscribe.get().run());
+
+        unsubscribe.set(job.subscribe(snapshot -> {
+            try {
+                emitter.send(SseEmitter.event()
+                        .name(snapshot.status().isDone() ? "done" : "progress")
+                        .data(snapshot, MediaType.APPLICATION_JSON));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (snapshot.status().isDone()) {
+                emitter.complete();
+            }
+        }));
+        return emitter;
+    }
+
+    private ScanJob job(String id) {
+        return scanJobService.find(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown scan job: " + id));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleRejected(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+    }
+}
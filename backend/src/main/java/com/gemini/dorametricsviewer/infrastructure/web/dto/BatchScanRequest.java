@@ -0,0 +1,11 @@
+package com.gemini.dorametricsviewer.infrastructure.web.dto;
+
+import com.gemini.dorametricsviewer.domain.TimeWindow;
+
+import java.util.List;
+
+/**
+ * Repositories to scan, given by URL, by organization, or both.
+ */
+public record BatchScanRequest(List<String> repoUrls, String organization, TimeWindow timeWindow) {
+}
@@ -0,0 +1,29 @@
+package com.gemini.dorametricsviewer.infrastructure.web.dto;
+
+import com.gemini.dorametricsviewer.application.BatchScanService;
+
+import java.util.List;
+
+public record GraphQLBatchScanResult(
+        List<RepositoryScan> repositories,
+        int failed,
+        GraphQLDoraMetricsResult aggregate
+) {
+    public record RepositoryScan(String repoUrl, GraphQLDoraMetricsResult metrics, String error) {
+        public static RepositoryScan from(BatchScanService.RepositoryScan scan) {
+            return new RepositoryScan(
+                    scan.repoUrl(),
+                    scan.result() != null ? GraphQLDoraMetricsResult.from(scan.result()) : null,
+                    scan.error()
+            );
+        }
+    }
+
+    public static GraphQLBatchScanResult from(List<BatchScanService.RepositoryScan> scans, BatchScanService.Summary summary) {
+        return new GraphQLBatchScanResult(
+                scans.stream().map(RepositoryScan::from).toList(),
+                summary.failed(),
+                GraphQLDoraMetricsResult.from(summary.aggregate())
+        );
+    }
+}
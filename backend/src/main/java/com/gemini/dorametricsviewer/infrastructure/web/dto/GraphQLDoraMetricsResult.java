@@ -1,19 +1,35 @@
 package com.gemini.dorametricsviewer.infrastructure.web.dto;
 
 import com.gemini.dorametricsviewer.application.DoraMetricsResult;
+import com.gemini.dorametricsviewer.domain.DurationPercentiles;
 
 public record GraphQLDoraMetricsResult(
         String leadTimeForChanges,
         double deploymentFrequency,
         double changeFailureRate,
-        String timeToRestoreService
+        String timeToRestoreService,
+        Percentiles leadTimePercentiles,
+        Percentiles timeToRestorePercentiles
 ) {
+    public record Percentiles(String p50, String p75, String p90, String p99) {
+        static Percentiles from(DurationPercentiles percentiles) {
+            return new Percentiles(
+                    percentiles.p50().toString(),
+                    percentiles.p75().toString(),
+                    percentiles.p90().toString(),
+                    percentiles.p99().toString()
+            );
+        }
+    }
+
     public static GraphQLDoraMetricsResult from(DoraMetricsResult result) {
         return new GraphQLDoraMetricsResult(
                 result.leadTimeForChanges().toString(),
                 result.deploymentFrequency(),
                 result.changeFailureRate(),
-                result.timeToRestoreService().toString()
+                result.timeToRestoreService().toString(),
+                Percentiles.from(result.leadTimePercentiles()),
+                Percentiles.from(result.timeToRestorePercentiles())
         );
     }
 }
@@ -0,0 +1,28 @@
+package com.gemini.dorametricsviewer.infrastructure.web.dto;
+
+import com.gemini.dorametricsviewer.application.MetricsTrend;
+import com.gemini.dorametricsviewer.domain.TrendBucket;
+
+import java.util.List;
+
+public record GraphQLMetricsTrend(
+        TrendBucket bucket,
+        List<Point> points
+) {
+    public record Point(String start, String end, GraphQLDoraMetricsResult metrics) {
+        public static Point from(MetricsTrend.Point point) {
+            return new Point(
+                    point.timeWindow().start().toString(),
+                    point.timeWindow().end().toString(),
+                    GraphQLDoraMetricsResult.from(point.metrics())
+            );
+        }
+    }
+
+    public static GraphQLMetricsTrend from(MetricsTrend trend) {
+        return new GraphQLMetricsTrend(
+                trend.bucket(),
+                trend.points().stream().map(Point::from).toList()
+        );
+    }
+}
@@ -0,0 +1,7 @@
+package com.gemini.dorametricsviewer.infrastructure.web.dto;
+
+import com.gemini.dorametricsviewer.domain.TimeWindow;
+import com.gemini.dorametricsviewer.domain.TrendBucket;
+
+public record TrendRequest(String repoUrl, TimeWindow timeWindow, TrendBucket bucket) {
+}
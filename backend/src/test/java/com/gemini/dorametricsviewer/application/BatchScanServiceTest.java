@@ -0,0 +1,204 @@
+package com.gemini.dorametricsviewer.application;
+
+import com.gemini.dorametricsviewer.domain.DurationSketch;
+import com.gemini.dorametricsviewer.domain.TimeWindow;
+import com.gemini.dorametricsviewer.domain.port.SourceControlPort;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.Assertions.withinPercentage;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchScanServiceTest {
+
+    private static final TimeWindow WINDOW = new TimeWindow(Instant.parse("2023-01-01T00:00:00Z"), Instant.parse("2023-02-01T00:00:00Z"));
+
+    @Mock
+    private CachingDoraMetricsService doraMetricsService;
+
+    @Mock
+    private SourceControlPort sourceControlPort;
+
+    @Test
+    void scan_shouldReportEachRepositoryAsItCompletes_andAggregateTheRest() {
+        BatchScanService service = new BatchScanService(doraMetricsService, sourceControlPort, 4, 10);
+        when(doraMetricsService.calculateMetrics(eq("https://github.com/o/slow"), any())).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return result(1.0, 50.0, List.of(Duration.ofHours(10)), List.of(Duration.ofHours(2)));
+        });
+        when(doraMetricsService.calculateMetrics(eq("https://github.com/o/fast"), any()))
+                .thenReturn(result(3.0, 10.0, List.of(Duration.ofHours(2)), List.of(Duration.ofHours(6))));
+        when(doraMetricsService.calculateMetrics(eq("https://github.com/o/broken"), any()))
+                .thenThrow(new IllegalStateException("GitHub API unreachable"));
+        List<BatchScanService.RepositoryScan> reported = new CopyOnWriteArrayList<>();
+
+        BatchScanService.Summary summary = service.scan(
+                List.of("https://github.com/o/slow", "https://github.com/o/fast", "https://github.com/o/broken"),
+                WINDOW, reported::add);
+
+        assertThat(reported).hasSize(3);
+        assertThat(reported.get(2).repoUrl()).isEqualTo("https://github.com/o/slow");
+        assertThat(reported).filteredOn(scan -> scan.error() != null)
+                .extracting(BatchScanService.RepositoryScan::repoUrl, BatchScanService.RepositoryScan::error)
+                .containsExactly(tuple("https://github.com/o/broken", "GitHub API unreachable"));
+        assertThat(summary.repositories()).isEqualTo(3);
+        assertThat(summary.failed()).isEqualTo(1);
+        // Change failure rate weighted by deployments: (1 * 50 + 3 * 10) / 4 = 20
+        assertThat(summary.aggregate().deploymentFrequency()).isEqualTo(4.0);
+        assertThat(summary.aggregate().changeFailureRate()).isEqualTo(20.0);
+        assertThat(summary.aggregate().leadTimeForChanges()).isEqualTo(Duration.ofHours(6));
+        assertThat(summary.aggregate().timeToRestoreService()).isEqualTo(Duration.ofHours(4));
+    }
+
+    @Test
+    void scan_shouldRunEachRepositoryAsBackgroundWork() {
+        BatchScanService service = new BatchScanService(doraMetricsService, sourceControlPort, 2, 10);
+        List<ScanPriority> priorities = new CopyOnWriteArrayList<>();
+        when(doraMetricsService.calculateMetrics(any(), any())).thenAnswer(invocation -> {
+            priorities.add(ScanPriority.current());
+            return new DoraMetricsResult(Duration.ofHours(1), 1.0, 0, Duration.ZERO);
+        });
+
+        service.scan(List.of("https://github.com/o/a", "https://github.com/o/b"), WINDOW, scan -> { });
+
+        assertThat(priorities).containsExactly(ScanPriority.BACKGROUND, ScanPriority.BACKGROUND);
+    }
+
+    @Test
+    void scan_shouldCancelTheScansInFlight_whenInterruptedWhileWaitingForAPermit() throws InterruptedException {
+        BatchScanService service = new BatchScanService(doraMetricsService, sourceControlPort, 1, 10);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        when(doraMetricsService.calculateMetrics(any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            try {
+                Thread.sleep(Duration.ofMinutes(1));
+            } catch (InterruptedException e) {
+                cancelled.countDown();
+                throw new IllegalStateException("cancelled");
+            }
+            return new DoraMetricsResult(Duration.ofHours(1), 1.0, 0, Duration.ZERO);
+        });
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Thread caller = Thread.ofVirtual().start(() -> {
+            try {
+                service.scan(List.of("https://github.com/o/a", "https://github.com/o/b"), WINDOW, scan -> { });
+            } catch (RuntimeException e) {
+                thrown.set(e);
+            }
+        });
+
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        // With one permit the caller is now waiting to start the second scan
+        caller.interrupt();
+
+        assertThat(cancelled.await(5, TimeUnit.SECONDS)).isTrue();
+        caller.join(Duration.ofSeconds(5));
+        assertThat(caller.isAlive()).isFalse();
+        assertThat(thrown.get()).isInstanceOf(IllegalStateException.class)
+                .hasMessage("Interrupted while scanning repositories");
+    }
+
+    @Test
+    void aggregate_shouldMergeTheSketches_soPercentilesCoverEveryRepository() {
+        DurationSketch first = new DurationSketch();
+        DurationSketch second = new DurationSketch();
+        for (int hours = 1; hours <= 50; hours++) {
+            first.add(Duration.ofHours(hours));
+            second.add(Duration.ofHours(50 + hours));
+        }
+
+        DoraMetricsResult aggregate = BatchScanService.aggregate(List.of(
+                new DoraMetricsResult(Duration.ofHours(25), 1.0, 0, Duration.ZERO, first, new DurationSketch()),
+                new DoraMetricsResult(Duration.ofHours(75), 1.0, 0, Duration.ZERO, second, new DurationSketch())));
+
+        assertThat(aggregate.leadTimeSketch().count()).isEqualTo(100);
+        assertThat(aggregate.leadTimePercentiles().p50().toSeconds())
+                .isCloseTo(Duration.ofHours(50).toSeconds(), withinPercentage(1));
+        assertThat(aggregate.leadTimePercentiles().p99().toSeconds())
+                .isCloseTo(Duration.ofHours(99).toSeconds(), withinPercentage(1));
+        assertThat(aggregate.timeToRestorePercentiles().p50()).isZero();
+    }
+
+    @Test
+    void aggregate_shouldAverageLeadAndRestoreTimesOverEveryChangeAndIncident_notPerDeployment() {
+        // Many PRs shipped in one release, against many releases of a single PR
+        List<Duration> slowChanges = IntStream.range(0, 9).mapToObj(i -> Duration.ofHours(10)).toList();
+        DoraMetricsResult fewReleases = result(1.0, 100.0, slowChanges, List.of(Duration.ofHours(3)));
+        DoraMetricsResult manyReleases = result(9.0, 0.0, List.of(Duration.ofHours(1)),
+                List.of(Duration.ofHours(1), Duration.ofHours(1), Duration.ofHours(1)));
+
+        DoraMetricsResult aggregate = BatchScanService.aggregate(List.of(fewReleases, manyReleases));
+
+        // (9 * 10h + 1h) / 10 changes; weighting by deployments would have given 1.9h
+        assertThat(aggregate.leadTimeForChanges()).isEqualTo(Duration.ofMinutes(546));
+        assertThat(aggregate.leadTimeForChanges())
+                .isBetween(aggregate.leadTimeSketch().quantile(0), aggregate.leadTimeSketch().quantile(1));
+        // (3h + 3 * 1h) / 4 incidents
+        assertThat(aggregate.timeToRestoreService()).isEqualTo(Duration.ofMinutes(90));
+        assertThat(aggregate.changeFailureRate()).isEqualTo(10.0);
+        assertThat(aggregate.deploymentFrequency()).isEqualTo(10.0);
+    }
+
+    @Test
+    void scan_shouldNeverRunMoreThanParallelismScansAtOnce() {
+        BatchScanService service = new BatchScanService(doraMetricsService, sourceControlPort, 3, 100);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(doraMetricsService.calculateMetrics(any(), any())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            running.decrementAndGet();
+            return new DoraMetricsResult(Duration.ZERO, 0, 0, Duration.ZERO);
+        });
+        List<String> repoUrls = IntStream.range(0, 12).mapToObj(i -> "https://github.com/o/r" + i).toList();
+
+        BatchScanService.Summary summary = service.scan(repoUrls, WINDOW, scan -> { });
+
+        assertThat(summary.repositories()).isEqualTo(12);
+        assertThat(summary.failed()).isZero();
+        assertThat(maxRunning.get()).isEqualTo(3);
+    }
+
+    @Test
+    void resolveRepositories_shouldAddTheOrganizationsRepositories_withoutDuplicates() {
+        BatchScanService service = new BatchScanService(doraMetricsService, sourceControlPort, 4, 3);
+        when(sourceControlPort.listRepositories("o")).thenReturn(List.of("https://github.com/o/a", "https://github.com/o/b"));
+
+        assertThat(service.resolveRepositories(List.of("https://github.com/o/b", " "), "o"))
+                .containsExactly("https://github.com/o/b", "https://github.com/o/a");
+        assertThatThrownBy(() -> service.resolveRepositories(List.of("https://github.com/x/y", "https://github.com/x/z"), "o"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("max 3");
+        assertThatThrownBy(() -> service.resolveRepositories(List.of(), null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static DoraMetricsResult result(double deploymentFrequency, double changeFailureRate,
+                                            List<Duration> leadTimes, List<Duration> restoreTimes) {
+        DurationSketch leadTimeSketch = new DurationSketch();
+        leadTimes.forEach(leadTimeSketch::add);
+        DurationSketch restoreTimeSketch = new DurationSketch();
+        restoreTimes.forEach(restoreTimeSketch::add);
+        return new DoraMetricsResult(leadTimeSketch.mean(), deploymentFrequency, changeFailureRate,
+                restoreTimeSketch.mean(), leadTimeSketch, restoreTimeSketch);
+    }
+}
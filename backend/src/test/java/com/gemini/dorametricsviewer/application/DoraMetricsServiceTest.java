@@ -1,32 +1,51 @@
 package com.gemini.dorametricsviewer.application;
 
+import com.gemini.dorametricsviewer.domain.DailyRollups;
+import com.gemini.dorametricsviewer.domain.DeploymentIndex;
+import com.gemini.dorametricsviewer.domain.DurationSketch;
 import com.gemini.dorametricsviewer.domain.LeadTimeCalculator;
 import com.gemini.dorametricsviewer.domain.TimeWindow;
+import com.gemini.dorametricsviewer.domain.TrendBucket;
 import com.gemini.dorametricsviewer.domain.model.Change;
+import com.gemini.dorametricsviewer.domain.model.DailyRollup;
 import com.gemini.dorametricsviewer.domain.model.Deployment;
 import com.gemini.dorametricsviewer.domain.model.Incident;
+import com.gemini.dorametricsviewer.domain.model.SyncState;
 import com.gemini.dorametricsviewer.domain.port.MetricsRepositoryPort;
 import com.gemini.dorametricsviewer.domain.port.SourceControlPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class DoraMetricsServiceTest {
 
-    @Mock
+    // Real default methods, so streamChanges pages through the stubbed fetchChanges
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
     private SourceControlPort sourceControlPort;
 
     @Mock
@@ -41,11 +60,16 @@ class DoraMetricsServiceTest {
         // Use a stub subclass to avoid ByteBuddy/Java 25 issues with Mockito on concrete classes
         leadTimeCalculator = new LeadTimeCalculator() {
             @Override
-            public Duration calculate(List<Change> changes, List<Deployment> deployments) {
-                return Duration.ofHours(5);
+            public Accumulator accumulator(List<Deployment> deployments) {
+                return new Accumulator(this, new DeploymentIndex(deployments)) {
+                    @Override
+                    public Duration average() {
+                        return Duration.ofHours(5);
+                    }
+                };
             }
         };
-        doraMetricsService = new DoraMetricsService(sourceControlPort, metricsRepositoryPort, leadTimeCalculator);
+        doraMetricsService = new DoraMetricsService(sourceControlPort, metricsRepositoryPort, leadTimeCalculator, ScanMetrics.NONE);
     }
 
     // -------------------------------------------------------------------------
@@ -155,6 +179,29 @@ class DoraMetricsServiceTest {
         assertEquals(25.0, result.changeFailureRate());
     }
 
+    @Test
+    void calculateMetrics_shouldCountOpenIncidentsWithoutRestoreTime_likeTheRollups() {
+        String repoUrl = "https://github.com/test/repo";
+        Instant start = Instant.now().minus(Duration.ofDays(7));
+        Instant end = Instant.now();
+        Instant within = start.plus(Duration.ofDays(3));
+
+        List<Incident> incidents = List.of(
+            new Incident("i1", repoUrl, within, within.plus(Duration.ofHours(2)), "high", "outage"),
+            new Incident("i2", repoUrl, within, null, "high", "still open")
+        );
+
+        when(sourceControlPort.fetchDeployments(repoUrl, start)).thenReturn(List.of());
+        when(sourceControlPort.fetchChanges(repoUrl, start)).thenReturn(List.of());
+        when(sourceControlPort.fetchIncidents(repoUrl, start)).thenReturn(incidents);
+
+        DoraMetricsResult result = doraMetricsService.calculateMetrics(repoUrl, new TimeWindow(start, end));
+
+        // Two hours over both incidents, as DailyRollups sums it
+        assertEquals(Duration.ofHours(1), result.timeToRestoreService());
+        assertEquals(1, result.timeToRestoreSketch().count());
+    }
+
     @Test
     void calculateMetrics_shouldPropagateException_whenSourceControlPortFails() {
         String repoUrl = "https://github.com/test/repo";
@@ -172,4 +219,441 @@ class DoraMetricsServiceTest {
         verify(metricsRepositoryPort, never()).saveDeployments(any());
         verify(metricsRepositoryPort, never()).saveChanges(any());
     }
+
+    // -------------------------------------------------------------------------
+    // Concurrent fetches
+    // -------------------------------------------------------------------------
+
+    @Test
+    void calculateMetrics_shouldFetchFromSourceControlConcurrently() {
+        String repoUrl = "https://github.com/test/repo";
+        Instant start = Instant.now().minus(Duration.ofDays(7));
+        TimeWindow timeWindow = new TimeWindow(start, Instant.now());
+
+        // Each fetch only returns once all three are in flight, so a sequential service would time out
+        CountDownLatch allStarted = new CountDownLatch(3);
+        when(sourceControlPort.fetchDeployments(repoUrl, start)).thenAnswer(inv -> awaitAll(allStarted, List.of()));
+        when(sourceControlPort.fetchChanges(repoUrl, start)).thenAnswer(inv -> awaitAll(allStarted, List.of()));
+        when(sourceControlPort.fetchIncidents(repoUrl, start)).thenAnswer(inv -> awaitAll(allStarted, List.of()));
+
+        DoraMetricsResult result = doraMetricsService.calculateMetrics(repoUrl, timeWindow);
+
+        assertEquals(Duration.ofHours(5), result.leadTimeForChanges());
+    }
+
+    @Test
+    void calculateMetrics_shouldCancelRemainingFetches_whenOneFails() {
+        String repoUrl = "https://github.com/test/repo";
+        Instant start = Instant.now().minus(Duration.ofDays(7));
+        TimeWindow timeWindow = new TimeWindow(start, Instant.now());
+
+        CountDownLatch changesStarted = new CountDownLatch(1);
+        AtomicBoolean changesInterrupted = new AtomicBoolean();
+        when(sourceControlPort.fetchChanges(repoUrl, start)).thenAnswer(inv -> {
+            changesStarted.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                changesInterrupted.set(true);
+                throw e;
+            }
+            return List.of();
+        });
+        when(sourceControlPort.fetchDeployments(repoUrl, start)).thenAnswer(inv -> {
+            changesStarted.await();
+            throw new IllegalStateException("GitHub API error");
+        });
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> doraMetricsService.calculateMetrics(repoUrl, timeWindow));
+
+        assertEquals("GitHub API error", thrown.getMessage());
+        assertTrue(changesInterrupted.get());
+        verify(metricsRepositoryPort, never()).saveChanges(any());
+    }
+
+    @Test
+    void calculateMetrics_shouldSaveChangesPageByPage() {
+        String repoUrl = "https://github.com/test/repo";
+        Instant start = Instant.now().minus(Duration.ofDays(7));
+        TimeWindow timeWindow = new TimeWindow(start, Instant.now());
+
+        Change c1 = new Change("c1", repoUrl, "sha1", start.plus(Duration.ofDays(2)), start.plus(Duration.ofDays(3)), "author");
+        Change c2 = new Change("c2", repoUrl, "sha2", start.plus(Duration.ofDays(1)), start.plus(Duration.ofDays(2)), "author");
+        when(sourceControlPort.fetchDeployments(repoUrl, start)).thenReturn(List.of());
+        when(sourceControlPort.streamChanges(repoUrl, start)).thenReturn(Stream.of(List.of(c1), List.of(c2)));
+        when(sourceControlPort.fetchIncidents(repoUrl, start)).thenReturn(List.of());
+
+        doraMetricsService.calculateMetrics(repoUrl, timeWindow);
+
+        verify(metricsRepositoryPort).saveChanges(List.of(c1));
+        verify(metricsRepositoryPort).saveChanges(List.of(c2));
+        ArgumentCaptor<SyncState> saved = ArgumentCaptor.forClass(SyncState.class);
+        verify(metricsRepositoryPort).saveSyncState(saved.capture());
+        assertEquals(c1.mergedAt(), saved.getValue().changesSyncedTo());
+    }
+
+    @Test
+    void calculateMetrics_shouldReportProgress() {
+        String repoUrl = "https://github.com/test/repo";
+        Instant start = Instant.now().minus(Duration.ofDays(7));
+        TimeWindow timeWindow = new TimeWindow(start, Instant.now());
+
+        Change c1 = new Change("c1", repoUrl, "sha1", start.plus(Duration.ofDays(2)), start.plus(Duration.ofDays(3)), "author");
+        Change c2 = new Change("c2", repoUrl, "sha2", start.plus(Duration.ofDays(1)), start.plus(Duration.ofDays(2)), "author");
+        when(sourceControlPort.fetchDeployments(repoUrl, start)).thenReturn(List.of());
+        when(sourceControlPort.streamChanges(repoUrl, start)).thenReturn(Stream.of(List.of(c1), List.of(c2)));
+        when(sourceControlPort.fetchIncidents(repoUrl, start)).thenReturn(List.of());
+        List<String> reported = new ArrayList<>();
+
+        doraMetricsService.calculateMetrics(repoUrl, timeWindow, new ScanProgress() {
+            @Override
+            public void stage(Stage stage) {
+                reported.add(stage.name());
+            }
+
+            @Override
+            public void pageFetched(int changes) {
+                reported.add("page:" + changes);
+            }
+        });
+
+        assertEquals(List.of("FETCH", "SYNC", "page:1", "page:1", "AGGREGATE"), reported);
+    }
+
+    @Test
+    void calculateMetrics_shouldTimeEveryStage() {
+        String repoUrl = "https://github.com/test/repo";
+        Instant start = Instant.now().minus(Duration.ofDays(7));
+        TimeWindow timeWindow = new TimeWindow(start, Instant.now());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DoraMetricsService service = new DoraMetricsService(sourceControlPort, metricsRepositoryPort, leadTimeCalculator,
+                new ScanMetrics(registry));
+
+        Change c1 = new Change("c1", repoUrl, "sha1", start.plus(Duration.ofDays(2)), start.plus(Duration.ofDays(3)), "author");
+        Change c2 = new Change("c2", repoUrl, "sha2", start.plus(Duration.ofDays(1)), start.plus(Duration.ofDays(2)), "author");
+        when(sourceControlPort.fetchDeployments(repoUrl, start)).thenReturn(List.of());
+        when(sourceControlPort.streamChanges(repoUrl, start)).thenReturn(Stream.of(List.of(c1), List.of(c2)));
+        when(sourceControlPort.fetchIncidents(repoUrl, start)).thenReturn(List.of());
+
+        service.calculateMetrics(repoUrl, timeWindow);
+
+        assertEquals(1, registry.get("dora.scan").tags("sync", "window", "outcome", "success").timer().count());
+        assertEquals(1, registry.get("dora.scan.fetch").tag("method", "fetchDeployments").timer().count());
+        assertEquals(1, registry.get("dora.scan.fetch").tag("method", "fetchIncidents").timer().count());
+        // The concurrent wait for the first page, then one per page and the one that finds no more
+        assertEquals(4, registry.get("dora.scan.fetch").tag("method", "streamChanges").timer().count());
+        assertEquals(2, registry.get("dora.scan.persist").tag("events", "changes").timer().count());
+        assertEquals(1, registry.get("dora.scan.persist").tag("events", "rollups").timer().count());
+        assertEquals(2, registry.get("dora.scan.match").timer().count());
+        assertEquals(1, registry.get("dora.scan.aggregate").timer().count());
+    }
+
+    // -------------------------------------------------------------------------
+    // Incremental sync
+    // -------------------------------------------------------------------------
+
+    @Test
+    void calculateMetrics_shouldRecordHighWaterMarks_afterFirstScan() {
+        String repoUrl = "https://github.com/test/repo";
+        Instant now = Instant.now();
+        Instant start = now.minus(Duration.ofDays(10));
+        TimeWindow timeWindow = new TimeWindow(start, now);
+
+        Deployment d1 = new Deployment("d1", repoUrl, "sha1", now.minus(Duration.ofDays(3)), now.minus(Duration.ofDays(3)), "env", "success", null);
+        Change c1 = new Change("c1", repoUrl, "sha1", now.minus(Duration.ofDays(5)), now.minus(Duration.ofDays(4)), "author");
+
+        when(sourceControlPort.fetchDeployments(repoUrl, start)).thenReturn(List.of(d1));
+        when(sourceControlPort.fetchChanges(repoUrl, start)).thenReturn(List.of(c1));
+        when(sourceControlPort.fetchIncidents(repoUrl, start)).thenReturn(List.of());
+
+        doraMetricsService.calculateMetrics(repoUrl, timeWindow);
+
+        ArgumentCaptor<SyncState> saved = ArgumentCaptor.forClass(SyncState.class);
+        verify(metricsRepositoryPort).saveSyncState(saved.capture());
+        assertEquals(start, saved.getValue().syncedFrom());
+        assertEquals(d1.deployedAt(), saved.getValue().deploymentsSyncedTo());
+        assertEquals(c1.mergedAt(), saved.getValue().changesSyncedTo());
+        assertEquals(start, saved.getValue().incidentsSyncedTo());
+    }
+
+    @Test
+    void calculateMetrics_shouldFetchOnlyDeltaSinceHighWaterMarks_whenWindowAlreadySynced() {
+        String repoUrl = "https://github.com/test/repo";
+        Instant now = Instant.now();
+        Instant start = now.minus(Duration.ofDays(7));
+        TimeWindow timeWindow = new TimeWindow(start, now);
+
+        Instant deploymentsMark = now.minus(Duration.ofDays(2));
+        Instant changesMark = now.minus(Duration.ofDays(3));
+        Instant incidentsMark = now.minus(Duration.ofDays(4));
+        SyncState state = new SyncState(repoUrl, now.minus(Duration.ofDays(30)),
+                deploymentsMark, changesMark, incidentsMark, now.minus(Duration.ofHours(1)));
+
+        Deployment stored = new Deployment("d-old", repoUrl, "sha-old", now.minus(Duration.ofDays(6)), now.minus(Duration.ofDays(6)), "env", "success", null);
+        Deployment fresh = new Deployment("d-new", repoUrl, "sha-new", now.minus(Duration.ofDays(1)), now.minus(Duration.ofDays(1)), "env", "success", null);
+
+        when(metricsRepositoryPort.findSyncState(repoUrl)).thenReturn(Optional.of(state));
+        when(sourceControlPort.fetchDeployments(repoUrl, deploymentsMark)).thenReturn(List.of(fresh));
+        when(sourceControlPort.fetchChanges(repoUrl, changesMark)).thenReturn(List.of());
+        when(sourceControlPort.fetchIncidents(repoUrl, incidentsMark)).thenReturn(List.of());
+        when(metricsRepositoryPort.findDailyRollups(repoUrl, DailyRollups.dayOf(start), DailyRollups.dayOf(now))).thenReturn(List.of(
+                rollup(repoUrl, stored.deployedAt(), 1, 0, 0),
+                rollup(repoUrl, fresh.deployedAt(), 1, 0, 0)));
+
+        DoraMetricsResult result = doraMetricsService.calculateMetrics(repoUrl, timeWindow);
+
+        // Metrics come from the stored window's rollups, not just the delta
+        assertEquals(2.0 / 7, result.deploymentFrequency(), 1e-9);
+        verify(sourceControlPort, never()).fetchDeployments(repoUrl, start);
+        verify(metricsRepositoryPort).saveDeployments(List.of(fresh));
+
+        ArgumentCaptor<SyncState> saved = ArgumentCaptor.forClass(SyncState.class);
+        verify(metricsRepositoryPort).saveSyncState(saved.capture());
+        assertEquals(state.syncedFrom(), saved.getValue().syncedFrom());
+        assertEquals(fresh.deployedAt(), saved.getValue().deploymentsSyncedTo());
+        assertEquals(changesMark, saved.getValue().changesSyncedTo());
+    }
+
+    @Test
+    void calculateMetrics_shouldRefetchWholeWindow_whenWindowStartsBeforeSyncedHistory() {
+        String repoUrl = "https://github.com/test/repo";
+        Instant now = Instant.now();
+        Instant start = now.minus(Duration.ofDays(30));
+        TimeWindow timeWindow = new TimeWindow(start, now);
+
+        SyncState state = new SyncState(repoUrl, now.minus(Duration.ofDays(7)), now, now, now, now);
+        when(metricsRepositoryPort.findSyncState(repoUrl)).thenReturn(Optional.of(state));
+        when(sourceControlPort.fetchDeployments(repoUrl, start)).thenReturn(List.of());
+        when(sourceControlPort.fetchChanges(repoUrl, start)).thenReturn(List.of());
+        when(sourceControlPort.fetchIncidents(repoUrl, start)).thenReturn(List.of());
+
+        doraMetricsService.calculateMetrics(repoUrl, timeWindow);
+
+        verify(sourceControlPort).fetchDeployments(repoUrl, start);
+        verify(metricsRepositoryPort, never()).findDeployments(any(), any(), any());
+    }
+
+    // -------------------------------------------------------------------------
+    // Daily rollups
+    // -------------------------------------------------------------------------
+
+    @Test
+    void calculateMetrics_shouldSaveRollupForEveryDayOfWindow_afterFirstScan() {
+        String repoUrl = "https://github.com/test/repo";
+        Instant start = Instant.parse("2026-01-10T12:00:00Z");
+        Instant end = Instant.parse("2026-01-13T12:00:00Z");
+        TimeWindow timeWindow = new TimeWindow(start, end);
+
+        Deployment d1 = new Deployment("d1", repoUrl, "sha1", Instant.parse("2026-01-11T09:00:00Z"), Instant.parse("2026-01-11T10:00:00Z"), "env", "success", null);
+        Change c1 = new Change("c1", repoUrl, "sha1", Instant.parse("2026-01-10T14:00:00Z"), Instant.parse("2026-01-10T18:00:00Z"), "author");
+        Incident i1 = new Incident("i1", repoUrl, Instant.parse("2026-01-11T11:00:00Z"), Instant.parse("2026-01-11T12:00:00Z"), "high", "outage");
+
+        when(sourceControlPort.fetchDeployments(repoUrl, start)).thenReturn(List.of(d1));
+        when(sourceControlPort.fetchChanges(repoUrl, start)).thenReturn(List.of(c1));
+        when(sourceControlPort.fetchIncidents(repoUrl, start)).thenReturn(List.of(i1));
+
+        doraMetricsService.calculateMetrics(repoUrl, timeWindow);
+
+        ArgumentCaptor<List<DailyRollup>> saved = rollupCaptor();
+        verify(metricsRepositoryPort).saveDailyRollups(saved.capture());
+        assertEquals(List.of(
+                new DailyRollup(repoUrl, LocalDate.parse("2026-01-10"), 0, 0, 0, Duration.ofHours(20).getSeconds(), 1,
+                        sketchOf(Duration.ofHours(20)), sketchOf()),
+                new DailyRollup(repoUrl, LocalDate.parse("2026-01-11"), 1, 1, 3600, 0, 0,
+                        sketchOf(), sketchOf(Duration.ofHours(1))),
+                new DailyRollup(repoUrl, LocalDate.parse("2026-01-12"), 0, 0, 0, 0, 0),
+                new DailyRollup(repoUrl, LocalDate.parse("2026-01-13"), 0, 0, 0, 0, 0)), saved.getValue());
+    }
+
+    @Test
+    void calculateMetrics_shouldRefreshRollupsFromPreviousDeploymentMark_whenDeltaArrives() {
+        String repoUrl = "https://github.com/test/repo";
+        Instant start = Instant.parse("2026-01-01T00:00:00Z");
+        Instant end = Instant.parse("2026-01-31T00:00:00Z");
+        Instant deploymentsMark = Instant.parse("2026-01-20T15:00:00Z");
+        SyncState state = new SyncState(repoUrl, start, deploymentsMark,
+                Instant.parse("2026-01-25T00:00:00Z"), start, Instant.parse("2026-01-25T00:00:00Z"));
+
+        // A change merged after the last stored deployment is only matched once the delta brings one
+        Change pending = new Change("c1", repoUrl, "sha1", Instant.parse("2026-01-21T10:00:00Z"), Instant.parse("2026-01-21T12:00:00Z"), "author");
+        Deployment fresh = new Deployment("d1", repoUrl, "sha1", Instant.parse("2026-01-26T09:00:00Z"), Instant.parse("2026-01-26T10:00:00Z"), "env", "success", null);
+        Instant rangeStart = Instant.parse("2026-01-20T00:00:00Z");
+        Instant rangeEnd = Instant.parse("2026-01-27T00:00:00Z");
+
+        when(metricsRepositoryPort.findSyncState(repoUrl)).thenReturn(Optional.of(state));
+        when(sourceControlPort.fetchDeployments(repoUrl, deploymentsMark)).thenReturn(List.of(fresh));
+        when(sourceControlPort.fetchChanges(repoUrl, state.changesSyncedTo())).thenReturn(List.of());
+        when(sourceControlPort.fetchIncidents(repoUrl, start)).thenReturn(List.of());
+        when(metricsRepositoryPort.findChanges(repoUrl, Set.of(), Set.of("sha1"))).thenReturn(List.of(pending));
+        when(metricsRepositoryPort.findDeployments(repoUrl, rangeStart, rangeEnd)).thenReturn(List.of(fresh));
+        when(metricsRepositoryPort.findChanges(repoUrl, rangeStart, rangeEnd)).thenReturn(List.of(pending));
+
+        doraMetricsService.calculateMetrics(repoUrl, new TimeWindow(start, end));
+
+        ArgumentCaptor<List<DailyRollup>> saved = rollupCaptor();
+        verify(metricsRepositoryPort).saveDailyRollups(saved.capture());
+        List<DailyRollup> rollups = saved.getValue();
+        assertEquals(7, rollups.size());
+        assertEquals(LocalDate.parse("2026-01-20"), rollups.get(0).day());
+        assertEquals(new DailyRollup(repoUrl, LocalDate.parse("2026-01-21"), 0, 0, 0, Duration.ofHours(120).getSeconds(), 1,
+                sketchOf(Duration.ofHours(120)), sketchOf()), rollups.get(1));
+        assertEquals(new DailyRollup(repoUrl, LocalDate.parse("2026-01-26"), 1, 0, 0, 0, 0), rollups.get(6));
+    }
+
+    @Test
+    void calculateMetrics_shouldRefreshRollupsLikeAFullSync_whenADeltaReleaseNamesAnOlderPr() {
+        String repoUrl = "https://github.com/test/repo";
+        Instant start = Instant.parse("2026-01-01T00:00:00Z");
+        Instant end = Instant.parse("2026-01-31T00:00:00Z");
+        Instant deploymentsMark = Instant.parse("2026-01-20T15:00:00Z");
+        SyncState state = new SyncState(repoUrl, start, deploymentsMark,
+                Instant.parse("2026-01-25T00:00:00Z"), start, Instant.parse("2026-01-25T00:00:00Z"));
+
+        // The stored change first matched the stored deployment by time; the delta release names it, and
+        // the release body strategy runs first
+        Change older = new Change("test/repo/pr/7", repoUrl, "sha-pr7", Instant.parse("2026-01-04T10:00:00Z"), Instant.parse("2026-01-05T12:00:00Z"), "author");
+        Deployment stored = new Deployment("d-old", repoUrl, "sha-old", Instant.parse("2026-01-10T09:00:00Z"), Instant.parse("2026-01-10T10:00:00Z"), "env", "success", null);
+        Deployment fresh = new Deployment("d-new", repoUrl, "sha-new", Instant.parse("2026-01-26T09:00:00Z"), Instant.parse("2026-01-26T10:00:00Z"), "env", "success", "Ships #7");
+        Instant rangeStart = Instant.parse("2026-01-05T00:00:00Z");
+        Instant rangeEnd = Instant.parse("2026-01-27T00:00:00Z");
+
+        when(metricsRepositoryPort.findSyncState(repoUrl)).thenReturn(Optional.of(state));
+        when(sourceControlPort.fetchDeployments(repoUrl, deploymentsMark)).thenReturn(List.of(fresh));
+        when(sourceControlPort.fetchChanges(repoUrl, state.changesSyncedTo())).thenReturn(List.of());
+        when(sourceControlPort.fetchIncidents(repoUrl, start)).thenReturn(List.of());
+        when(metricsRepositoryPort.findChanges(repoUrl, Set.of("test/repo/pr/7"), Set.of("sha-new"))).thenReturn(List.of(older));
+        when(metricsRepositoryPort.findDeployments(repoUrl, rangeStart, rangeEnd)).thenReturn(List.of(stored, fresh));
+        when(metricsRepositoryPort.findChanges(repoUrl, rangeStart, rangeEnd)).thenReturn(List.of(older));
+
+        doraMetricsService.calculateMetrics(repoUrl, new TimeWindow(start, end));
+
+        ArgumentCaptor<List<DailyRollup>> deltaRollups = rollupCaptor();
+        verify(metricsRepositoryPort).saveDailyRollups(deltaRollups.capture());
+
+        // The same events, synced from scratch
+        SourceControlPort fullSource = mock(SourceControlPort.class, Answers.CALLS_REAL_METHODS);
+        MetricsRepositoryPort fullRepository = mock(MetricsRepositoryPort.class);
+        when(fullSource.fetchDeployments(repoUrl, start)).thenReturn(List.of(stored, fresh));
+        when(fullSource.fetchChanges(repoUrl, start)).thenReturn(List.of(older));
+        when(fullSource.fetchIncidents(repoUrl, start)).thenReturn(List.of());
+        new DoraMetricsService(fullSource, fullRepository, leadTimeCalculator, ScanMetrics.NONE)
+                .calculateMetrics(repoUrl, new TimeWindow(start, end));
+        ArgumentCaptor<List<DailyRollup>> fullRollups = rollupCaptor();
+        verify(fullRepository).saveDailyRollups(fullRollups.capture());
+
+        List<DailyRollup> delta = deltaRollups.getValue();
+        assertEquals(LocalDate.parse("2026-01-05"), delta.get(0).day());
+        assertEquals(fullRollups.getValue().stream()
+                .filter(rollup -> !rollup.day().isBefore(LocalDate.parse("2026-01-05")) && !rollup.day().isAfter(LocalDate.parse("2026-01-26")))
+                .toList(), delta);
+        assertEquals(Duration.between(older.createdAt(), fresh.deployedAt()).getSeconds(), delta.get(0).leadTimeSeconds());
+    }
+
+    @Test
+    void calculateMetrics_shouldSumRollupsAndCountPartialEdgeDaysFromRawEvents() {
+        String repoUrl = "https://github.com/test/repo";
+        Instant start = Instant.parse("2026-01-10T12:00:00Z");
+        Instant end = Instant.parse("2026-01-14T12:00:00Z");
+        SyncState state = new SyncState(repoUrl, start.minus(Duration.ofDays(30)), end, end, end, end);
+
+        when(metricsRepositoryPort.findSyncState(repoUrl)).thenReturn(Optional.of(state));
+        when(sourceControlPort.fetchDeployments(repoUrl, end)).thenReturn(List.of());
+        when(sourceControlPort.fetchChanges(repoUrl, end)).thenReturn(List.of());
+        when(sourceControlPort.fetchIncidents(repoUrl, end)).thenReturn(List.of());
+        when(metricsRepositoryPort.findDailyRollups(repoUrl, LocalDate.parse("2026-01-10"), LocalDate.parse("2026-01-14"))).thenReturn(List.of(
+                // Edge day totals also include events outside the window, so only their lead times are used
+                new DailyRollup(repoUrl, LocalDate.parse("2026-01-10"), 5, 5, 5000, 3600, 1),
+                new DailyRollup(repoUrl, LocalDate.parse("2026-01-11"), 2, 1, 1800, 0, 0),
+                new DailyRollup(repoUrl, LocalDate.parse("2026-01-13"), 1, 0, 0, 7200, 1),
+                new DailyRollup(repoUrl, LocalDate.parse("2026-01-14"), 5, 5, 5000, 0, 0)));
+        when(metricsRepositoryPort.findDeployments(repoUrl, start, Instant.parse("2026-01-11T00:00:00Z"))).thenReturn(List.of(
+                new Deployment("d-edge", repoUrl, "sha", start, Instant.parse("2026-01-10T20:00:00Z"), "env", "success", null),
+                // Inclusive range end: belongs to the next day's rollup
+                new Deployment("d-midnight", repoUrl, "sha", start, Instant.parse("2026-01-11T00:00:00Z"), "env", "success", null)));
+        when(metricsRepositoryPort.findIncidents(repoUrl, start, Instant.parse("2026-01-11T00:00:00Z"))).thenReturn(List.of());
+        when(metricsRepositoryPort.findDeployments(repoUrl, Instant.parse("2026-01-14T00:00:00Z"), end)).thenReturn(List.of());
+        when(metricsRepositoryPort.findIncidents(repoUrl, Instant.parse("2026-01-14T00:00:00Z"), end)).thenReturn(List.of(
+                new Incident("i-edge", repoUrl, Instant.parse("2026-01-14T06:00:00Z"), Instant.parse("2026-01-14T07:00:00Z"), "high", "outage")));
+
+        DoraMetricsResult result = doraMetricsService.calculateMetrics(repoUrl, new TimeWindow(start, end));
+
+        // 2 + 1 interior deployments plus one on the first day; 1 interior incident plus one on the last day
+        assertEquals(4.0 / 4, result.deploymentFrequency(), 1e-9);
+        assertEquals(50.0, result.changeFailureRate(), 1e-9);
+        assertEquals(Duration.ofSeconds((1800 + 3600) / 2), result.timeToRestoreService());
+        assertEquals(Duration.ofSeconds((3600 + 7200) / 2), result.leadTimeForChanges());
+    }
+
+    @Test
+    void calculateTrend_shouldFoldRollupsIntoWeeklyBuckets_inOnePass() {
+        String repoUrl = "https://github.com/test/repo";
+        // Saturday noon to Wednesday noon: a short first week, a full week and a short last week
+        Instant start = Instant.parse("2026-01-10T12:00:00Z");
+        Instant end = Instant.parse("2026-01-21T12:00:00Z");
+        SyncState state = new SyncState(repoUrl, start.minus(Duration.ofDays(30)), end, end, end, end);
+
+        when(metricsRepositoryPort.findSyncState(repoUrl)).thenReturn(Optional.of(state));
+        when(sourceControlPort.fetchDeployments(repoUrl, end)).thenReturn(List.of());
+        when(sourceControlPort.fetchChanges(repoUrl, end)).thenReturn(List.of());
+        when(sourceControlPort.fetchIncidents(repoUrl, end)).thenReturn(List.of());
+        when(metricsRepositoryPort.findDailyRollups(repoUrl, LocalDate.parse("2026-01-10"), LocalDate.parse("2026-01-21"))).thenReturn(List.of(
+                new DailyRollup(repoUrl, LocalDate.parse("2026-01-10"), 5, 5, 5000, 3600, 1),
+                new DailyRollup(repoUrl, LocalDate.parse("2026-01-11"), 2, 1, 1800, 0, 0),
+                new DailyRollup(repoUrl, LocalDate.parse("2026-01-13"), 1, 0, 0, 7200, 1),
+                new DailyRollup(repoUrl, LocalDate.parse("2026-01-19"), 4, 0, 0, 0, 0),
+                new DailyRollup(repoUrl, LocalDate.parse("2026-01-21"), 9, 9, 9000, 0, 0)));
+        when(metricsRepositoryPort.findDeployments(repoUrl, start, Instant.parse("2026-01-11T00:00:00Z"))).thenReturn(List.of(
+                new Deployment("d-edge", repoUrl, "sha", start, Instant.parse("2026-01-10T20:00:00Z"), "env", "success", null)));
+        when(metricsRepositoryPort.findIncidents(repoUrl, start, Instant.parse("2026-01-11T00:00:00Z"))).thenReturn(List.of());
+        when(metricsRepositoryPort.findDeployments(repoUrl, Instant.parse("2026-01-21T00:00:00Z"), end)).thenReturn(List.of());
+        when(metricsRepositoryPort.findIncidents(repoUrl, Instant.parse("2026-01-21T00:00:00Z"), end)).thenReturn(List.of(
+                new Incident("i-edge", repoUrl, Instant.parse("2026-01-21T06:00:00Z"), Instant.parse("2026-01-21T07:00:00Z"), "high", "outage")));
+
+        MetricsTrend trend = doraMetricsService.calculateTrend(repoUrl, new TimeWindow(start, end), TrendBucket.WEEK);
+
+        assertEquals(List.of(
+                new TimeWindow(start, Instant.parse("2026-01-12T00:00:00Z")),
+                new TimeWindow(Instant.parse("2026-01-12T00:00:00Z"), Instant.parse("2026-01-19T00:00:00Z")),
+                new TimeWindow(Instant.parse("2026-01-19T00:00:00Z"), end)),
+                trend.points().stream().map(MetricsTrend.Point::timeWindow).toList());
+        DoraMetricsResult first = trend.points().get(0).metrics();
+        assertEquals(3.0, first.deploymentFrequency(), 1e-9);
+        assertEquals(100.0 / 3, first.changeFailureRate(), 1e-9);
+        assertEquals(Duration.ofSeconds(1800), first.timeToRestoreService());
+        assertEquals(Duration.ofHours(1), first.leadTimeForChanges());
+        DoraMetricsResult second = trend.points().get(1).metrics();
+        assertEquals(1.0 / 7, second.deploymentFrequency(), 1e-9);
+        assertEquals(Duration.ofHours(2), second.leadTimeForChanges());
+        DoraMetricsResult third = trend.points().get(2).metrics();
+        assertEquals(2.0, third.deploymentFrequency(), 1e-9);
+        assertEquals(25.0, third.changeFailureRate(), 1e-9);
+        assertEquals(Duration.ofHours(1), third.timeToRestoreService());
+        verify(metricsRepositoryPort).findDailyRollups(any(), any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<DailyRollup>> rollupCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+
+    private static DailyRollup rollup(String repoUrl, Instant at, long deployments, long incidents, long restoreSeconds) {
+        return new DailyRollup(repoUrl, DailyRollups.dayOf(at), deployments, incidents, restoreSeconds, 0, 0);
+    }
+
+    private static DurationSketch sketchOf(Duration... durations) {
+        DurationSketch sketch = new DurationSketch();
+        for (Duration duration : durations) {
+            sketch.add(duration);
+        }
+        return sketch;
+    }
+
+    private static <T> T awaitAll(CountDownLatch latch, T result) throws InterruptedException {
+        latch.countDown();
+        if (!latch.await(5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Fetches did not run concurrently");
+        }
+        return result;
+    }
 }
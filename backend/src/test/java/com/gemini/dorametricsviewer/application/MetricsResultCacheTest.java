@@ -0,0 +1,141 @@
+package com.gemini.dorametricsviewer.application;
+
+import com.gemini.dorametricsviewer.domain.TimeWindow;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricsResultCacheTest {
+
+    private static final String REPO_URL = "https://github.com/owner/repo";
+    private static final TimeWindow WINDOW = new TimeWindow(
+            Instant.parse("2026-01-01T00:00:00Z"), Instant.parse("2026-02-01T00:00:00Z"));
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-02-01T12:00:00Z"));
+    private final AtomicInteger computations = new AtomicInteger();
+
+    @Test
+    void get_shouldServeRepeatedCallsFromCache_forEquivalentRepositoryUrlsAndWindows() {
+        MetricsResultCache cache = new MetricsResultCache(10, Duration.ofMinutes(10), clock);
+        TimeWindow sameWindowWithMillis = new TimeWindow(WINDOW.start().plusMillis(250), WINDOW.end().plusMillis(999));
+
+        DoraMetricsResult first = cache.get(REPO_URL, WINDOW, this::compute);
+        DoraMetricsResult second = cache.get("https://GitHub.com/Owner/Repo.git/", sameWindowWithMillis, this::compute);
+
+        assertThat(second).isSameAs(first);
+        assertThat(computations).hasValue(1);
+        assertThat(cache.stats()).isEqualTo(new MetricsResultCache.Stats(1, 1, 0, 1));
+    }
+
+    @Test
+    void get_shouldRecompute_afterTtlExpires() {
+        MetricsResultCache cache = new MetricsResultCache(10, Duration.ofMinutes(10), clock);
+
+        cache.get(REPO_URL, WINDOW, this::compute);
+        clock.advance(Duration.ofMinutes(10));
+        cache.get(REPO_URL, WINDOW, this::compute);
+
+        assertThat(computations).hasValue(2);
+        assertThat(cache.stats()).isEqualTo(new MetricsResultCache.Stats(0, 2, 1, 1));
+    }
+
+    @Test
+    void get_shouldEvictLeastRecentlyUsed_whenFull() {
+        MetricsResultCache cache = new MetricsResultCache(2, Duration.ofMinutes(10), clock);
+
+        cache.get("https://github.com/owner/a", WINDOW, this::compute);
+        cache.get("https://github.com/owner/b", WINDOW, this::compute);
+        cache.get("https://github.com/owner/a", WINDOW, this::compute); // a is now the most recent
+        cache.get("https://github.com/owner/c", WINDOW, this::compute); // evicts b
+        cache.get("https://github.com/owner/a", WINDOW, this::compute);
+        cache.get("https://github.com/owner/b", WINDOW, this::compute);
+
+        assertThat(computations).hasValue(4);
+        assertThat(cache.stats().evictions()).isEqualTo(2);
+        assertThat(cache.stats().entries()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidate_shouldDropOnlyThatRepositorysEntries() {
+        MetricsResultCache cache = new MetricsResultCache(10, Duration.ofMinutes(10), clock);
+        cache.get(REPO_URL, WINDOW, this::compute);
+        cache.get("https://github.com/owner/other", WINDOW, this::compute);
+
+        cache.invalidate("https://github.com/owner/repo/");
+        cache.get(REPO_URL, WINDOW, this::compute);
+        cache.get("https://github.com/owner/other", WINDOW, this::compute);
+
+        assertThat(computations).hasValue(3);
+    }
+
+    @Test
+    void get_shouldCacheResult_whenComputationItselfSavesEvents() {
+        MetricsResultCache cache = new MetricsResultCache(10, Duration.ofMinutes(10), clock);
+
+        // The service stores what it fetched, which invalidates the repository on the same thread
+        cache.get(REPO_URL, WINDOW, () -> {
+            cache.invalidate(REPO_URL);
+            return compute();
+        });
+        cache.get(REPO_URL, WINDOW, this::compute);
+
+        assertThat(computations).hasValue(1);
+    }
+
+    @Test
+    void get_shouldNotCacheResult_whenAnotherThreadSavesEventsMeanwhile() throws InterruptedException {
+        MetricsResultCache cache = new MetricsResultCache(10, Duration.ofMinutes(10), clock);
+
+        cache.get(REPO_URL, WINDOW, () -> {
+            Thread ingest = Thread.ofVirtual().start(() -> cache.invalidate(REPO_URL));
+            try {
+                ingest.join();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return compute();
+        });
+        cache.get(REPO_URL, WINDOW, this::compute);
+
+        assertThat(computations).hasValue(2);
+    }
+
+    private DoraMetricsResult compute() {
+        computations.incrementAndGet();
+        return new DoraMetricsResult(Duration.ofHours(1), 1.0, 0.0, Duration.ZERO);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.gemini.dorametricsviewer.application;
+
+import com.gemini.dorametricsviewer.domain.TimeWindow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ScanJobServiceTest {
+
+    private static final String REPO_URL = "https://github.com/owner/repo";
+    private static final TimeWindow WINDOW = new TimeWindow(Instant.parse("2023-01-01T00:00:00Z"), Instant.parse("2023-02-01T00:00:00Z"));
+    private static final DoraMetricsResult RESULT = new DoraMetricsResult(Duration.ofHours(5), 1.0, 10.0, Duration.ofHours(1));
+
+    @Mock
+    private CachingDoraMetricsService doraMetricsService;
+
+    private ScanJobService scanJobService;
+
+    @BeforeEach
+    void setUp() {
+        scanJobService = new ScanJobService(doraMetricsService, 1, 1, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        scanJobService.close();
+    }
+
+    @Test
+    void submit_shouldRunTheScanInTheBackground_andStreamItsProgress() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(doraMetricsService.calculateMetrics(eq(REPO_URL), eq(WINDOW), any())).thenAnswer(invocation -> {
+            ScanProgress progress = invocation.getArgument(2);
+            release.await();
+            progress.stage(ScanProgress.Stage.FETCH);
+            progress.stage(ScanProgress.Stage.SYNC);
+            progress.eventsSaved(3);
+            progress.pageFetched(100);
+            progress.eventsSaved(100);
+            progress.stage(ScanProgress.Stage.AGGREGATE);
+            return RESULT;
+        });
+        List<ScanJob.Snapshot> updates = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        ScanJob job = scanJobService.submit(REPO_URL, WINDOW);
+        job.subscribe(snapshot -> {
+            updates.add(snapshot);
+            if (snapshot.status().isDone()) {
+                done.countDown();
+            }
+        });
+        release.countDown();
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        ScanJob.Snapshot finished = scanJobService.find(job.id()).orElseThrow().snapshot();
+        assertThat(finished.status()).isEqualTo(ScanJob.Status.SUCCEEDED);
+        assertThat(finished.result()).isEqualTo(RESULT);
+        assertThat(finished.pagesFetched()).isEqualTo(1);
+        assertThat(finished.changesFetched()).isEqualTo(100);
+        assertThat(finished.eventsSaved()).isEqualTo(103);
+        assertThat(finished.stageTimings()).containsOnlyKeys(ScanProgress.Stage.values());
+        // Snapshots a busy subscriber had no time for are skipped, but never reordered
+        assertThat(updates).extracting(ScanJob.Snapshot::stage).filteredOn(stage -> stage != null).isSorted();
+        assertThat(updates.get(updates.size() - 1)).isEqualTo(finished);
+    }
+
+    @Test
+    void subscribe_shouldNotHoldUpTheScan_whenASubscriberIsStuck() throws Exception {
+        when(doraMetricsService.calculateMetrics(eq(REPO_URL), eq(WINDOW), any())).thenAnswer(invocation -> {
+            ScanProgress progress = invocation.getArgument(2);
+            for (int page = 0; page < 50; page++) {
+                progress.pageFetched(100);
+            }
+            return RESULT;
+        });
+        CountDownLatch stuck = new CountDownLatch(1);
+        List<ScanJob.Snapshot> updates = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        ScanJob job = scanJobService.submit(REPO_URL, WINDOW);
+        job.subscribe(snapshot -> {
+            updates.add(snapshot);
+            try {
+                // Like an SSE client whose send buffer is full
+                stuck.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (snapshot.status().isDone()) {
+                done.countDown();
+            }
+        });
+
+        await(() -> job.snapshot().status().isDone());
+        assertThat(job.snapshot().pagesFetched()).isEqualTo(50);
+        stuck.countDown();
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        // What it got while stuck, then straight to the final snapshot
+        assertThat(updates).hasSizeLessThanOrEqualTo(2);
+        assertThat(updates.get(updates.size() - 1)).isEqualTo(job.snapshot());
+    }
+
+    @Test
+    void submit_shouldRunTheScanAsBackgroundWork() throws Exception {
+        List<ScanPriority> priorities = new CopyOnWriteArrayList<>();
+        when(doraMetricsService.calculateMetrics(eq(REPO_URL), eq(WINDOW), any())).thenAnswer(invocation -> {
+            priorities.add(ScanPriority.current());
+            return RESULT;
+        });
+        CountDownLatch done = new CountDownLatch(1);
+
+        scanJobService.submit(REPO_URL, WINDOW).subscribe(snapshot -> {
+            if (snapshot.status().isDone()) {
+                done.countDown();
+            }
+        });
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(priorities).containsExactly(ScanPriority.BACKGROUND);
+        assertThat(ScanPriority.current()).isEqualTo(ScanPriority.INTERACTIVE);
+    }
+
+    @Test
+    void submit_shouldRecordTheError_whenTheScanFails() throws Exception {
+        when(doraMetricsService.calculateMetrics(eq(REPO_URL), eq(WINDOW), any()))
+                .thenThrow(new IllegalStateException("GitHub API unreachable"));
+        CountDownLatch done = new CountDownLatch(1);
+
+        ScanJob job = scanJobService.submit(REPO_URL, WINDOW);
+        job.subscribe(snapshot -> {
+            if (snapshot.status().isDone()) {
+                done.countDown();
+            }
+        });
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(job.snapshot().status()).isEqualTo(ScanJob.Status.FAILED);
+        assertThat(job.snapshot().error()).isEqualTo("GitHub API unreachable");
+    }
+
+    @Test
+    void submit_shouldReject_whenEveryWorkerIsBusyAndTheQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(doraMetricsService.calculateMetrics(any(), any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return RESULT;
+        });
+
+        try {
+            scanJobService.submit(REPO_URL, WINDOW);
+            // The only worker is busy from here on, so the next job waits in the queue
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            scanJobService.submit(REPO_URL, WINDOW);
+
+            assertThatThrownBy(() -> scanJobService.submit(REPO_URL, WINDOW))
+                    .isInstanceOf(RejectedExecutionException.class);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition within 5s").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
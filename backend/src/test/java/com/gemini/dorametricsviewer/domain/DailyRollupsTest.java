@@ -0,0 +1,66 @@
+package com.gemini.dorametricsviewer.domain;
+
+import com.gemini.dorametricsviewer.domain.model.Change;
+import com.gemini.dorametricsviewer.domain.model.DailyRollup;
+import com.gemini.dorametricsviewer.domain.model.Deployment;
+import com.gemini.dorametricsviewer.domain.model.Incident;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DailyRollupsTest {
+
+    private static final String REPO_URL = "http://repo.com";
+    private static final LocalDate FROM = LocalDate.parse("2026-01-10");
+    private static final LocalDate TO = LocalDate.parse("2026-01-12");
+
+    @Test
+    void compute_shouldBucketEventsByUtcDayAndIncludeEmptyDays() {
+        List<Deployment> deployments = List.of(
+            deployment("d1", "sha1", "2026-01-10T23:59:59Z"),
+            deployment("d2", "sha2", "2026-01-12T00:00:00Z"),
+            // Outside the range: still a match candidate, but not counted
+            deployment("d3", "sha3", "2026-01-13T08:00:00Z"));
+        List<Incident> incidents = List.of(
+            new Incident("i1", REPO_URL, Instant.parse("2026-01-10T10:00:00Z"), Instant.parse("2026-01-10T10:30:00Z"), "high", null),
+            new Incident("i2", REPO_URL, Instant.parse("2026-01-10T12:00:00Z"), null, "low", null));
+
+        List<DailyRollup> rollups = DailyRollups.compute(REPO_URL, FROM, TO, deployments, List.of(), incidents, new LeadTimeCalculator());
+
+        assertThat(rollups).containsExactly(
+            new DailyRollup(REPO_URL, FROM, 1, 2, 1800, 0, 0, new DurationSketch(), sketchOf(Duration.ofMinutes(30))),
+            new DailyRollup(REPO_URL, FROM.plusDays(1), 0, 0, 0, 0, 0),
+            new DailyRollup(REPO_URL, TO, 1, 0, 0, 0, 0));
+    }
+
+    @Test
+    void compute_shouldAttributeLeadTimeToMergeDay_evenWhenDeploymentIsAfterRange() {
+        List<Deployment> deployments = List.of(deployment("d1", "sha1", "2026-01-13T08:00:00Z"));
+        List<Change> changes = List.of(
+            new Change("c1", REPO_URL, "sha1", Instant.parse("2026-01-11T08:00:00Z"), Instant.parse("2026-01-11T09:00:00Z"), "author"),
+            // No deployment references it and none follows it in time
+            new Change("c2", REPO_URL, "sha-unmatched", Instant.parse("2026-01-11T08:00:00Z"), Instant.parse("2026-01-14T09:00:00Z"), "author"));
+
+        List<DailyRollup> rollups = DailyRollups.compute(REPO_URL, FROM, TO, deployments, changes, List.of(), new LeadTimeCalculator());
+
+        assertThat(rollups.get(1).leadTimeSeconds()).isEqualTo(48 * 3600);
+        assertThat(rollups.get(1).leadTimeCount()).isEqualTo(1);
+        assertThat(rollups).extracting(DailyRollup::leadTimeCount).containsExactly(0L, 1L, 0L);
+    }
+
+    private static DurationSketch sketchOf(Duration duration) {
+        DurationSketch sketch = new DurationSketch();
+        sketch.add(duration);
+        return sketch;
+    }
+
+    private static Deployment deployment(String id, String sha, String deployedAt) {
+        Instant at = Instant.parse(deployedAt);
+        return new Deployment(id, REPO_URL, sha, at, at, "prod", "SUCCESS", null);
+    }
+}
@@ -0,0 +1,136 @@
+package com.gemini.dorametricsviewer.domain;
+
+import com.gemini.dorametricsviewer.domain.model.Deployment;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeploymentIndexTest {
+
+    private static final Instant T = Instant.parse("2026-01-20T08:00:00Z");
+
+    // -------------------------------------------------------------------------
+    // Commit SHA lookups
+    // -------------------------------------------------------------------------
+
+    @Test
+    void findByCommitSha_shouldReturnFirstDeploymentInListOrder() {
+        Deployment first = deployment("d1", "sha1", T, null);
+        Deployment second = deployment("d2", "sha1", T.minusSeconds(60), null);
+
+        DeploymentIndex index = new DeploymentIndex(List.of(first, second));
+
+        assertThat(index.findByCommitSha("sha1")).contains(first);
+        assertThat(index.findByCommitSha("missing")).isEmpty();
+        assertThat(index.findByCommitSha(null)).isEmpty();
+    }
+
+    // -------------------------------------------------------------------------
+    // Release body lookups
+    // -------------------------------------------------------------------------
+
+    @Test
+    void findByPrReference_shouldMatchHashAndPullUrlReferences() {
+        Deployment hash = deployment("d1", "sha1", T, "- Fix bug #42");
+        Deployment url = deployment("d2", "sha2", T, "See https://github.com/owner/repo/pull/77 for details");
+
+        DeploymentIndex index = new DeploymentIndex(List.of(hash, url));
+
+        assertThat(index.findByPrReference(42)).contains(hash);
+        assertThat(index.findByPrReference(77)).contains(url);
+        assertThat(index.findByPrReference(99)).isEmpty();
+    }
+
+    @Test
+    void findByPrReference_shouldOnlyMatchWholePrNumbers() {
+        Deployment deployment = deployment("d1", "sha1", T, "Includes #123, https://github.com/owner/repo/pull/4567/files");
+
+        DeploymentIndex index = new DeploymentIndex(List.of(deployment));
+
+        assertThat(index.findByPrReference(123)).contains(deployment);
+        assertThat(index.findByPrReference(4567)).contains(deployment);
+        assertThat(index.findByPrReference(12)).isEmpty();
+        assertThat(index.findByPrReference(456)).isEmpty();
+        assertThat(index.findByPrReference(1234)).isEmpty();
+    }
+
+    @Test
+    void findByPrReference_shouldIndexManyReferences() {
+        StringBuilder body = new StringBuilder();
+        for (int pr = 1; pr <= 500; pr++) {
+            body.append("- Change #").append(pr).append('\n');
+        }
+        Deployment deployment = deployment("d1", "sha1", T, body.toString());
+
+        DeploymentIndex index = new DeploymentIndex(List.of(deployment));
+
+        for (int pr = 1; pr <= 500; pr++) {
+            assertThat(index.findByPrReference(pr)).contains(deployment);
+        }
+        assertThat(index.findByPrReference(501)).isEmpty();
+    }
+
+    @Test
+    void findByPrReference_shouldNotGrowTable_whenTheSamePrNumbersAreReferencedAgain() {
+        StringBuilder body = new StringBuilder();
+        for (int round = 0; round < 100; round++) {
+            for (int pr = 1; pr <= 8; pr++) {
+                body.append("- Change #").append(pr).append('\n');
+            }
+        }
+        Deployment first = deployment("d1", "sha1", T, body.toString());
+        Deployment second = deployment("d2", "sha2", T, body.toString());
+
+        DeploymentIndex index = new DeploymentIndex(List.of(first, second));
+
+        assertThat(index.prNumberSlots()).isEqualTo(16);
+        for (int pr = 1; pr <= 8; pr++) {
+            assertThat(index.findByPrReference(pr)).contains(first);
+        }
+    }
+
+    @Test
+    void findByPrReference_shouldPreferEarlierDeploymentInListOrder() {
+        Deployment first = deployment("d1", "sha1", T.plusSeconds(3600), "#5");
+        Deployment second = deployment("d2", "sha2", T, "#5");
+
+        DeploymentIndex index = new DeploymentIndex(List.of(first, second));
+
+        assertThat(index.findByPrReference(5)).contains(first);
+    }
+
+    // -------------------------------------------------------------------------
+    // Time-based lookups
+    // -------------------------------------------------------------------------
+
+    @Test
+    void findFirstDeployedAtOrAfter_shouldReturnEarliestDeploymentNotBeforeInstant() {
+        Deployment early = deployment("d-early", "sha1", T.plusSeconds(60), null);
+        Deployment exact = deployment("d-exact", "sha2", T, null);
+        Deployment late = deployment("d-late", "sha3", T.plusSeconds(7200), null);
+        Deployment undated = deployment("d-undated", "sha4", null, null);
+
+        DeploymentIndex index = new DeploymentIndex(List.of(late, undated, early, exact));
+
+        assertThat(index.findFirstDeployedAtOrAfter(T)).contains(exact);
+        assertThat(index.findFirstDeployedAtOrAfter(T.plusSeconds(1))).contains(early);
+        assertThat(index.findFirstDeployedAtOrAfter(T.plusSeconds(7201))).isEmpty();
+    }
+
+    @Test
+    void findFirstDeployedAtOrAfter_shouldBreakTiesByListOrder() {
+        Deployment first = deployment("d1", "sha1", T, null);
+        Deployment second = deployment("d2", "sha2", T, null);
+
+        DeploymentIndex index = new DeploymentIndex(List.of(first, second));
+
+        assertThat(index.findFirstDeployedAtOrAfter(T.minusSeconds(60))).contains(first);
+    }
+
+    private static Deployment deployment(String id, String sha, Instant deployedAt, String description) {
+        return new Deployment(id, "http://repo.com", sha, deployedAt, deployedAt, "prod", "SUCCESS", description);
+    }
+}
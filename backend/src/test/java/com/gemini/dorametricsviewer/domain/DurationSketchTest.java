@@ -0,0 +1,64 @@
+package com.gemini.dorametricsviewer.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+class DurationSketchTest {
+
+    @Test
+    void quantile_shouldStayWithinOnePercentOfTheExactValue() {
+        Random random = new Random(42);
+        long[] seconds = new long[10_000];
+        DurationSketch sketch = new DurationSketch();
+        for (int i = 0; i < seconds.length; i++) {
+            // Log-normal-ish spread from minutes to weeks, like real lead times
+            seconds[i] = 60 + (long) Math.exp(random.nextDouble() * 14);
+            sketch.add(Duration.ofSeconds(seconds[i]));
+        }
+        Arrays.sort(seconds);
+
+        for (double quantile : new double[] {0.5, 0.75, 0.9, 0.99}) {
+            long exact = seconds[(int) Math.floor(quantile * (seconds.length - 1))];
+            assertThat(sketch.quantile(quantile).toSeconds()).isCloseTo(exact, withinPercentage(1));
+        }
+        assertThat(sketch.count()).isEqualTo(10_000);
+        assertThat(sketch.mean()).isEqualTo(Duration.ofSeconds(Arrays.stream(seconds).sum() / seconds.length));
+    }
+
+    @Test
+    void merge_shouldEqualTheSketchOfAllDurations() {
+        DurationSketch first = new DurationSketch();
+        DurationSketch second = new DurationSketch();
+        DurationSketch all = new DurationSketch();
+        for (int hours = 0; hours < 100; hours++) {
+            Duration duration = Duration.ofHours(hours).plusSeconds(hours * 7);
+            (hours % 3 == 0 ? first : second).add(duration);
+            all.add(duration);
+        }
+
+        assertThat(DurationSketch.merged(List.of(first, second, new DurationSketch()))).isEqualTo(all);
+        assertThat(first.count()).isEqualTo(34);
+    }
+
+    @Test
+    void toBytes_shouldRoundTrip_andEmptyInputGiveAnEmptySketch() {
+        DurationSketch sketch = new DurationSketch();
+        sketch.add(Duration.ZERO);
+        sketch.add(Duration.ofMinutes(5));
+        sketch.add(Duration.ofDays(3));
+        sketch.add(Duration.ofSeconds(-10));
+
+        assertThat(DurationSketch.fromBytes(sketch.toBytes())).isEqualTo(sketch);
+        assertThat(DurationSketch.fromBytes(new DurationSketch().toBytes())).isEqualTo(new DurationSketch());
+        assertThat(DurationSketch.fromBytes(null).count()).isZero();
+        assertThat(new DurationSketch().percentiles())
+                .isEqualTo(new DurationPercentiles(Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ZERO));
+    }
+}
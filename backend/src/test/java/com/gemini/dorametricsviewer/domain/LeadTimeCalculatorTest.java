@@ -6,7 +6,9 @@ import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -131,13 +133,35 @@ class LeadTimeCalculatorTest {
         assertEquals(Duration.ofHours(2), result);
     }
 
+    @Test
+    void givenLongerPrNumberInReleaseBody_whenCalculate_thenDoesNotMatchOnPrefix() {
+        // #12 is a prefix of #123 but a different PR; only the second release refers to #12.
+        Change change = new Change(
+            "owner/repo/pr/12", "http://repo.com", "sha-unmatched",
+            T, T.plusSeconds(1800), "author");
+
+        Deployment other = new Deployment(
+            "d1", "http://repo.com", "sha-release-1",
+            T.plusSeconds(3600), T.plusSeconds(3600), "prod", "SUCCESS",
+            "- Fix bug #123");
+        Deployment deployment = new Deployment(
+            "d2", "http://repo.com", "sha-release-2",
+            T.plusSeconds(14400), T.plusSeconds(14400), "prod", "SUCCESS",
+            "- Fix bug #12, see also #1234");
+
+        // lead time = T+4h - T = 4 hours
+        Duration result = calculator.calculate(List.of(change), List.of(other, deployment));
+
+        assertEquals(Duration.ofHours(4), result);
+    }
+
     // -------------------------------------------------------------------------
     // TimeWindowStrategy
     // -------------------------------------------------------------------------
 
     @Test
     void givenNoShaOrBodyMatch_whenDeploymentAfterMerge_thenUsesTimeWindowStrategy() {
-        // Change has no /pr/ in id (so ReleaseBodyStrategy extracts null prNumber).
+        // Change has no /pr/ in id (so ReleaseBodyStrategy finds no PR number).
         // Deployment deployedAt is after change mergedAt → TimeWindowStrategy picks it up.
         Instant mergedAt = T.plusSeconds(3600);       // T + 1h
         Instant deployedAt = T.plusSeconds(7200);     // T + 2h
@@ -210,4 +234,44 @@ class LeadTimeCalculatorTest {
 
         assertEquals(Duration.ofHours(3), result);
     }
+
+    // -------------------------------------------------------------------------
+    // Parallel mode
+    // -------------------------------------------------------------------------
+
+    @Test
+    void givenChangesAboveParallelThreshold_whenFold_thenMatchesLikeSequentialInListOrder() {
+        List<Deployment> deployments = new ArrayList<>();
+        List<Change> changes = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            Instant createdAt = T.plusSeconds(60L * i);
+            changes.add(new Change("owner/repo/pr/" + (i + 1), "http://repo.com", "sha" + i,
+                createdAt, createdAt.plusSeconds(60), "author"));
+            if (i % 3 == 0) {
+                Instant deployedAt = createdAt.plusSeconds(3600L * (i % 7));
+                deployments.add(new Deployment("d" + i, "http://repo.com", "sha" + i,
+                    deployedAt, deployedAt, "prod", "SUCCESS", null));
+            }
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            LeadTimeCalculator parallel = new LeadTimeCalculator(LeadTimeCalculator.defaultStrategies(), pool, 1);
+            DeploymentIndex index = new DeploymentIndex(deployments);
+
+            List<String> sequentialOrder = calculator.fold(changes, index, ArrayList::new,
+                (partial, change, leadTime) -> partial.add(change.id() + "=" + leadTime), LeadTimeCalculatorTest::concat);
+            List<String> parallelOrder = parallel.fold(changes, index, ArrayList::new,
+                (partial, change, leadTime) -> partial.add(change.id() + "=" + leadTime), LeadTimeCalculatorTest::concat);
+
+            assertEquals(sequentialOrder, parallelOrder);
+            assertEquals(calculator.calculate(changes, deployments), parallel.calculate(changes, deployments));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static List<String> concat(List<String> left, List<String> right) {
+        left.addAll(right);
+        return left;
+    }
 }
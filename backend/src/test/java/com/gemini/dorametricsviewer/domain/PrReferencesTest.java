@@ -0,0 +1,53 @@
+package com.gemini.dorametricsviewer.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrReferencesTest {
+
+    @Test
+    void parse_shouldReadHashAndPullUrlReferences_onWholeNumberBoundaries() {
+        PrReferences references = PrReferences.parse("""
+                ## Changes
+                - Fix crash (#123)
+                - Faster startup, see https://github.com/owner/repo/pull/4567/files
+                - Theme colour #12abc, issue #0, padded #007 and #1234567890
+                - Same PR again #123.
+                """);
+
+        assertThat(numbers(references)).containsExactlyInAnyOrder(123, 4567);
+        assertThat(references.size()).isEqualTo(2);
+        assertThat(references.contains(123)).isTrue();
+        assertThat(references.contains(12)).isFalse();
+        assertThat(references.contains(456)).isFalse();
+        assertThat(references.contains(0)).isFalse();
+    }
+
+    @Test
+    void parse_shouldReturnAnEmptySet_forBodiesWithoutReferences() {
+        assertThat(PrReferences.parse(null).isEmpty()).isTrue();
+        assertThat(PrReferences.parse("").isEmpty()).isTrue();
+        assertThat(PrReferences.parse("# Release notes").contains(1)).isFalse();
+    }
+
+    @Test
+    void references_shouldAgreeWithParse() {
+        String body = "Includes #123 and /pull/77, not #12abc";
+
+        assertThat(PrReferences.references(body, 123)).isTrue();
+        assertThat(PrReferences.references(body, 77)).isTrue();
+        assertThat(PrReferences.references(body, 12)).isFalse();
+        assertThat(PrReferences.references(body, 7)).isFalse();
+        assertThat(PrReferences.references(null, 123)).isFalse();
+    }
+
+    private static List<Integer> numbers(PrReferences references) {
+        List<Integer> numbers = new ArrayList<>();
+        references.forEach(numbers::add);
+        return numbers;
+    }
+}
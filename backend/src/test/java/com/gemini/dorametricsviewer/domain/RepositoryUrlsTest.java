@@ -0,0 +1,36 @@
+package com.gemini.dorametricsviewer.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RepositoryUrlsTest {
+
+    @Test
+    void canonical_shouldSpellEveryGitHubFormTheSameWay() {
+        assertThat(new String[] {
+                "https://github.com/owner/repo",
+                "https://github.com/owner/repo.git",
+                "https://github.com/owner/repo/",
+                " http://www.github.com/owner/repo.git/ ",
+                "git@github.com:owner/repo.git",
+                "github.com/owner/repo",
+                "owner/repo",
+                "https://GitHub.com/Owner/Repo.git",
+                "Owner/REPO"})
+            .allSatisfy(url -> assertThat(RepositoryUrls.canonical(url)).isEqualTo("https://github.com/owner/repo"));
+    }
+
+    @Test
+    void canonical_shouldOnlyTrimOtherHosts() {
+        assertThat(RepositoryUrls.canonical("http://repo.com")).isEqualTo("http://repo.com");
+        assertThat(RepositoryUrls.canonical("https://gitlab.com/owner/repo.git/")).isEqualTo("https://gitlab.com/owner/repo");
+        assertThat(RepositoryUrls.canonical("https://gitlab.com/Owner/Repo")).isEqualTo("https://gitlab.com/Owner/Repo");
+    }
+
+    @Test
+    void path_shouldBeOwnerAndRepo_forGitHubUrls() {
+        assertThat(RepositoryUrls.path("https://github.com/microsoft/vscode.git")).isEqualTo("microsoft/vscode");
+        assertThat(RepositoryUrls.path("microsoft/vscode")).isEqualTo("microsoft/vscode");
+    }
+}
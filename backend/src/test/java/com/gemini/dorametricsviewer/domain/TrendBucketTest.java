@@ -0,0 +1,31 @@
+package com.gemini.dorametricsviewer.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrendBucketTest {
+
+    @Test
+    void split_shouldAlignWeeksToMondays_andCutTheEdgesToTheWindow() {
+        TimeWindow window = new TimeWindow(Instant.parse("2026-01-07T08:00:00Z"), Instant.parse("2026-01-19T00:00:00Z"));
+
+        assertThat(TrendBucket.WEEK.split(window)).containsExactly(
+                new TimeWindow(Instant.parse("2026-01-07T08:00:00Z"), Instant.parse("2026-01-12T00:00:00Z")),
+                new TimeWindow(Instant.parse("2026-01-12T00:00:00Z"), Instant.parse("2026-01-19T00:00:00Z")));
+    }
+
+    @Test
+    void split_shouldUseCalendarMonthsAndDays() {
+        TimeWindow window = new TimeWindow(Instant.parse("2026-01-15T00:00:00Z"), Instant.parse("2026-03-02T00:00:00Z"));
+
+        assertThat(TrendBucket.MONTH.split(window)).extracting(TimeWindow::start).containsExactly(
+                Instant.parse("2026-01-15T00:00:00Z"),
+                Instant.parse("2026-02-01T00:00:00Z"),
+                Instant.parse("2026-03-01T00:00:00Z"));
+        assertThat(TrendBucket.DAY.split(window)).hasSize(46);
+        assertThat(TrendBucket.DAY.split(new TimeWindow(window.start(), window.start().plusSeconds(60)))).hasSize(1);
+    }
+}
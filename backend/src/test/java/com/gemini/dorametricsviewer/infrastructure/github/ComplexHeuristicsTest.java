@@ -4,7 +4,12 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.gemini.dorametricsviewer.domain.DeploymentIndex;
+import com.gemini.dorametricsviewer.domain.ExactMatchStrategy;
 import com.gemini.dorametricsviewer.domain.LeadTimeCalculator;
+import com.gemini.dorametricsviewer.domain.MatchStrategy;
+import com.gemini.dorametricsviewer.domain.ReleaseBodyStrategy;
+import com.gemini.dorametricsviewer.domain.TimeWindowStrategy;
 import com.gemini.dorametricsviewer.domain.model.Change;
 import com.gemini.dorametricsviewer.domain.model.Deployment;
 import org.junit.jupiter.api.Test;
@@ -26,12 +31,43 @@ class ComplexHeuristicsTest {
 
     @Test
     void givenComplexRealWorldRepo_whenCalculateLeadTimeWithRobustLogic_thenReturnsMetrics() throws IOException {
-        // 1. Load Real Data from JSON
-        List<GitHubReleaseDTO> releaseDTOs = loadDeployments("backend/src/test/resources/datasets/vscode/deployments.json");
-        List<GitHubPullRequestDTO> prDTOs = loadChanges("backend/src/test/resources/datasets/vscode/changes.json");
+        // 1. Load Real Data from JSON and map to Domain Objects
+        List<Deployment> deployments = loadVscodeDeployments();
+        List<Change> changes = loadVscodeChanges();
+
+        // 2. Run LeadTimeCalculator
+        LeadTimeCalculator calculator = new LeadTimeCalculator();
+        Duration leadTime = calculator.calculate(changes, deployments);
+
+        // 3. Assert Success (Robustness)
+        // With Heuristics (TimeWindow and Body Parsing), we expect to find matches.
+        System.out.println("Calculated Lead Time: " + leadTime);
+        System.out.println("Deployments: " + deployments.size());
+        System.out.println("Changes: " + changes.size());
         
-        // 2. Map to Domain Objects
-        List<Deployment> deployments = releaseDTOs.stream()
+        // Assert that we found at least some matches, resulting in a positive lead time.
+        // VS Code PRs usually take days/weeks.
+        assertThat(leadTime).isGreaterThan(Duration.ZERO);
+    }
+
+    @Test
+    void givenComplexRealWorldRepo_whenMatchingThroughIndex_thenEveryStrategyAgreesWithListScan() throws IOException {
+        List<Deployment> deployments = loadVscodeDeployments();
+        List<Change> changes = loadVscodeChanges();
+        DeploymentIndex index = new DeploymentIndex(deployments);
+
+        for (MatchStrategy strategy : List.of(new ExactMatchStrategy(), new ReleaseBodyStrategy(), new TimeWindowStrategy())) {
+            for (Change change : changes) {
+                assertThat(strategy.findDeployment(change, index))
+                        .as("%s for %s", strategy.getClass().getSimpleName(), change.id())
+                        .isEqualTo(strategy.findDeployment(change, deployments));
+            }
+        }
+    }
+
+    private List<Deployment> loadVscodeDeployments() throws IOException {
+        List<GitHubReleaseDTO> releaseDTOs = loadDeployments("backend/src/test/resources/datasets/vscode/deployments.json");
+        return releaseDTOs.stream()
                 .map(r -> new Deployment(
                         "vscode/release/" + r.id(),
                         "https://github.com/microsoft/vscode",
@@ -43,8 +79,11 @@ class ComplexHeuristicsTest {
                         r.body()
                 ))
                 .collect(Collectors.toList());
+    }
 
-        List<Change> changes = prDTOs.stream()
+    private List<Change> loadVscodeChanges() throws IOException {
+        List<GitHubPullRequestDTO> prDTOs = loadChanges("backend/src/test/resources/datasets/vscode/changes.json");
+        return prDTOs.stream()
                 .map(pr -> new Change(
                         "vscode/pr/" + pr.number(),
                         "https://github.com/microsoft/vscode",
@@ -54,20 +93,6 @@ class ComplexHeuristicsTest {
                         pr.user() != null ? pr.user().login() : "unknown"
                 ))
                 .collect(Collectors.toList());
-
-        // 3. Run LeadTimeCalculator
-        LeadTimeCalculator calculator = new LeadTimeCalculator();
-        Duration leadTime = calculator.calculate(changes, deployments);
-
-        // 4. Assert Success (Robustness)
-        // With Heuristics (TimeWindow and Body Parsing), we expect to find matches.
-        System.out.println("Calculated Lead Time: " + leadTime);
-        System.out.println("Deployments: " + deployments.size());
-        System.out.println("Changes: " + changes.size());
-        
-        // Assert that we found at least some matches, resulting in a positive lead time.
-        // VS Code PRs usually take days/weeks.
-        assertThat(leadTime).isGreaterThan(Duration.ZERO);
     }
 
     private List<GitHubReleaseDTO> loadDeployments(String path) throws IOException {
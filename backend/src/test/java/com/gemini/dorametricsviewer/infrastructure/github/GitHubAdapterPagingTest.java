@@ -0,0 +1,210 @@
+package com.gemini.dorametricsviewer.infrastructure.github;
+
+import com.gemini.dorametricsviewer.domain.model.Change;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * Multi-page {@code /pulls} scans. Pages are requested concurrently, so expectations are unordered.
+ */
+class GitHubAdapterPagingTest {
+
+    private static final String REPO_URL = "https://github.com/owner/repo";
+    private static final String PULLS_URL = "https://api.github.com/repos/owner/repo/pulls?state=closed&per_page=100&page=";
+    private static final Instant SINCE = Instant.parse("2023-01-01T00:00:00Z");
+
+    private GitHubProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private MockRestServiceServer server;
+    private GitHubAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new GitHubProperties();
+        RestClient.Builder builder = RestClient.builder();
+        server = MockRestServiceServer.bindTo(builder).ignoreExpectOrder(true).build();
+        meterRegistry = new SimpleMeterRegistry();
+        adapter = new GitHubAdapter(properties, builder, new GitHubRateLimiter(properties), new GitHubRequestMetrics(meterRegistry));
+    }
+
+    @Test
+    void fetchChanges_shouldReadEveryPageUpToLinkLastPage_inPageOrder() {
+        server.expect(requestTo(PULLS_URL + 1))
+                .andRespond(withSuccess(page(1, 100, "2023-06-01T00:00:00Z"), MediaType.APPLICATION_JSON)
+                        .headers(linkHeader(3)));
+        server.expect(requestTo(PULLS_URL + 2))
+                .andRespond(withSuccess(page(101, 100, "2023-05-01T00:00:00Z"), MediaType.APPLICATION_JSON));
+        server.expect(requestTo(PULLS_URL + 3))
+                .andRespond(withSuccess(page(201, 40, "2023-04-01T00:00:00Z"), MediaType.APPLICATION_JSON));
+
+        List<Change> changes = adapter.fetchChanges(REPO_URL, SINCE);
+
+        assertThat(changes).hasSize(240);
+        assertThat(changes).extracting(Change::id)
+                .containsExactlyElementsOf(IntStream.rangeClosed(1, 240).mapToObj(n -> "owner/repo/pr/" + n).toList());
+        server.verify();
+    }
+
+    @Test
+    void fetchChanges_shouldRecordEveryRequest_byEndpointStatusPageAndSize() {
+        server.expect(requestTo(PULLS_URL + 1))
+                .andRespond(withSuccess(page(1, 100, "2023-06-01T00:00:00Z"), MediaType.APPLICATION_JSON)
+                        .headers(linkHeader(2)));
+        server.expect(requestTo(PULLS_URL + 2))
+                .andRespond(withSuccess(page(101, 10, "2023-05-01T00:00:00Z"), MediaType.APPLICATION_JSON));
+
+        adapter.fetchChanges(REPO_URL, SINCE);
+
+        Timer requests = meterRegistry.get("dora.github.requests")
+                .tags("api", "rest", "endpoint", "/repos/{owner}/{repo}/pulls", "status", "200").timer();
+        assertThat(requests.count()).isEqualTo(2);
+        assertThat(meterRegistry.get("dora.github.request.page").summary().max()).isEqualTo(2);
+        assertThat(meterRegistry.get("dora.github.response.size").summary().totalAmount())
+                .isEqualTo(page(1, 100, "2023-06-01T00:00:00Z").length() + page(101, 10, "2023-05-01T00:00:00Z").length());
+    }
+
+    @Test
+    void fetchChanges_shouldRecordEveryAttempt_whenARateLimitedRequestIsRetried() {
+        HttpHeaders retryNow = new HttpHeaders();
+        retryNow.set(HttpHeaders.RETRY_AFTER, "0");
+        server.expect(requestTo(PULLS_URL + 1))
+                .andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS).headers(retryNow));
+        server.expect(requestTo(PULLS_URL + 1))
+                .andRespond(withSuccess(page(1, 10, "2023-06-01T00:00:00Z"), MediaType.APPLICATION_JSON));
+
+        assertThat(adapter.fetchChanges(REPO_URL, SINCE)).hasSize(10);
+
+        server.verify();
+        assertThat(meterRegistry.get("dora.github.requests").timers())
+                .extracting(timer -> timer.getId().getTag("status"), Timer::count)
+                .containsExactlyInAnyOrder(tuple("429", 1L), tuple("200", 1L));
+    }
+
+    @Test
+    void fetchChanges_shouldStopAtMaxPages_evenIfLinkPointsFurther() {
+        properties.setMaxPullRequestPages(2);
+
+        server.expect(requestTo(PULLS_URL + 1))
+                .andRespond(withSuccess(page(1, 100, "2023-06-01T00:00:00Z"), MediaType.APPLICATION_JSON)
+                        .headers(linkHeader(50)));
+        server.expect(requestTo(PULLS_URL + 2))
+                .andRespond(withSuccess(page(101, 100, "2023-05-01T00:00:00Z"), MediaType.APPLICATION_JSON));
+
+        List<Change> changes = adapter.fetchChanges(REPO_URL, SINCE);
+
+        assertThat(changes).hasSize(200);
+        server.verify();
+    }
+
+    @Test
+    void fetchChanges_shouldStopOnceResultsCrossSince_andIgnorePrefetchedPages() {
+        server.expect(requestTo(PULLS_URL + 1))
+                .andRespond(withSuccess(page(1, 100, "2023-06-01T00:00:00Z"), MediaType.APPLICATION_JSON)
+                        .headers(linkHeader(4)));
+        // Last PR of page 2 was merged before 'since'
+        server.expect(requestTo(PULLS_URL + 2))
+                .andRespond(withSuccess(page(101, 100, "2022-12-01T00:00:00Z"), MediaType.APPLICATION_JSON));
+        // Already in flight when page 2 is processed, but must not contribute
+        server.expect(ExpectedCount.between(0, 1), requestTo(PULLS_URL + 3))
+                .andRespond(withSuccess(page(201, 100, "2023-06-01T00:00:00Z"), MediaType.APPLICATION_JSON));
+        server.expect(ExpectedCount.between(0, 1), requestTo(PULLS_URL + 4))
+                .andRespond(withSuccess(page(301, 100, "2023-06-01T00:00:00Z"), MediaType.APPLICATION_JSON));
+
+        List<Change> changes = adapter.fetchChanges(REPO_URL, SINCE);
+
+        // Page 2 contributes everything except its last PR, which is older than 'since'
+        assertThat(changes).hasSize(199);
+        assertThat(changes).extracting(Change::id).doesNotContain("owner/repo/pr/200", "owner/repo/pr/201", "owner/repo/pr/301");
+    }
+
+    @Test
+    void fetchChanges_shouldDeduplicatePullRequestsThatShiftBetweenPages() {
+        // PR 100 slid from the end of page 1 to the start of page 2 while we were paginating
+        server.expect(requestTo(PULLS_URL + 1))
+                .andRespond(withSuccess(page(1, 100, "2023-06-01T00:00:00Z"), MediaType.APPLICATION_JSON)
+                        .headers(linkHeader(2)));
+        server.expect(requestTo(PULLS_URL + 2))
+                .andRespond(withSuccess(page(100, 50, "2023-05-01T00:00:00Z"), MediaType.APPLICATION_JSON));
+
+        List<Change> changes = adapter.fetchChanges(REPO_URL, SINCE);
+
+        assertThat(changes).hasSize(149);
+        assertThat(changes).extracting(Change::id).doesNotHaveDuplicates();
+        server.verify();
+    }
+
+    @Test
+    void fetchChanges_shouldKeepPagingWithoutLinkHeader_whilePagesAreFull() {
+        server.expect(requestTo(PULLS_URL + 1))
+                .andRespond(withSuccess(page(1, 100, "2023-06-01T00:00:00Z"), MediaType.APPLICATION_JSON));
+        server.expect(requestTo(PULLS_URL + 2))
+                .andRespond(withSuccess(page(101, 10, "2023-05-01T00:00:00Z"), MediaType.APPLICATION_JSON));
+
+        List<Change> changes = adapter.fetchChanges(REPO_URL, SINCE);
+
+        assertThat(changes).hasSize(110);
+        server.verify();
+    }
+
+    @Test
+    void streamChanges_shouldOnlyRequestPagesAsTheyAreConsumed() {
+        properties.setPageWindow(1);
+
+        server.expect(requestTo(PULLS_URL + 1))
+                .andRespond(withSuccess(page(1, 100, "2023-06-01T00:00:00Z"), MediaType.APPLICATION_JSON));
+        // Prefetched while the first page is handed out, never read
+        server.expect(ExpectedCount.between(0, 1), requestTo(PULLS_URL + 2))
+                .andRespond(withSuccess(page(101, 100, "2023-05-01T00:00:00Z"), MediaType.APPLICATION_JSON));
+
+        List<Change> firstPage;
+        try (Stream<List<Change>> pages = adapter.streamChanges(REPO_URL, SINCE)) {
+            firstPage = pages.findFirst().orElseThrow();
+        }
+
+        assertThat(firstPage).hasSize(100);
+        server.verify();
+    }
+
+    private static HttpHeaders linkHeader(int lastPage) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.LINK,
+                "<" + PULLS_URL + "2>; rel=\"next\", <" + PULLS_URL + lastPage + ">; rel=\"last\"");
+        return headers;
+    }
+
+    /**
+     * A page of merged PRs numbered from {@code firstNumber}; the last one is merged at {@code lastMergedAt}.
+     */
+    private static String page(int firstNumber, int size, String lastMergedAt) {
+        StringJoiner json = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < size; i++) {
+            int number = firstNumber + i;
+            String mergedAt = i == size - 1 ? lastMergedAt : "2023-07-01T00:00:00Z";
+            json.add("""
+                {"id": %d, "number": %d, "merge_commit_sha": "sha%d", "created_at": "2022-11-01T00:00:00Z",
+                 "merged_at": "%s", "user": {"login": "dev"}}
+                """.formatted(1000 + number, number, number, mergedAt));
+        }
+        return json.toString();
+    }
+}
@@ -2,10 +2,12 @@ package com.gemini.dorametricsviewer.infrastructure.github;
 
 import com.gemini.dorametricsviewer.domain.model.Change;
 import com.gemini.dorametricsviewer.domain.model.Deployment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.client.RestClientTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.client.MockRestServiceServer;
@@ -16,12 +18,14 @@ import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
 @RestClientTest(GitHubAdapter.class)
-@Import(GitHubProperties.class)
+@Import({GitHubProperties.class, GitHubRateLimiter.class, GitHubRequestMetrics.class, SimpleMeterRegistry.class})
 class GitHubAdapterTest {
 
     @Autowired
@@ -164,4 +168,60 @@ class GitHubAdapterTest {
         assertThat(changes).hasSize(1);
         assertThat(changes.get(0).id()).isEqualTo("owner/repo/pr/11");
     }
+
+    @Test
+    void listRepositories_shouldReturnTheOrganizationsActiveRepositories() {
+        String responseJson = """
+            [
+                { "id": 1, "name": "api", "html_url": "https://github.com/owner/api", "archived": false, "owner": { "login": "owner" } },
+                { "id": 2, "name": "legacy", "html_url": "https://github.com/owner/legacy", "archived": true },
+                { "id": 3, "name": "web", "html_url": "https://github.com/owner/web", "archived": false }
+            ]
+            """;
+
+        server.expect(requestTo("https://api.github.com/orgs/owner/repos?per_page=100&page=1"))
+                .andRespond(withSuccess(responseJson, MediaType.APPLICATION_JSON));
+
+        assertThat(adapter.listRepositories("owner"))
+                .containsExactly("https://github.com/owner/api", "https://github.com/owner/web");
+    }
+
+    // -------------------------------------------------------------------------
+    // Conditional-request cache
+    // -------------------------------------------------------------------------
+
+    @Test
+    void fetchDeployments_shouldServeNotModifiedResponsesFromCache() {
+        String repoUrl = "https://github.com/owner/cached";
+        String responseJson = """
+            [
+                {
+                    "id": 7,
+                    "tag_name": "v2.0.0",
+                    "target_commitish": "sha7",
+                    "created_at": "2023-10-01T10:00:00Z",
+                    "published_at": "2023-10-01T12:00:00Z"
+                }
+            ]
+            """;
+        HttpHeaders validators = new HttpHeaders();
+        validators.setETag("\"abc123\"");
+
+        server.expect(requestTo("https://api.github.com/repos/owner/cached/releases"))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess(responseJson, MediaType.APPLICATION_JSON).headers(validators));
+        server.expect(requestTo("https://api.github.com/repos/owner/cached/releases"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"abc123\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        GitHubResponseCache.Stats before = adapter.responseCacheStats();
+        List<Deployment> first = adapter.fetchDeployments(repoUrl, Instant.parse("2023-01-01T00:00:00Z"));
+        List<Deployment> second = adapter.fetchDeployments(repoUrl, Instant.parse("2023-01-01T00:00:00Z"));
+        GitHubResponseCache.Stats after = adapter.responseCacheStats();
+
+        assertThat(second).isEqualTo(first).hasSize(1);
+        assertThat(after.hits() - before.hits()).isEqualTo(1);
+        assertThat(after.misses() - before.misses()).isEqualTo(1);
+        server.verify();
+    }
 }
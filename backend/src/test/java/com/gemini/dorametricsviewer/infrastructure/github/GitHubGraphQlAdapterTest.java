@@ -0,0 +1,184 @@
+package com.gemini.dorametricsviewer.infrastructure.github;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gemini.dorametricsviewer.domain.model.Change;
+import com.gemini.dorametricsviewer.domain.model.Deployment;
+import com.gemini.dorametricsviewer.domain.port.SourceControlPort;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the adapter against a local HTTP server that replays the recorded responses in {@code /graphql}.
+ */
+class GitHubGraphQlAdapterTest {
+
+    private static final String REPO_URL = "https://github.com/owner/repo";
+    private static final Instant SINCE = Instant.parse("2023-01-01T00:00:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<JsonNode> requests = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private GitHubProperties properties;
+    private GitHubGraphQlAdapter adapter;
+    private volatile long responseDelayMillis;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/graphql", this::replay);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+
+        properties = new GitHubProperties();
+        properties.setBaseUrl("http://localhost:" + server.getAddress().getPort());
+        properties.setToken("test-token");
+        adapter = new GitHubGraphQlAdapter(properties, RestClient.builder(), new GitHubRateLimiter(properties),
+                new GitHubRequestMetrics(new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void fetchChanges_shouldFollowCursorUntilPageEndsBeforeSince() {
+        List<Change> changes = adapter.fetchChanges(REPO_URL, SINCE);
+
+        assertThat(changes).containsExactly(
+                new Change("owner/repo/pr/303", REPO_URL, "c0ffee303",
+                        Instant.parse("2023-06-01T08:00:00Z"), Instant.parse("2023-06-02T09:00:00Z"), "octocat"),
+                new Change("owner/repo/pr/301", REPO_URL, null,
+                        Instant.parse("2023-05-20T08:00:00Z"), Instant.parse("2023-05-21T09:00:00Z"), "unknown"),
+                new Change("owner/repo/pr/300", REPO_URL, "c0ffee300",
+                        Instant.parse("2023-01-10T08:00:00Z"), Instant.parse("2023-01-11T09:00:00Z"), "octocat"));
+        // The second page ends with a PR last updated before 'since', so its cursor is not followed
+        assertThat(requests).hasSize(2);
+        JsonNode second = requests.get(1).path("variables");
+        assertThat(second.path("pullsAfter").asText()).isEqualTo("Y3Vyc29yOnYyOpK5MjAyMy0wNi0wMVQwMDowMDowMFo=");
+        assertThat(second.path("pulls").asBoolean()).isTrue();
+        assertThat(second.path("releases").asBoolean()).isFalse();
+    }
+
+    @Test
+    void fetchChanges_shouldStopAtMaxPages() {
+        properties.setMaxPullRequestPages(1);
+
+        List<Change> changes = adapter.fetchChanges(REPO_URL, SINCE);
+
+        assertThat(changes).extracting(Change::id).containsExactly("owner/repo/pr/303", "owner/repo/pr/301");
+        assertThat(requests).hasSize(1);
+    }
+
+    @Test
+    void fetchDeployments_shouldMapReleasesPublishedAfterSince() {
+        List<Deployment> deployments = adapter.fetchDeployments(REPO_URL, SINCE);
+
+        assertThat(deployments).containsExactly(new Deployment("owner/repo/release/9002", REPO_URL, "c0ffee303",
+                Instant.parse("2023-06-02T12:00:00Z"), Instant.parse("2023-06-02T13:00:00Z"),
+                "production", "SUCCESS", "Fixes #303"));
+        JsonNode variables = requests.get(0).path("variables");
+        assertThat(variables.path("owner").asText()).isEqualTo("owner");
+        assertThat(variables.path("name").asText()).isEqualTo("repo");
+    }
+
+    @Test
+    void fetchDeployments_shouldFollowCursor_whileDraftsCreatedBeforeSinceWerePublishedAfterIt() {
+        List<Deployment> deployments = adapter.fetchDeployments("https://github.com/owner/drafts", SINCE);
+
+        assertThat(deployments).extracting(Deployment::id)
+                .containsExactly("owner/drafts/release/9102", "owner/drafts/release/9101");
+        // Both pages end with a release created before 'since' yet hold one published after it; the third
+        // page has none, so its cursor is not followed
+        assertThat(requests).extracting(request -> request.path("variables").path("releasesAfter").asText(null))
+                .containsExactly(null, "Y3Vyc29yOnYyOpK0djEuMy4w", "Y3Vyc29yOnYyOpK0djEuMi4w");
+        JsonNode second = requests.get(1).path("variables");
+        assertThat(second.path("releases").asBoolean()).isTrue();
+        assertThat(second.path("pulls").asBoolean()).isFalse();
+    }
+
+    @Test
+    void concurrentFetches_shouldShareTheFirstRoundTrip() throws Exception {
+        responseDelayMillis = 300;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<List<Change>> changes = CompletableFuture.supplyAsync(() -> adapter.fetchChanges(REPO_URL, SINCE), executor);
+            CompletableFuture<List<Deployment>> deployments = CompletableFuture.supplyAsync(() -> adapter.fetchDeployments(REPO_URL, SINCE), executor);
+
+            assertThat(changes.get()).hasSize(3);
+            assertThat(deployments.get()).hasSize(1);
+        }
+        // One request for the first page of both connections, one for the second page of pull requests
+        assertThat(requests).hasSize(2);
+    }
+
+    @Test
+    void fetchChanges_shouldThrow_whenQueryReportsErrors() {
+        assertThatThrownBy(() -> adapter.fetchChanges("https://github.com/owner/missing", SINCE))
+                .isInstanceOf(RestClientException.class)
+                .hasMessageContaining("Could not resolve to a Repository");
+    }
+
+    @Test
+    void apiProperty_shouldSelectTheSourceControlAdapter() {
+        ApplicationContextRunner runner = new ApplicationContextRunner()
+                .withBean(RestClient.Builder.class, RestClient::builder)
+                .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .withUserConfiguration(GitHubProperties.class, GitHubRateLimiter.class, GitHubRequestMetrics.class,
+                        GitHubAdapter.class, GitHubGraphQlAdapter.class);
+
+        runner.run(context -> assertThat(context).getBean(SourceControlPort.class).isInstanceOf(GitHubAdapter.class));
+        runner.withPropertyValues("dora.github.api=graphql")
+                .run(context -> assertThat(context).getBean(SourceControlPort.class).isInstanceOf(GitHubGraphQlAdapter.class));
+    }
+
+    private void replay(HttpExchange exchange) throws IOException {
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        requests.add(request);
+        JsonNode variables = request.path("variables");
+        String recording = variables.path("name").asText().equals("missing") ? "not-found.json"
+                : variables.path("releasesAfter").asText().equals("Y3Vyc29yOnYyOpK0djEuMy4w") ? "releases-second-page.json"
+                : variables.path("releasesAfter").isTextual() ? "releases-third-page.json"
+                : variables.path("name").asText().equals("drafts") ? "releases-first-page.json"
+                : variables.path("pullsAfter").isTextual() ? "pulls-second-page.json"
+                : "scan-first-page.json";
+
+        try {
+            Thread.sleep(responseDelayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body;
+        try (InputStream in = GitHubGraphQlAdapterTest.class.getResourceAsStream("/graphql/" + recording)) {
+            body = in.readAllBytes();
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
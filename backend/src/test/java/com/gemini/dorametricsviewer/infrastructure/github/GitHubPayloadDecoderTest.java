@@ -0,0 +1,97 @@
+package com.gemini.dorametricsviewer.infrastructure.github;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.gemini.dorametricsviewer.domain.model.Change;
+import com.gemini.dorametricsviewer.domain.model.Deployment;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GitHubPayloadDecoderTest {
+
+    private static final String REPO_URL = "https://github.com/microsoft/vscode";
+    private static final String REPO_PATH = "microsoft/vscode";
+    private static final Instant SINCE = Instant.parse("2000-01-01T00:00:00Z");
+
+    private final GitHubPayloadDecoder decoder = new GitHubPayloadDecoder();
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Test
+    void readPullRequests_shouldMatchDatabind_onCapturedPayload() throws IOException {
+        List<GitHubPullRequestDTO> prs;
+        try (InputStream in = fixture("changes.json")) {
+            prs = objectMapper.readValue(in, new TypeReference<>() {});
+        }
+        List<Change> expected = prs.stream()
+                .filter(pr -> pr.mergedAt() != null)
+                .map(pr -> new Change(REPO_PATH + "/pr/" + pr.number(), REPO_URL, pr.mergeCommitSha(),
+                        pr.createdAt(), pr.mergedAt(), pr.user() != null ? pr.user().login() : "unknown"))
+                .toList();
+
+        GitHubPayloadDecoder.PullRequestPage page;
+        try (InputStream in = fixture("changes.json")) {
+            page = decoder.readPullRequests(in, REPO_PATH, REPO_URL, SINCE);
+        }
+
+        assertThat(page.changes()).isNotEmpty().containsExactlyElementsOf(expected);
+        assertThat(page.pullRequests()).isEqualTo(prs.size());
+        assertThat(page.lastMergedAt()).isEqualTo(prs.get(prs.size() - 1).mergedAt());
+    }
+
+    @Test
+    void readReleases_shouldMatchDatabind_onCapturedPayload() throws IOException {
+        List<GitHubReleaseDTO> releases;
+        try (InputStream in = fixture("deployments.json")) {
+            releases = objectMapper.readValue(in, new TypeReference<>() {});
+        }
+        List<Deployment> expected = releases.stream()
+                .filter(r -> r.publishedAt() != null)
+                .map(r -> new Deployment(REPO_PATH + "/release/" + r.id(), REPO_URL, r.targetCommitish(),
+                        r.createdAt(), r.publishedAt(), "production", "SUCCESS", r.body()))
+                .toList();
+
+        List<Deployment> deployments;
+        try (InputStream in = fixture("deployments.json")) {
+            deployments = decoder.readReleases(in, REPO_PATH, REPO_URL, SINCE);
+        }
+
+        assertThat(deployments).isNotEmpty().containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void readPullRequests_shouldSkipUnknownSubtrees_andToleratePartialRecords() throws IOException {
+        String json = """
+            [
+              {"number": 1, "head": {"repo": {"topics": ["a", {"b": [1, 2]}]}}, "labels": [],
+               "merged_at": "2023-06-01T00:00:00Z", "created_at": "2023-05-01T00:00:00Z", "user": null},
+              {"number": 2, "merged_at": "2022-06-01T00:00:00Z", "user": {"login": "old", "id": 7}},
+              {"number": 3, "merged_at": null}
+            ]
+            """;
+
+        GitHubPayloadDecoder.PullRequestPage page = decoder.readPullRequests(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), "o/r", "https://github.com/o/r",
+                Instant.parse("2023-01-01T00:00:00Z"));
+
+        assertThat(page.changes()).containsExactly(new Change("o/r/pr/1", "https://github.com/o/r", null,
+                Instant.parse("2023-05-01T00:00:00Z"), Instant.parse("2023-06-01T00:00:00Z"), "unknown"));
+        assertThat(page.pullRequests()).isEqualTo(3);
+        assertThat(page.lastMergedAt()).isNull();
+    }
+
+    private static InputStream fixture(String name) {
+        return GitHubPayloadDecoderTest.class.getResourceAsStream("/datasets/vscode/" + name);
+    }
+}
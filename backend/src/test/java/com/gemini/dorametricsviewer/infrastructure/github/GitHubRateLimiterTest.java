@@ -0,0 +1,283 @@
+package com.gemini.dorametricsviewer.infrastructure.github;
+
+import com.gemini.dorametricsviewer.application.CachingDoraMetricsService;
+import com.gemini.dorametricsviewer.application.DoraMetricsResult;
+import com.gemini.dorametricsviewer.application.ScanJobService;
+import com.gemini.dorametricsviewer.application.ScanPriority;
+import com.gemini.dorametricsviewer.domain.TimeWindow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GitHubRateLimiterTest {
+
+    private static final byte[] NO_BODY = new byte[0];
+
+    private GitHubProperties properties;
+    private GitHubRateLimiter rateLimiter;
+    private final List<Instant> sent = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        properties = new GitHubProperties();
+        rateLimiter = new GitHubRateLimiter(properties);
+    }
+
+    @Test
+    void shouldWaitForResetOnceBudgetIsSpent_insteadOfSending() throws IOException {
+        Instant reset = Instant.ofEpochSecond(Instant.now().getEpochSecond() + 2);
+        ClientHttpRequestExecution execution = respond(n -> limitHeaders(ok(), 0, reset));
+
+        call(execution);
+        call(execution);
+
+        assertThat(sent).hasSize(2);
+        assertThat(sent.get(1)).isAfterOrEqualTo(reset);
+    }
+
+    @Test
+    void shouldRetryAfterRetryAfter_whenRateLimited() throws IOException {
+        ClientHttpRequestExecution execution = respond(n -> {
+            if (n > 0) {
+                return ok();
+            }
+            MockClientHttpResponse limited = new MockClientHttpResponse(NO_BODY, HttpStatus.TOO_MANY_REQUESTS);
+            limited.getHeaders().set("Retry-After", "1");
+            return limited;
+        });
+
+        ClientHttpResponse response = call(execution);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(sent).hasSize(2);
+        assertThat(Duration.between(sent.get(0), sent.get(1))).isGreaterThanOrEqualTo(Duration.ofMillis(900));
+    }
+
+    @Test
+    void shouldNeverSendMoreThanTheRemainingBudgetBeforeReset() throws Exception {
+        Instant reset = Instant.ofEpochSecond(Instant.now().getEpochSecond() + 2);
+        ClientHttpRequestExecution execution = respond(n -> limitHeaders(ok(), Math.max(0, 2 - n), reset));
+        call(execution);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<ClientHttpResponse>> calls = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                calls.add(executor.submit(() -> call(execution)));
+            }
+            for (Future<ClientHttpResponse> result : calls) {
+                result.get();
+            }
+        }
+
+        assertThat(sent).hasSize(6);
+        // The first response left two requests in the window; the rest waited for the reset
+        assertThat(sent.stream().filter(at -> at.isBefore(reset))).hasSizeLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void shouldServeInteractiveScansBeforeBackgroundRefreshes_whenQueued() throws Exception {
+        properties.getRateLimit().setMaxAttempts(1);
+        List<ScanPriority> order = new CopyOnWriteArrayList<>();
+        ClientHttpRequestExecution execution = respond(n -> {
+            if (n > 0) {
+                return ok();
+            }
+            MockClientHttpResponse limited = new MockClientHttpResponse(NO_BODY, HttpStatus.TOO_MANY_REQUESTS);
+            limited.getHeaders().set("Retry-After", "1");
+            return limited;
+        });
+        ClientHttpRequestExecution recording = (request, body) -> {
+            order.add(ScanPriority.current());
+            return execution.execute(request, body);
+        };
+        // Rate limited: the budget is paused for a second
+        call(recording);
+        order.clear();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> background = executor.submit(() -> ScanPriority.BACKGROUND.call(() -> call(recording)));
+            Thread.sleep(200);
+            Future<?> interactive = executor.submit(() -> call(recording));
+            background.get();
+            interactive.get();
+        }
+
+        assertThat(order).containsExactly(ScanPriority.INTERACTIVE, ScanPriority.BACKGROUND);
+    }
+
+    @Test
+    void shouldServeInteractiveScansBeforeScanJobs_whenQueued() throws Exception {
+        properties.getRateLimit().setMaxAttempts(1);
+        List<ScanPriority> order = new CopyOnWriteArrayList<>();
+        ClientHttpRequestExecution execution = respond(n -> {
+            if (n > 0) {
+                return ok();
+            }
+            MockClientHttpResponse limited = new MockClientHttpResponse(NO_BODY, HttpStatus.TOO_MANY_REQUESTS);
+            limited.getHeaders().set("Retry-After", "1");
+            return limited;
+        });
+        ClientHttpRequestExecution recording = (request, body) -> {
+            order.add(ScanPriority.current());
+            return execution.execute(request, body);
+        };
+        CachingDoraMetricsService scans = mock(CachingDoraMetricsService.class);
+        when(scans.calculateMetrics(any(), any(), any())).thenAnswer(invocation -> {
+            call(recording);
+            return new DoraMetricsResult(Duration.ZERO, 0, 0, Duration.ZERO);
+        });
+        call(recording);
+        order.clear();
+
+        try (ScanJobService jobs = new ScanJobService(scans, 1, 1, Duration.ofHours(1));
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CountDownLatch done = new CountDownLatch(1);
+            jobs.submit("https://github.com/o/r", new TimeWindow(Instant.EPOCH, Instant.now())).subscribe(snapshot -> {
+                if (snapshot.status().isDone()) {
+                    done.countDown();
+                }
+            });
+            Thread.sleep(200);
+            executor.submit(() -> call(recording)).get();
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(order).containsExactly(ScanPriority.INTERACTIVE, ScanPriority.BACKGROUND);
+    }
+
+    @Test
+    void shouldWaitForResetAndResend_whenGraphQlAnswersRateLimitedInTheBody() throws IOException {
+        Instant reset = Instant.ofEpochSecond(Instant.now().getEpochSecond() + 2);
+        ClientHttpRequestExecution execution = respond(n -> n > 0 ? ok() : limitHeaders(new MockClientHttpResponse(
+                "{\"errors\":[{\"type\":\"RATE_LIMITED\",\"message\":\"API rate limit exceeded\"}]}".getBytes(),
+                HttpStatus.OK), 0, reset));
+
+        ClientHttpResponse response = rateLimiter.intercept(
+                new MockClientHttpRequest(HttpMethod.POST, URI.create("https://api.github.com/graphql")), NO_BODY, execution);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(sent).hasSize(2);
+        assertThat(sent.get(1)).isAfterOrEqualTo(reset);
+        assertThat(rateLimiter.stats()).extracting(GitHubRateLimiter.TokenStats::rateLimited).containsExactly(1L);
+    }
+
+    @Test
+    void reportsRateLimited_shouldOnlyLookAtTopLevelErrors() {
+        assertThat(GitHubRateLimiter.reportsRateLimited("""
+                {"data":{"repository":{"releases":{"nodes":[{"description":"{\"type\":\"RATE_LIMITED\"}"}]}}}}
+                """.getBytes())).isFalse();
+        assertThat(GitHubRateLimiter.reportsRateLimited("""
+                {"data":null,"errors":[{"type":"NOT_FOUND","path":["repository"]},{"message":"x","type":"RATE_LIMITED"}]}
+                """.getBytes())).isTrue();
+        assertThat(GitHubRateLimiter.reportsRateLimited("not json".getBytes())).isFalse();
+    }
+
+    @Test
+    void shouldSendEachRequestWithTheTokenThatHasTheMostBudgetLeft() {
+        properties.setToken("token-aaaa");
+        properties.setTokens(List.of("token-bbbb", "token-aaaa", " "));
+        rateLimiter = new GitHubRateLimiter(properties);
+        Instant reset = Instant.now().plus(Duration.ofHours(1));
+        List<String> used = new CopyOnWriteArrayList<>();
+        ClientHttpRequestExecution execution = (request, body) -> {
+            String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            used.add(authorization);
+            return limitHeaders(ok(), authorization.endsWith("aaaa") ? 10 : 100, reset);
+        };
+
+        for (int i = 0; i < 3; i++) {
+            call(execution);
+        }
+
+        // Neither budget is known for the first call; after it, the second token reports more left
+        assertThat(used).containsExactly("Bearer token-aaaa", "Bearer token-bbbb", "Bearer token-bbbb");
+    }
+
+    @Test
+    void shouldLeaveOutARateLimitedToken_untilItsReset() throws IOException {
+        properties.setTokens(List.of("token-aaaa", "token-bbbb"));
+        rateLimiter = new GitHubRateLimiter(properties);
+        List<String> used = new CopyOnWriteArrayList<>();
+        ClientHttpRequestExecution execution = (request, body) -> {
+            String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            used.add(authorization);
+            if (authorization.endsWith("bbbb")) {
+                return ok();
+            }
+            MockClientHttpResponse limited = new MockClientHttpResponse(NO_BODY, HttpStatus.TOO_MANY_REQUESTS);
+            limited.getHeaders().set("Retry-After", "60");
+            return limited;
+        };
+
+        assertThat(call(execution).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(call(execution).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        // The limited request was sent again straight away with the other token
+        assertThat(used).containsExactly("Bearer token-aaaa", "Bearer token-bbbb", "Bearer token-bbbb");
+        assertThat(rateLimiter.stats())
+                .extracting(GitHubRateLimiter.TokenStats::token, GitHubRateLimiter.TokenStats::requests,
+                        GitHubRateLimiter.TokenStats::rateLimited, GitHubRateLimiter.TokenStats::ejected)
+                .containsExactly(tuple("...aaaa", 1L, 1L, true), tuple("...bbbb", 2L, 0L, false));
+    }
+
+    private ClientHttpResponse call(ClientHttpRequestExecution execution) {
+        try {
+            return rateLimiter.intercept(new MockClientHttpRequest(HttpMethod.GET, URI.create("https://api.github.com/repos/o/r/pulls")),
+                    NO_BODY, execution);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Records when each request goes out and answers the n-th one (from 0) with {@code responses}.
+     */
+    private ClientHttpRequestExecution respond(Function<Integer, ClientHttpResponse> responses) {
+        return (request, body) -> {
+            int n;
+            synchronized (sent) {
+                n = sent.size();
+                sent.add(Instant.now());
+            }
+            return responses.apply(n);
+        };
+    }
+
+    private static MockClientHttpResponse ok() {
+        return new MockClientHttpResponse(NO_BODY, HttpStatus.OK);
+    }
+
+    private static ClientHttpResponse limitHeaders(MockClientHttpResponse response, int remaining, Instant reset) {
+        response.getHeaders().set("X-RateLimit-Limit", "5000");
+        response.getHeaders().set("X-RateLimit-Remaining", String.valueOf(remaining));
+        response.getHeaders().set("X-RateLimit-Reset", String.valueOf(reset.getEpochSecond()));
+        return response;
+    }
+}
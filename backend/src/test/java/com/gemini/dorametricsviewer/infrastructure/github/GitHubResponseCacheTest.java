@@ -0,0 +1,190 @@
+package com.gemini.dorametricsviewer.infrastructure.github;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GitHubResponseCacheTest {
+
+    private static final ClientHttpRequestExecution ETAGGED_OK = (request, body) -> {
+        MockClientHttpResponse response = new MockClientHttpResponse("0123456789".getBytes(), HttpStatus.OK);
+        response.getHeaders().setETag("\"" + request.getURI().getPath().hashCode() + "\"");
+        return response;
+    };
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntries_whenEntryCountExceeded() throws IOException {
+        GitHubResponseCache cache = new GitHubResponseCache(2, 1024);
+
+        get(cache, "/a", ETAGGED_OK);
+        get(cache, "/b", ETAGGED_OK);
+        get(cache, "/c", ETAGGED_OK);
+
+        assertThat(cache.stats().entries()).isEqualTo(2);
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+        assertThat(cache.stats().bytes()).isEqualTo(20);
+    }
+
+    @Test
+    void shouldEvictEntries_whenTotalBytesExceeded() throws IOException {
+        GitHubResponseCache cache = new GitHubResponseCache(100, 25);
+
+        get(cache, "/a", ETAGGED_OK);
+        get(cache, "/b", ETAGGED_OK);
+        get(cache, "/c", ETAGGED_OK);
+
+        assertThat(cache.stats().entries()).isEqualTo(2);
+        assertThat(cache.stats().bytes()).isLessThanOrEqualTo(25);
+    }
+
+    @Test
+    void shouldNotCacheResponsesWithoutValidators() throws IOException {
+        GitHubResponseCache cache = new GitHubResponseCache(10, 1024);
+
+        get(cache, "/plain", (request, body) -> new MockClientHttpResponse("{}".getBytes(), HttpStatus.OK));
+
+        assertThat(cache.stats().entries()).isZero();
+        assertThat(cache.stats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldSendIfModifiedSince_whenOnlyLastModifiedIsKnown() throws IOException {
+        GitHubResponseCache cache = new GitHubResponseCache(10, 1024);
+        String lastModified = "Wed, 21 Oct 2015 07:28:00 GMT";
+
+        get(cache, "/dated", (request, body) -> {
+            MockClientHttpResponse response = new MockClientHttpResponse("[]".getBytes(), HttpStatus.OK);
+            response.getHeaders().set(HttpHeaders.LAST_MODIFIED, lastModified);
+            return response;
+        });
+        ClientHttpResponse cached = get(cache, "/dated", (request, body) -> {
+            assertThat(request.getHeaders().getFirst(HttpHeaders.IF_MODIFIED_SINCE)).isEqualTo(lastModified);
+            return new MockClientHttpResponse(new byte[0], HttpStatus.NOT_MODIFIED);
+        });
+
+        assertThat(cached.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(cached.getBody().readAllBytes()).isEqualTo("[]".getBytes());
+        assertThat(cache.stats().hits()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRevalidateStoredEntries_afterRestart(@TempDir Path directory) throws IOException {
+        GitHubResponseCache before = new GitHubResponseCache(10, 1024, new GitHubResponseStore(directory));
+        get(before, "/stored", (request, body) -> {
+            MockClientHttpResponse response = new MockClientHttpResponse("[1]".getBytes(), HttpStatus.OK);
+            response.getHeaders().setETag("\"v1\"");
+            response.getHeaders().add(HttpHeaders.LINK, "<https://api.github.com/stored?page=2>; rel=\"next\"");
+            return response;
+        });
+
+        GitHubResponseCache after = new GitHubResponseCache(10, 1024, new GitHubResponseStore(directory));
+        ClientHttpResponse cached = get(after, "/stored", (request, body) -> {
+            assertThat(request.getHeaders().getIfNoneMatch()).containsExactly("\"v1\"");
+            return new MockClientHttpResponse(new byte[0], HttpStatus.NOT_MODIFIED);
+        });
+
+        assertThat(cached.getBody().readAllBytes()).isEqualTo("[1]".getBytes());
+        assertThat(cached.getHeaders().getFirst(HttpHeaders.LINK)).contains("rel=\"next\"");
+        assertThat(after.stats().hits()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDeleteEvictedEntriesFromDisk_andKeepBoundsOnLoad(@TempDir Path directory) throws IOException {
+        GitHubResponseCache cache = new GitHubResponseCache(2, 1024, new GitHubResponseStore(directory));
+
+        get(cache, "/a", ETAGGED_OK);
+        get(cache, "/b", ETAGGED_OK);
+        get(cache, "/c", ETAGGED_OK);
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).hasSize(2);
+        }
+        GitHubResponseCache smaller = new GitHubResponseCache(1, 1024, new GitHubResponseStore(directory));
+        assertThat(smaller.stats().entries()).isEqualTo(1);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).hasSize(1);
+        }
+    }
+
+    @Test
+    void shouldKeepTheFileOfAnEntryPutBack_whileAnotherThreadDeletesItsEvictedCopy(@TempDir Path directory) throws Exception {
+        CountDownLatch deleting = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        GitHubResponseStore store = new GitHubResponseStore(directory) {
+            @Override
+            void delete(String uri) {
+                if (uri.endsWith("/a") && deleting.getCount() > 0) {
+                    deleting.countDown();
+                    await(resume);
+                }
+                super.delete(uri);
+            }
+        };
+        GitHubResponseCache cache = new GitHubResponseCache(1, 1024, store);
+        get(cache, "/a", ETAGGED_OK);
+
+        // Evicts /a, then stalls before deleting its file
+        Thread evicting = Thread.ofVirtual().start(() -> getUnchecked(cache, "/b"));
+        assertThat(deleting.await(5, TimeUnit.SECONDS)).isTrue();
+        // Puts /a back meanwhile
+        Thread putBack = Thread.ofVirtual().start(() -> getUnchecked(cache, "/a"));
+        putBack.join(Duration.ofMillis(500));
+        resume.countDown();
+        evicting.join(Duration.ofSeconds(5));
+        putBack.join(Duration.ofSeconds(5));
+
+        assertThat(cache.stats().entries()).isEqualTo(1);
+        assertThat(new GitHubResponseStore(directory).load())
+                .extracting(GitHubResponseStore.Stored::uri)
+                .containsExactly("https://api.github.com/a");
+    }
+
+    @Test
+    void shouldSkipUnreadableFiles(@TempDir Path directory) throws IOException {
+        Files.write(directory.resolve("broken.entry"), new byte[] {0, 0, 0, 1, 0});
+
+        GitHubResponseCache cache = new GitHubResponseCache(10, 1024, new GitHubResponseStore(directory));
+
+        assertThat(cache.stats().entries()).isZero();
+        assertThat(directory.resolve("broken.entry")).doesNotExist();
+    }
+
+    private static void getUnchecked(GitHubResponseCache cache, String path) {
+        try {
+            get(cache, path, ETAGGED_OK);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ClientHttpResponse get(GitHubResponseCache cache, String path, ClientHttpRequestExecution execution) throws IOException {
+        MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET, URI.create("https://api.github.com" + path));
+        return cache.intercept(request, new byte[0], execution);
+    }
+}
@@ -0,0 +1,57 @@
+package com.gemini.dorametricsviewer.infrastructure.metrics;
+
+import com.gemini.dorametricsviewer.domain.DeploymentIndex;
+import com.gemini.dorametricsviewer.domain.ExactMatchStrategy;
+import com.gemini.dorametricsviewer.domain.LeadTimeCalculator;
+import com.gemini.dorametricsviewer.domain.MatchStrategy;
+import com.gemini.dorametricsviewer.domain.model.Change;
+import com.gemini.dorametricsviewer.domain.model.Deployment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MeteredMatchStrategyTest {
+
+    private static final String REPO_URL = "https://github.com/owner/repo";
+
+    @Test
+    void findDeployment_shouldCountAttemptsAndHits_underTheDelegatesName() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MeteredMatchStrategy strategy = new MeteredMatchStrategy(new ExactMatchStrategy(), registry);
+        Deployment deployment = new Deployment("d1", REPO_URL, "sha1", Instant.parse("2023-01-01T00:00:00Z"),
+                Instant.parse("2023-01-02T00:00:00Z"), "prod", "SUCCESS", null);
+        DeploymentIndex index = new DeploymentIndex(List.of(deployment));
+
+        assertThat(strategy.findDeployment(change("sha1"), index)).contains(deployment);
+        assertThat(strategy.findDeployment(change("sha2"), index)).isEmpty();
+        assertThat(strategy.findDeployment(change("sha1"), List.of(deployment))).contains(deployment);
+
+        assertThat(strategy.name()).isEqualTo("ExactMatchStrategy");
+        assertThat(registry.get("dora.match").tag("strategy", "ExactMatchStrategy").timer().count()).isEqualTo(3);
+        assertThat(registry.get("dora.match.hits").tag("strategy", "ExactMatchStrategy").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void leadTimeCalculator_shouldOnlyTryLaterStrategies_whenEarlierOnesMiss() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LeadTimeCalculator calculator = new LeadTimeCalculator(LeadTimeCalculator.defaultStrategies().stream()
+                .map(strategy -> (MatchStrategy) new MeteredMatchStrategy(strategy, registry))
+                .toList());
+        Deployment deployment = new Deployment("d1", REPO_URL, "sha1", Instant.parse("2023-01-01T00:00:00Z"),
+                Instant.parse("2023-01-02T00:00:00Z"), "prod", "SUCCESS", null);
+
+        calculator.calculate(List.of(change("sha1"), change("sha1")), List.of(deployment));
+
+        assertThat(registry.get("dora.match").tag("strategy", "ExactMatchStrategy").timer().count()).isEqualTo(2);
+        assertThat(registry.get("dora.match").tag("strategy", "ReleaseBodyStrategy").timer().count()).isZero();
+    }
+
+    private static Change change(String sha) {
+        return new Change("c-" + sha, REPO_URL, sha, Instant.parse("2022-12-31T00:00:00Z"),
+                Instant.parse("2022-12-31T12:00:00Z"), "dev");
+    }
+}
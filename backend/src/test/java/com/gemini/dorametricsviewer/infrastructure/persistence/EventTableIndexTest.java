@@ -0,0 +1,74 @@
+package com.gemini.dorametricsviewer.infrastructure.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks with H2's {@code EXPLAIN} that the repository + time range lookups issued by the Spring Data
+ * finders are served by the composite indexes declared on the entities rather than a table scan, and the
+ * change lookup by commit SHA by its own index.
+ */
+@DataJpaTest
+class EventTableIndexTest {
+
+    private static final long REPOSITORY_ID = 1L;
+    private static final Timestamp START = Timestamp.from(Instant.parse("2026-01-01T00:00:00Z"));
+    private static final Timestamp END = Timestamp.from(Instant.parse("2026-02-01T00:00:00Z"));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deploymentRangeQueries_shouldUseRepositoryDeployedAtIndex() {
+        assertUsesIndex("deployments", "deployed_at", "idx_deployments_repository_deployed_at");
+    }
+
+    @Test
+    void changeRangeQueries_shouldUseRepositoryMergedAtIndex() {
+        assertUsesIndex("changes", "merged_at", "idx_changes_repository_merged_at");
+    }
+
+    @Test
+    void changeCommitShaQueries_shouldUseCommitShaIndex() {
+        String plan = explain("SELECT * FROM changes WHERE repository_id = ? AND commit_sha IN (?, ?)",
+            REPOSITORY_ID, "sha1", "sha2");
+
+        assertThat(plan).containsPattern(Pattern.compile(
+            "idx_changes_commit_sha: COMMIT_SHA IN\\(\\?2, \\?3\\)", Pattern.CASE_INSENSITIVE));
+    }
+
+    @Test
+    void incidentRangeQueries_shouldUseRepositoryCreatedAtIndex() {
+        assertUsesIndex("incidents", "created_at", "idx_incidents_repository_created_at");
+    }
+
+    /**
+     * Both finder shapes ({@code ...After} and {@code ...Between}) must seek on the repository
+     * and the timestamp range, i.e. H2 reports both columns as index conditions.
+     */
+    private void assertUsesIndex(String table, String column, String index) {
+        Pattern rangeSeek = Pattern.compile(
+            index + ": REPOSITORY_ID = \\?1\\s+AND " + column + " >",
+            Pattern.CASE_INSENSITIVE);
+
+        String between = explain("SELECT * FROM " + table + " WHERE repository_id = ? AND " + column + " BETWEEN ? AND ?",
+            REPOSITORY_ID, START, END);
+        String after = explain("SELECT * FROM " + table + " WHERE repository_id = ? AND " + column + " > ?",
+            REPOSITORY_ID, START);
+
+        assertThat(between).containsPattern(rangeSeek);
+        assertThat(after).containsPattern(rangeSeek);
+    }
+
+    private String explain(String sql, Object... args) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, args);
+    }
+}
@@ -1,24 +1,37 @@
 package com.gemini.dorametricsviewer.infrastructure.persistence;
 
+import com.gemini.dorametricsviewer.application.EventsSavedEvent;
 import com.gemini.dorametricsviewer.domain.model.Change;
+import com.gemini.dorametricsviewer.domain.model.DailyRollup;
 import com.gemini.dorametricsviewer.domain.model.Deployment;
 import com.gemini.dorametricsviewer.domain.model.Incident;
+import com.gemini.dorametricsviewer.domain.model.SyncState;
 import com.gemini.dorametricsviewer.infrastructure.persistence.mapper.MetricsMapper;
 import com.gemini.dorametricsviewer.infrastructure.persistence.repository.SpringDataChangeRepository;
 import com.gemini.dorametricsviewer.infrastructure.persistence.repository.SpringDataDeploymentRepository;
 import com.gemini.dorametricsviewer.infrastructure.persistence.repository.SpringDataIncidentRepository;
+import com.gemini.dorametricsviewer.infrastructure.persistence.repository.SpringDataSyncStateRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DataJpaTest
-@Import({MetricsRepositoryAdapter.class, MetricsMapper.class})
+@RecordApplicationEvents
+@Import({MetricsRepositoryAdapter.class, MetricsMapper.class, EventBatchWriter.class, RepositoryKeys.class,
+    PersistenceProperties.class})
 class MetricsRepositoryAdapterTest {
 
     @Autowired
@@ -33,6 +46,15 @@ class MetricsRepositoryAdapterTest {
     @Autowired
     private SpringDataIncidentRepository incidentRepository;
 
+    @Autowired
+    private SpringDataSyncStateRepository syncStateRepository;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private static final String REPO_URL = "http://repo.com";
 
     // -------------------------------------------------------------------------
@@ -41,7 +63,8 @@ class MetricsRepositoryAdapterTest {
 
     @Test
     void shouldSaveAndRetrieveDeployments() {
-        Instant now = Instant.now();
+        // Columns keep microseconds; GitHub timestamps only carry seconds
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
         Deployment deployment = new Deployment(
             "d1", REPO_URL, "sha1",
             now.minusSeconds(3600), now,
@@ -57,7 +80,8 @@ class MetricsRepositoryAdapterTest {
 
     @Test
     void shouldSaveAndRetrieveChanges() {
-        Instant now = Instant.now();
+        // Columns keep microseconds; GitHub timestamps only carry seconds
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
         Change change = new Change(
             "c1", REPO_URL, "sha1",
             now.minusSeconds(7200), now.minusSeconds(3600),
@@ -73,7 +97,8 @@ class MetricsRepositoryAdapterTest {
 
     @Test
     void shouldSaveAndRetrieveIncidents() {
-        Instant now = Instant.now();
+        // Columns keep microseconds; GitHub timestamps only carry seconds
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
         Incident incident = new Incident(
             "i1", REPO_URL,
             now.minusSeconds(3600), now,
@@ -174,4 +199,168 @@ class MetricsRepositoryAdapterTest {
         assertThat(results).hasSize(1);
         assertThat(results.get(0).id()).isEqualTo("i-inside");
     }
+
+    // -------------------------------------------------------------------------
+    // Upserts — re-scans overwrite rows with the same id
+    // -------------------------------------------------------------------------
+
+    @Test
+    void shouldUpdateExistingRows_whenSavedAgain() {
+        Instant mergedAt = Instant.parse("2026-01-15T00:00:00Z");
+        Change original = new Change("c1", REPO_URL, "sha-old", mergedAt.minusSeconds(3600), mergedAt, "author");
+        Change rebased = new Change("c1", REPO_URL, "sha-new", mergedAt.minusSeconds(3600), mergedAt, "author");
+        Deployment deployment = new Deployment("d1", REPO_URL, "sha-new", mergedAt, mergedAt, "prod", "SUCCESS", "old notes");
+        Deployment edited = new Deployment("d1", REPO_URL, "sha-new", mergedAt, mergedAt, "prod", "SUCCESS", "new notes");
+
+        adapter.saveChanges(List.of(original));
+        adapter.saveChanges(List.of(rebased));
+        adapter.saveDeployments(List.of(deployment));
+        adapter.saveDeployments(List.of(edited));
+
+        assertThat(changeRepository.count()).isEqualTo(1);
+        assertThat(adapter.findChanges(REPO_URL, mergedAt.minusSeconds(60))).containsExactly(rebased);
+        assertThat(deploymentRepository.count()).isEqualTo(1);
+        assertThat(adapter.findDeployments(REPO_URL, mergedAt.minusSeconds(60))).containsExactly(edited);
+    }
+
+    @Test
+    void shouldPersistEveryRow_whenSaveSpansSeveralBatches() {
+        Instant start = Instant.parse("2026-01-01T00:00:00Z");
+        // Default batch size is 500
+        List<Incident> incidents = IntStream.range(0, 1234)
+            .mapToObj(i -> new Incident("i" + i, REPO_URL,
+                start.plusSeconds(i * 60L), i % 2 == 0 ? start.plusSeconds(i * 60L + 30) : null,
+                "low", null))
+            .toList();
+
+        adapter.saveIncidents(incidents);
+
+        assertThat(incidentRepository.count()).isEqualTo(1234);
+        assertThat(adapter.findIncidents(REPO_URL, start.minusSeconds(60)))
+            .usingRecursiveFieldByFieldElementComparator()
+            .containsExactlyInAnyOrderElementsOf(incidents);
+    }
+
+    @Test
+    void shouldFindChangesByIdOrCommitSha_whenEverMerged() {
+        Instant at = Instant.parse("2020-01-15T00:00:00Z");
+        Change byId = new Change("owner/repo/pr/1", REPO_URL, "sha1", at, at, "author");
+        Change bySha = new Change("owner/repo/pr/2", REPO_URL, "sha2", at, at, "author");
+        Change both = new Change("owner/repo/pr/3", REPO_URL, "sha3", at, at, "author");
+        adapter.saveChanges(List.of(byId, bySha, both,
+            new Change("owner/repo/pr/4", REPO_URL, "sha4", at, at, "author"),
+            new Change("owner/other/pr/1", "http://other.com", "sha2", at, at, "author")));
+
+        assertThat(adapter.findChanges(REPO_URL, List.of("owner/repo/pr/1", "owner/repo/pr/3"), List.of("sha2", "sha3")))
+            .extracting(Change::id)
+            .containsExactlyInAnyOrder("owner/repo/pr/1", "owner/repo/pr/2", "owner/repo/pr/3");
+        assertThat(adapter.findChanges(REPO_URL, List.of(), List.of("sha2"))).extracting(Change::id).containsExactly("owner/repo/pr/2");
+        assertThat(adapter.findChanges(REPO_URL, List.of(), List.of())).isEmpty();
+    }
+
+    @Test
+    void shouldPublishOneSavedEventPerRepository_underItsCanonicalUrl() {
+        Instant at = Instant.parse("2026-01-15T00:00:00Z");
+
+        adapter.saveChanges(List.of(
+            new Change("c1", REPO_URL, "sha1", at, at, "author"),
+            new Change("c2", REPO_URL + "/", "sha2", at, at, "author"),
+            new Change("c3", "https://GitHub.com/Owner/Repo.git", "sha3", at, at, "author"),
+            new Change("c4", "owner/repo", "sha4", at, at, "author")));
+        adapter.saveIncidents(List.of());
+
+        assertThat(applicationEvents.stream(EventsSavedEvent.class))
+            .containsExactly(new EventsSavedEvent(REPO_URL), new EventsSavedEvent("https://github.com/owner/repo"));
+    }
+
+    // -------------------------------------------------------------------------
+    // Repositories — one row per canonical URL
+    // -------------------------------------------------------------------------
+
+    @Test
+    void shouldStoreEverySpellingOfAUrlUnderOneRepository() {
+        Instant at = Instant.parse("2026-01-15T00:00:00Z");
+
+        adapter.saveChanges(List.of(
+            new Change("c1", "https://github.com/owner/repo.git", "sha1", at, at, "author"),
+            new Change("c2", "Owner/Repo", "sha2", at, at, "author")));
+        adapter.saveDeployments(List.of(
+            new Deployment("d1", "https://github.com/OWNER/repo/", "sha1", at, at, "prod", "SUCCESS", null)));
+
+        assertThat(jdbcTemplate.queryForList("SELECT url FROM repositories", String.class))
+            .containsExactly("https://github.com/owner/repo");
+        assertThat(adapter.findChanges("https://github.com/owner/repo", at.minusSeconds(60)))
+            .extracting(Change::id, Change::repositoryUrl)
+            .containsExactlyInAnyOrder(
+                tuple("c1", "https://github.com/owner/repo"),
+                tuple("c2", "https://github.com/owner/repo"));
+        assertThat(adapter.findDeployments("owner/repo.git", at.minusSeconds(60))).hasSize(1);
+    }
+
+    @Test
+    void shouldFindNothing_whenRepositoryWasNeverSaved() {
+        assertThat(adapter.findChanges("https://github.com/owner/unknown", Instant.EPOCH)).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM repositories", Integer.class)).isZero();
+    }
+
+    // -------------------------------------------------------------------------
+    // Sync state
+    // -------------------------------------------------------------------------
+
+    @Test
+    void shouldSaveAndReplaceSyncState() {
+        Instant syncedFrom = Instant.parse("2026-01-01T00:00:00Z");
+        SyncState first = new SyncState(REPO_URL, syncedFrom,
+            Instant.parse("2026-01-10T00:00:00Z"), Instant.parse("2026-01-11T00:00:00Z"),
+            syncedFrom, Instant.parse("2026-01-12T00:00:00Z"));
+        SyncState advanced = new SyncState(REPO_URL, syncedFrom,
+            Instant.parse("2026-01-20T00:00:00Z"), Instant.parse("2026-01-21T00:00:00Z"),
+            syncedFrom, Instant.parse("2026-01-22T00:00:00Z"));
+
+        adapter.saveSyncState(first);
+        adapter.saveSyncState(advanced);
+
+        assertThat(adapter.findSyncState(REPO_URL)).contains(advanced);
+        assertThat(adapter.findSyncState("http://other.com")).isEmpty();
+    }
+
+    // -------------------------------------------------------------------------
+    // Daily rollups
+    // -------------------------------------------------------------------------
+
+    @Test
+    void shouldUpsertAndFindDailyRollupsInDayRange() {
+        LocalDate day = LocalDate.parse("2026-01-10");
+        DailyRollup first = new DailyRollup(REPO_URL, day, 1, 0, 0, 3600, 1);
+        DailyRollup recomputed = new DailyRollup(REPO_URL, day, 2, 1, 600, 7200, 2);
+        DailyRollup next = new DailyRollup(REPO_URL, day.plusDays(1), 3, 0, 0, 0, 0);
+        DailyRollup outside = new DailyRollup(REPO_URL, day.plusDays(5), 1, 0, 0, 0, 0);
+        DailyRollup otherRepo = new DailyRollup("http://other.com", day, 9, 9, 9, 9, 9);
+
+        adapter.saveDailyRollups(List.of(first));
+        adapter.saveDailyRollups(List.of(next, outside, recomputed, otherRepo));
+
+        assertThat(adapter.findDailyRollups(REPO_URL, day, day.plusDays(4))).containsExactly(recomputed, next);
+    }
+
+    @Test
+    void shouldKeySyncStateAndDailyRollupsByRepository_forEverySpellingOfItsUrl() {
+        Instant at = Instant.parse("2026-01-01T00:00:00Z");
+        LocalDate day = LocalDate.parse("2026-01-10");
+
+        adapter.saveSyncState(new SyncState("git@github.com:Owner/Repo.git", at, at, at, at, at));
+        adapter.saveDailyRollups(List.of(new DailyRollup("https://github.com/owner/repo/", day, 1, 0, 0, 3600, 1)));
+        syncStateRepository.flush();
+
+        Long repositoryId = jdbcTemplate.queryForObject(
+            "SELECT id FROM repositories WHERE url = 'https://github.com/owner/repo'", Long.class);
+        assertThat(jdbcTemplate.queryForList("SELECT repository_id FROM sync_states", Long.class))
+            .containsExactly(repositoryId);
+        assertThat(jdbcTemplate.queryForList("SELECT repository_id FROM daily_rollups", Long.class))
+            .containsExactly(repositoryId);
+        assertThat(adapter.findSyncState("owner/repo"))
+            .contains(new SyncState("https://github.com/owner/repo", at, at, at, at, at));
+        assertThat(adapter.findDailyRollups("https://GitHub.com/owner/repo", day, day))
+            .containsExactly(new DailyRollup("https://github.com/owner/repo", day, 1, 0, 0, 3600, 1));
+    }
 }
@@ -1,30 +1,48 @@
 package com.gemini.dorametricsviewer.infrastructure.web;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gemini.dorametricsviewer.application.BatchScanService;
+import com.gemini.dorametricsviewer.application.CachingDoraMetricsService;
 import com.gemini.dorametricsviewer.application.DoraMetricsResult;
-import com.gemini.dorametricsviewer.application.DoraMetricsService;
+import com.gemini.dorametricsviewer.application.MetricsResultCache;
+import com.gemini.dorametricsviewer.application.MetricsTrend;
 import com.gemini.dorametricsviewer.domain.TimeWindow;
+import com.gemini.dorametricsviewer.domain.TrendBucket;
+import com.gemini.dorametricsviewer.infrastructure.configuration.BatchScanProperties;
+import com.gemini.dorametricsviewer.infrastructure.web.dto.BatchScanRequest;
 import com.gemini.dorametricsviewer.infrastructure.web.dto.ScanRequest;
+import com.gemini.dorametricsviewer.infrastructure.web.dto.TrendRequest;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(DoraMetricsController.class)
+@Import(BatchScanProperties.class)
+@TestPropertySource(properties = "dora.batch-scan.timeout=45m")
 class DoraMetricsControllerTest {
 
     @Autowired
@@ -34,7 +52,10 @@ class DoraMetricsControllerTest {
     private ObjectMapper objectMapper;
 
     @MockitoBean
-    private DoraMetricsService doraMetricsService;
+    private CachingDoraMetricsService doraMetricsService;
+
+    @MockitoBean
+    private BatchScanService batchScanService;
 
     // -------------------------------------------------------------------------
     // Happy-path test (original)
@@ -100,4 +121,113 @@ class DoraMetricsControllerTest {
                 .andExpect(status().isInternalServerError())
                 .andExpect(content().string(containsString("GitHub API unreachable")));
     }
+
+    // -------------------------------------------------------------------------
+    // Batch scan
+    // -------------------------------------------------------------------------
+
+    @Test
+    void scanBatch_shouldStreamOneLinePerRepository_thenTheSummary() throws Exception {
+        TimeWindow timeWindow = new TimeWindow(Instant.parse("2023-01-01T00:00:00Z"), Instant.parse("2023-02-01T00:00:00Z"));
+        BatchScanRequest request = new BatchScanRequest(null, "owner", timeWindow);
+        List<String> repoUrls = List.of("https://github.com/owner/a", "https://github.com/owner/b");
+        DoraMetricsResult result = new DoraMetricsResult(Duration.ofHours(2), 1.5, 20.0, Duration.ofMinutes(30));
+
+        when(batchScanService.resolveRepositories(null, "owner")).thenReturn(repoUrls);
+        when(batchScanService.scan(eq(repoUrls), eq(timeWindow), any())).thenAnswer(invocation -> {
+            Consumer<BatchScanService.RepositoryScan> onResult = invocation.getArgument(2);
+            onResult.accept(new BatchScanService.RepositoryScan("https://github.com/owner/b", result, null));
+            onResult.accept(new BatchScanService.RepositoryScan("https://github.com/owner/a", null, "Not Found"));
+            return new BatchScanService.Summary(2, 1, result);
+        });
+
+        MvcResult pending = mockMvc.perform(post("/api/metrics/scan/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andReturn();
+        String[] lines = mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString().split("\n");
+
+        assertThat(lines).hasSize(3);
+        assertThat(objectMapper.readTree(lines[0]).path("result").path("deploymentFrequency").asDouble()).isEqualTo(1.5);
+        assertThat(objectMapper.readTree(lines[1]).path("error").asText()).isEqualTo("Not Found");
+        assertThat(objectMapper.readTree(lines[2]).path("failed").asInt()).isEqualTo(1);
+    }
+
+    @Test
+    void scanBatch_shouldKeepTheResponseOpenForTheConfiguredTimeout() throws Exception {
+        TimeWindow timeWindow = new TimeWindow(Instant.parse("2023-01-01T00:00:00Z"), Instant.parse("2023-02-01T00:00:00Z"));
+        List<String> repoUrls = List.of("https://github.com/owner/a");
+        when(batchScanService.resolveRepositories(repoUrls, null)).thenReturn(repoUrls);
+        when(batchScanService.scan(eq(repoUrls), eq(timeWindow), any())).thenReturn(new BatchScanService.Summary(1, 0,
+                new DoraMetricsResult(Duration.ZERO, 0, 0, Duration.ZERO)));
+
+        MvcResult pending = mockMvc.perform(post("/api/metrics/scan/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchScanRequest(repoUrls, null, timeWindow))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Well beyond the servlet container's 30 second default
+        assertThat(pending.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofMinutes(45).toMillis());
+        mockMvc.perform(asyncDispatch(pending)).andExpect(status().isOk());
+    }
+
+    @Test
+    void scanBatch_shouldReturn400_whenThereIsNothingToScan() throws Exception {
+        TimeWindow timeWindow = new TimeWindow(Instant.now().minusSeconds(3600), Instant.now());
+        BatchScanRequest request = new BatchScanRequest(List.of(), null, timeWindow);
+
+        when(batchScanService.resolveRepositories(List.of(), null))
+                .thenThrow(new IllegalArgumentException("No repositories to scan"));
+
+        mockMvc.perform(post("/api/metrics/scan/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("No repositories to scan"));
+    }
+
+    // -------------------------------------------------------------------------
+    // Trend
+    // -------------------------------------------------------------------------
+
+    @Test
+    void trend_shouldReturnOnePointPerBucket() throws Exception {
+        String repoUrl = "https://github.com/owner/repo";
+        TimeWindow timeWindow = new TimeWindow(Instant.parse("2026-01-05T00:00:00Z"), Instant.parse("2026-01-19T00:00:00Z"));
+        TrendRequest request = new TrendRequest(repoUrl, timeWindow, TrendBucket.WEEK);
+        DoraMetricsResult metrics = new DoraMetricsResult(Duration.ofHours(2), 1.5, 20.0, Duration.ofMinutes(30));
+
+        when(doraMetricsService.calculateTrend(repoUrl, timeWindow, TrendBucket.WEEK)).thenReturn(new MetricsTrend(timeWindow, TrendBucket.WEEK, List.of(
+                new MetricsTrend.Point(new TimeWindow(timeWindow.start(), Instant.parse("2026-01-12T00:00:00Z")), metrics),
+                new MetricsTrend.Point(new TimeWindow(Instant.parse("2026-01-12T00:00:00Z"), timeWindow.end()), metrics))));
+
+        mockMvc.perform(post("/api/metrics/trend")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bucket").value("WEEK"))
+                .andExpect(jsonPath("$.points.length()").value(2))
+                .andExpect(jsonPath("$.points[1].timeWindow.start").value("2026-01-12T00:00:00Z"))
+                .andExpect(jsonPath("$.points[1].metrics.deploymentFrequency").value(1.5));
+    }
+
+    // -------------------------------------------------------------------------
+    // Result cache
+    // -------------------------------------------------------------------------
+
+    @Test
+    void cacheStats_shouldReturnHitMissAndEvictionCounts() throws Exception {
+        when(doraMetricsService.cacheStats()).thenReturn(new MetricsResultCache.Stats(7, 3, 1, 2));
+
+        mockMvc.perform(get("/api/metrics/cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits").value(7))
+                .andExpect(jsonPath("$.misses").value(3))
+                .andExpect(jsonPath("$.evictions").value(1))
+                .andExpect(jsonPath("$.entries").value(2));
+    }
 }
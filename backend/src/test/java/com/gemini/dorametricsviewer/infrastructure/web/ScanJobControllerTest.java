@@ -0,0 +1,120 @@
+package com.gemini.dorametricsviewer.infrastructure.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gemini.dorametricsviewer.application.CachingDoraMetricsService;
+import com.gemini.dorametricsviewer.application.DoraMetricsResult;
+import com.gemini.dorametricsviewer.application.ScanJob;
+import com.gemini.dorametricsviewer.application.ScanJobService;
+import com.gemini.dorametricsviewer.application.ScanProgress;
+import com.gemini.dorametricsviewer.domain.TimeWindow;
+import com.gemini.dorametricsviewer.infrastructure.configuration.ScanJobProperties;
+import com.gemini.dorametricsviewer.infrastructure.web.dto.ScanRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ScanJobController.class)
+@Import({ScanJobProperties.class, ScanJobControllerTest.Config.class})
+class ScanJobControllerTest {
+
+    private static final String REPO_URL = "https://github.com/owner/repo";
+    private static final TimeWindow WINDOW = new TimeWindow(Instant.parse("2023-01-01T00:00:00Z"), Instant.parse("2023-02-01T00:00:00Z"));
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        ScanJobService scanJobService(CachingDoraMetricsService doraMetricsService) {
+            return new ScanJobService(doraMetricsService, 1, 10, Duration.ofHours(1));
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ScanJobService scanJobService;
+
+    @MockitoBean
+    private CachingDoraMetricsService doraMetricsService;
+
+    @Test
+    void submit_shouldReturn202WithTheJobLocation_andStreamItsProgress() throws Exception {
+        when(doraMetricsService.calculateMetrics(eq(REPO_URL), eq(WINDOW), any())).thenAnswer(invocation -> {
+            ScanProgress progress = invocation.getArgument(2);
+            progress.stage(ScanProgress.Stage.FETCH);
+            progress.pageFetched(42);
+            return new DoraMetricsResult(Duration.ofHours(2), 1.5, 20.0, Duration.ofMinutes(30));
+        });
+
+        String location = mockMvc.perform(post("/api/metrics/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ScanRequest(REPO_URL, WINDOW))))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", startsWith("/api/metrics/jobs/")))
+                .andExpect(jsonPath("$.repoUrl").value(REPO_URL))
+                .andReturn().getResponse().getHeader("Location");
+        String id = location.substring(location.lastIndexOf('/') + 1);
+        ScanJob job = scanJobService.find(id).orElseThrow();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!job.snapshot().status().isDone() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        mockMvc.perform(get(location))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("SUCCEEDED"))
+                .andExpect(jsonPath("$.pagesFetched").value(1))
+                .andExpect(jsonPath("$.changesFetched").value(42))
+                .andExpect(jsonPath("$.result.deploymentFrequency").value(1.5));
+
+        MvcResult events = mockMvc.perform(get(location + "/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String stream = mockMvc.perform(asyncDispatch(events))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        // The job was already done, so the stream holds only the final event
+        assertThat(stream).startsWith("event:done\ndata:").contains("\"status\":\"SUCCEEDED\"");
+    }
+
+    @Test
+    void status_shouldReturn404_forAnUnknownJob() throws Exception {
+        mockMvc.perform(get("/api/metrics/jobs/unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void submit_shouldReturn400_withoutARepository() throws Exception {
+        mockMvc.perform(post("/api/metrics/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ScanRequest(" ", WINDOW))))
+                .andExpect(status().isBadRequest());
+    }
+}
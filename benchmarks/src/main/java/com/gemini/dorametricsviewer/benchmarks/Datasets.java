@@ -0,0 +1,177 @@
+package com.gemini.dorametricsviewer.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gemini.dorametricsviewer.domain.TimeWindow;
+import com.gemini.dorametricsviewer.domain.model.Change;
+import com.gemini.dorametricsviewer.domain.model.Deployment;
+import com.gemini.dorametricsviewer.domain.model.Incident;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark inputs: the captured {@code datasets/vscode} fixtures, or a seeded synthetic history
+ * with the requested number of changes and deployments.
+ */
+final class Datasets {
+
+    static final String VSCODE = "vscode";
+
+    private static final String VSCODE_URL = "https://github.com/microsoft/vscode";
+    private static final String SYNTHETIC_URL = "https://github.com/synthetic/repo";
+    private static final Instant SYNTHETIC_ORIGIN = Instant.parse("2025-01-01T00:00:00Z");
+
+    private Datasets() {
+    }
+
+    record History(String repoUrl, List<Change> changes, List<Deployment> deployments, List<Incident> incidents) {
+
+        TimeWindow window() {
+            Instant start = Instant.MAX;
+            Instant end = Instant.MIN;
+            for (Change change : changes) {
+                start = min(start, change.createdAt());
+                end = max(end, change.mergedAt());
+            }
+            for (Deployment deployment : deployments) {
+                start = min(start, deployment.deployedAt());
+                end = max(end, deployment.deployedAt());
+            }
+            return new TimeWindow(start.minusSeconds(1), end);
+        }
+
+        private static Instant min(Instant a, Instant b) {
+            return b != null && b.isBefore(a) ? b : a;
+        }
+
+        private static Instant max(Instant a, Instant b) {
+            return b != null && b.isAfter(a) ? b : a;
+        }
+    }
+
+    /**
+     * @param dataset {@value #VSCODE} or the number of synthetic changes and deployments to generate
+     */
+    static History load(String dataset) {
+        return VSCODE.equals(dataset) ? vscode() : synthetic(Integer.parseInt(dataset));
+    }
+
+    static History vscode() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        String repoPath = "microsoft/vscode";
+
+        List<Deployment> deployments = new ArrayList<>();
+        for (JsonNode release : readTree(objectMapper, "/datasets/vscode/deployments.json")) {
+            deployments.add(new Deployment(
+                    repoPath + "/release/" + release.path("id").asText(),
+                    VSCODE_URL,
+                    release.path("target_commitish").asText(null),
+                    instant(release.path("created_at")),
+                    instant(release.path("published_at")),
+                    "production",
+                    "SUCCESS",
+                    release.path("body").asText(null)
+            ));
+        }
+
+        List<Change> changes = new ArrayList<>();
+        for (JsonNode pr : readTree(objectMapper, "/datasets/vscode/changes.json")) {
+            Instant mergedAt = instant(pr.path("merged_at"));
+            if (mergedAt == null) {
+                continue;
+            }
+            changes.add(new Change(
+                    repoPath + "/pr/" + pr.path("number").asText(),
+                    VSCODE_URL,
+                    pr.path("merge_commit_sha").asText(null),
+                    instant(pr.path("created_at")),
+                    mergedAt,
+                    pr.path("user").path("login").asText("unknown")
+            ));
+        }
+
+        return new History(VSCODE_URL, changes, deployments, List.of());
+    }
+
+    /**
+     * Generates roughly one deployment per hour and {@code size} changes spread over the same span.
+     * A third of the changes match by commit SHA, a third are referenced from a release body and the
+     * rest only match by time, so every {@code MatchStrategy} gets exercised.
+     */
+    static History synthetic(int size) {
+        Random random = new Random(42);
+        String repoPath = "synthetic/repo";
+
+        Instant[] deployedAt = new Instant[size];
+        String[] shas = new String[size];
+        StringBuilder[] bodies = new StringBuilder[size];
+        for (int i = 0; i < size; i++) {
+            deployedAt[i] = SYNTHETIC_ORIGIN.plus(Duration.ofHours(i)).plusSeconds(random.nextInt(1800));
+            shas[i] = String.format("%040x", (long) i * 2654435761L);
+            bodies[i] = new StringBuilder("## What's changed\n");
+        }
+
+        List<Change> changes = new ArrayList<>(size);
+        for (int j = 0; j < size; j++) {
+            int prNumber = j + 1;
+            Instant mergedAt = SYNTHETIC_ORIGIN.plusSeconds((long) random.nextInt(size) * 3600 + random.nextInt(3600));
+            Instant createdAt = mergedAt.minus(Duration.ofMinutes(30 + random.nextInt(72 * 60)));
+
+            int target = Arrays.binarySearch(deployedAt, mergedAt);
+            target = target >= 0 ? target : -target - 1;
+
+            String sha = "unmatched-" + prNumber;
+            if (target < size) {
+                switch (j % 3) {
+                    case 0 -> sha = shas[target];
+                    case 1 -> bodies[target].append("- Change #").append(prNumber).append('\n');
+                    default -> { }
+                }
+            }
+            changes.add(new Change(repoPath + "/pr/" + prNumber, SYNTHETIC_URL, sha, createdAt, mergedAt, "author-" + (j % 50)));
+        }
+
+        List<Deployment> deployments = new ArrayList<>(size);
+        List<Incident> incidents = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            deployments.add(new Deployment(
+                    repoPath + "/release/" + i, SYNTHETIC_URL, shas[i],
+                    deployedAt[i].minusSeconds(600), deployedAt[i], "production", "SUCCESS", bodies[i].toString()));
+            if (i % 20 == 0) {
+                Instant detectedAt = deployedAt[i].plus(Duration.ofMinutes(10));
+                incidents.add(new Incident(
+                        repoPath + "/incident/" + i, SYNTHETIC_URL,
+                        detectedAt, detectedAt.plus(Duration.ofMinutes(60 + random.nextInt(8 * 60))), "high", "Synthetic outage"));
+            }
+        }
+
+        // GitHub lists releases and pull requests newest first
+        Collections.reverse(deployments);
+        changes.sort((a, b) -> b.mergedAt().compareTo(a.mergedAt()));
+        return new History(SYNTHETIC_URL, changes, deployments, incidents);
+    }
+
+    private static JsonNode readTree(ObjectMapper objectMapper, String resource) {
+        try (InputStream in = Datasets.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing benchmark fixture " + resource);
+            }
+            return objectMapper.readTree(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Instant instant(JsonNode node) {
+        return node.isTextual() ? Instant.parse(node.asText()) : null;
+    }
+}
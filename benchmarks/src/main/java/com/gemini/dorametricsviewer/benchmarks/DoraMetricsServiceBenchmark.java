@@ -0,0 +1,62 @@
+package com.gemini.dorametricsviewer.benchmarks;
+
+import com.gemini.dorametricsviewer.application.DoraMetricsResult;
+import com.gemini.dorametricsviewer.application.DoraMetricsService;
+import com.gemini.dorametricsviewer.application.ScanMetrics;
+import com.gemini.dorametricsviewer.domain.LeadTimeCalculator;
+import com.gemini.dorametricsviewer.domain.TimeWindow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@code calculateMetrics} aggregation with in-memory ports, so no network or database
+ * time is included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DoraMetricsServiceBenchmark {
+
+    @Param({Datasets.VSCODE, "1000", "10000", "100000"})
+    public String dataset;
+
+    @Param({"INFO", "DEBUG"})
+    public String logLevel;
+
+    private DoraMetricsService service;
+    private String repoUrl;
+    private TimeWindow window;
+
+    @Setup
+    public void setUp() {
+        LogLevels.set(logLevel);
+        Datasets.History history = Datasets.load(dataset);
+        service = new DoraMetricsService(
+                new InMemoryPorts.SourceControl(history),
+                new InMemoryPorts.DiscardingRepository(),
+                new LeadTimeCalculator(),
+                new ScanMetrics(new SimpleMeterRegistry()));
+        repoUrl = history.repoUrl();
+        window = history.window();
+    }
+
+    @Benchmark
+    public DoraMetricsResult calculateMetrics() {
+        return service.calculateMetrics(repoUrl, window);
+    }
+}
@@ -0,0 +1,100 @@
+package com.gemini.dorametricsviewer.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.gemini.dorametricsviewer.domain.model.Change;
+import com.gemini.dorametricsviewer.infrastructure.github.GitHubPayloadDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding the captured {@code /pulls} page of {@code datasets/vscode}, per pull request: binding the whole
+ * payload to DTOs as {@code RestClient.body(...)} used to, versus the streaming {@link GitHubPayloadDecoder}.
+ * Run with {@code -prof gc} to compare {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GitHubDecodingBenchmark {
+
+    private static final int PULL_REQUESTS = 50;
+    private static final String REPO_URL = "https://github.com/microsoft/vscode";
+    private static final String REPO_PATH = "microsoft/vscode";
+    private static final Instant SINCE = Instant.EPOCH;
+
+    private byte[] payload;
+    private ObjectMapper objectMapper;
+    private GitHubPayloadDecoder decoder;
+
+    /**
+     * The fields the adapter used to bind; unknown ones are ignored, as with Spring's default mapper.
+     */
+    record PullRequest(
+            String number,
+            @JsonProperty("merge_commit_sha") String mergeCommitSha,
+            @JsonProperty("created_at") Instant createdAt,
+            @JsonProperty("merged_at") Instant mergedAt,
+            User user
+    ) {
+        record User(String login) {
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream in = GitHubDecodingBenchmark.class.getResourceAsStream("/datasets/vscode/changes.json")) {
+            if (in == null) {
+                throw new IllegalStateException("Missing benchmark fixture /datasets/vscode/changes.json");
+            }
+            payload = in.readAllBytes();
+        }
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        decoder = new GitHubPayloadDecoder();
+
+        int pullRequests = decoder.readPullRequests(new ByteArrayInputStream(payload), REPO_PATH, REPO_URL, SINCE).pullRequests();
+        if (pullRequests != PULL_REQUESTS) {
+            throw new IllegalStateException("Expected " + PULL_REQUESTS + " pull requests in the fixture, found " + pullRequests);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PULL_REQUESTS)
+    public List<Change> databind() throws IOException {
+        List<PullRequest> prs = objectMapper.readValue(new ByteArrayInputStream(payload), new TypeReference<>() {});
+        return prs.stream()
+                .filter(pr -> pr.mergedAt() != null && pr.mergedAt().isAfter(SINCE))
+                .map(pr -> new Change(REPO_PATH + "/pr/" + pr.number(), REPO_URL, pr.mergeCommitSha(),
+                        pr.createdAt(), pr.mergedAt(), pr.user() != null ? pr.user().login() : "unknown"))
+                .toList();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PULL_REQUESTS)
+    public List<Change> streaming() throws IOException {
+        return decoder.readPullRequests(new ByteArrayInputStream(payload), REPO_PATH, REPO_URL, SINCE).changes();
+    }
+}
@@ -0,0 +1,117 @@
+package com.gemini.dorametricsviewer.benchmarks;
+
+import com.gemini.dorametricsviewer.domain.model.Change;
+import com.gemini.dorametricsviewer.domain.model.DailyRollup;
+import com.gemini.dorametricsviewer.domain.model.Deployment;
+import com.gemini.dorametricsviewer.domain.model.Incident;
+import com.gemini.dorametricsviewer.domain.model.SyncState;
+import com.gemini.dorametricsviewer.domain.port.MetricsRepositoryPort;
+import com.gemini.dorametricsviewer.domain.port.SourceControlPort;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Port implementations that keep I/O out of the measurements.
+ */
+final class InMemoryPorts {
+
+    private InMemoryPorts() {
+    }
+
+    static final class SourceControl implements SourceControlPort {
+
+        private final Datasets.History history;
+
+        SourceControl(Datasets.History history) {
+            this.history = history;
+        }
+
+        @Override
+        public List<Deployment> fetchDeployments(String repoUrl, Instant since) {
+            return history.deployments();
+        }
+
+        @Override
+        public List<Change> fetchChanges(String repoUrl, Instant since) {
+            return history.changes();
+        }
+
+        @Override
+        public List<Incident> fetchIncidents(String repoUrl, Instant since) {
+            return history.incidents();
+        }
+    }
+
+    static final class DiscardingRepository implements MetricsRepositoryPort {
+
+        @Override
+        public void saveDeployments(List<Deployment> deployments) {
+        }
+
+        @Override
+        public List<Deployment> findDeployments(String repoUrl, Instant since) {
+            return List.of();
+        }
+
+        @Override
+        public List<Deployment> findDeployments(String repoUrl, Instant start, Instant end) {
+            return List.of();
+        }
+
+        @Override
+        public void saveChanges(List<Change> changes) {
+        }
+
+        @Override
+        public List<Change> findChanges(String repoUrl, Instant since) {
+            return List.of();
+        }
+
+        @Override
+        public List<Change> findChanges(String repoUrl, Instant start, Instant end) {
+            return List.of();
+        }
+
+        @Override
+        public List<Change> findChanges(String repoUrl, Collection<String> ids, Collection<String> commitShas) {
+            return List.of();
+        }
+
+        @Override
+        public void saveIncidents(List<Incident> incidents) {
+        }
+
+        @Override
+        public List<Incident> findIncidents(String repoUrl, Instant since) {
+            return List.of();
+        }
+
+        @Override
+        public List<Incident> findIncidents(String repoUrl, Instant start, Instant end) {
+            return List.of();
+        }
+
+        @Override
+        public void saveSyncState(SyncState syncState) {
+        }
+
+        @Override
+        public Optional<SyncState> findSyncState(String repoUrl) {
+            // Never synced, so every invocation measures a full scan
+            return Optional.empty();
+        }
+
+        @Override
+        public void saveDailyRollups(List<DailyRollup> rollups) {
+        }
+
+        @Override
+        public List<DailyRollup> findDailyRollups(String repoUrl, LocalDate from, LocalDate to) {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.gemini.dorametricsviewer.benchmarks;
+
+import com.gemini.dorametricsviewer.domain.DeploymentIndex;
+import com.gemini.dorametricsviewer.domain.LeadTimeCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LeadTimeCalculatorBenchmark {
+
+    @Param({Datasets.VSCODE, "1000", "10000", "100000"})
+    public String dataset;
+
+    @Param({"INFO", "DEBUG"})
+    public String logLevel;
+
+    private Datasets.History history;
+    private LeadTimeCalculator calculator;
+
+    @Setup
+    public void setUp() {
+        LogLevels.set(logLevel);
+        history = Datasets.load(dataset);
+        calculator = new LeadTimeCalculator();
+    }
+
+    @Benchmark
+    public Duration calculate() {
+        return calculator.calculate(history.changes(), history.deployments());
+    }
+
+    @Benchmark
+    public DeploymentIndex buildIndex() {
+        return new DeploymentIndex(history.deployments());
+    }
+}
@@ -0,0 +1,20 @@
+package com.gemini.dorametricsviewer.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sets the application's log level for a benchmark run, so the cost of logging can be compared with
+ * debug output on and off.
+ */
+final class LogLevels {
+
+    private LogLevels() {
+    }
+
+    static void set(String level) {
+        Logger logger = (Logger) LoggerFactory.getLogger("com.gemini.dorametricsviewer");
+        logger.setLevel(Level.toLevel(level));
+    }
+}
@@ -0,0 +1,78 @@
+package com.gemini.dorametricsviewer.benchmarks;
+
+import com.gemini.dorametricsviewer.domain.DeploymentIndex;
+import com.gemini.dorametricsviewer.domain.ExactMatchStrategy;
+import com.gemini.dorametricsviewer.domain.MatchStrategy;
+import com.gemini.dorametricsviewer.domain.ReleaseBodyStrategy;
+import com.gemini.dorametricsviewer.domain.TimeWindowStrategy;
+import com.gemini.dorametricsviewer.domain.model.Change;
+import com.gemini.dorametricsviewer.domain.model.Deployment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of matching a single change, cycling through every change of the dataset.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchStrategyBenchmark {
+
+    @Param({"exact", "releaseBody", "timeWindow"})
+    public String strategy;
+
+    @Param({Datasets.VSCODE, "1000", "10000", "100000"})
+    public String dataset;
+
+    private MatchStrategy matchStrategy;
+    private List<Change> changes;
+    private List<Deployment> deployments;
+    private DeploymentIndex index;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        matchStrategy = switch (strategy) {
+            case "exact" -> new ExactMatchStrategy();
+            case "releaseBody" -> new ReleaseBodyStrategy();
+            case "timeWindow" -> new TimeWindowStrategy();
+            default -> throw new IllegalArgumentException("Unknown strategy " + strategy);
+        };
+        Datasets.History history = Datasets.load(dataset);
+        changes = history.changes();
+        deployments = history.deployments();
+        index = new DeploymentIndex(deployments);
+    }
+
+    @Benchmark
+    public Optional<Deployment> listScan() {
+        return matchStrategy.findDeployment(nextChange(), deployments);
+    }
+
+    @Benchmark
+    public Optional<Deployment> indexed() {
+        return matchStrategy.findDeployment(nextChange(), index);
+    }
+
+    private Change nextChange() {
+        Change change = changes.get(cursor);
+        cursor = cursor + 1 == changes.size() ? 0 : cursor + 1;
+        return change;
+    }
+}
@@ -0,0 +1,60 @@
+package com.gemini.dorametricsviewer.benchmarks;
+
+import com.gemini.dorametricsviewer.domain.LeadTimeCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of {@link LeadTimeCalculator#calculate} with the size of its fork/join pool. A parallelism of
+ * 1 is the sequential path; the parallel threshold is lowered to 1 so every run above it splits.
+ * Parallelism beyond the machine's cores only shows the cost of splitting.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelLeadTimeBenchmark {
+
+    @Param({"10000", "100000"})
+    public String dataset;
+
+    @Param({"1", "2", "4", "8", "16", "32"})
+    public int parallelism;
+
+    private Datasets.History history;
+    private ForkJoinPool pool;
+    private LeadTimeCalculator calculator;
+
+    @Setup
+    public void setUp() {
+        history = Datasets.load(dataset);
+        pool = new ForkJoinPool(parallelism);
+        calculator = new LeadTimeCalculator(LeadTimeCalculator.defaultStrategies(), pool, 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Duration calculate() {
+        return calculator.calculate(history.changes(), history.deployments());
+    }
+}
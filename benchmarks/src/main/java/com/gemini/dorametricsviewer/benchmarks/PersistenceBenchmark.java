@@ -0,0 +1,103 @@
+package com.gemini.dorametricsviewer.benchmarks;
+
+import com.gemini.dorametricsviewer.DoraMetricsViewerApplication;
+import com.gemini.dorametricsviewer.domain.model.Change;
+import com.gemini.dorametricsviewer.infrastructure.persistence.MetricsRepositoryAdapter;
+import com.gemini.dorametricsviewer.infrastructure.persistence.RepositoryKeys;
+import com.gemini.dorametricsviewer.infrastructure.persistence.mapper.MetricsMapper;
+import com.gemini.dorametricsviewer.infrastructure.persistence.repository.SpringDataChangeRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persisting a scan's changes into the in-memory H2 database: Spring Data {@code saveAll} (one merge per
+ * entity) against the batched {@code MERGE INTO} upsert behind {@link MetricsRepositoryAdapter}.
+ * Scores are rows per second.
+ * <p>
+ * {@code insert} starts every invocation from an empty table (first scan of a repository), {@code update}
+ * writes rows that are already stored (a re-scan of the same window).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(PersistenceBenchmark.ROWS)
+public class PersistenceBenchmark {
+
+    static final int ROWS = 5_000;
+
+    @Param({"insert", "update"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private SpringDataChangeRepository changeRepository;
+    private MetricsRepositoryAdapter adapter;
+    private MetricsMapper mapper;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private List<Change> changes;
+    private long repositoryId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(DoraMetricsViewerApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:benchmarks", "logging.level.root=WARN")
+                .run();
+        changeRepository = context.getBean(SpringDataChangeRepository.class);
+        adapter = context.getBean(MetricsRepositoryAdapter.class);
+        mapper = context.getBean(MetricsMapper.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        Datasets.History history = Datasets.synthetic(ROWS);
+        changes = history.changes();
+        repositoryId = context.getBean(RepositoryKeys.class).keyOf(history.repoUrl());
+    }
+
+    @Setup(Level.Invocation)
+    public void resetTable() {
+        if ("insert".equals(mode)) {
+            jdbcTemplate.execute("TRUNCATE TABLE changes");
+        } else if (changeRepository.count() == 0) {
+            adapter.saveChanges(changes);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void jpaSaveAll() {
+        transactionTemplate.executeWithoutResult(status ->
+                changeRepository.saveAll(changes.stream().map(change -> mapper.toEntity(change, repositoryId)).toList()));
+    }
+
+    @Benchmark
+    public void batchUpsert() {
+        transactionTemplate.executeWithoutResult(status -> adapter.saveChanges(changes));
+    }
+}
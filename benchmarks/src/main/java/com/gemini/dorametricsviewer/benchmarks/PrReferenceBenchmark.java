@@ -0,0 +1,98 @@
+package com.gemini.dorametricsviewer.benchmarks;
+
+import com.gemini.dorametricsviewer.domain.DeploymentIndex;
+import com.gemini.dorametricsviewer.domain.PrReferences;
+import com.gemini.dorametricsviewer.domain.model.Change;
+import com.gemini.dorametricsviewer.domain.model.Deployment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matching every PR of the vscode dataset against its release bodies: the former {@code String.contains}
+ * scan of every body per PR, against parsing each body once into {@link PrReferences} and looking PRs up,
+ * either in every body's set or in the {@link DeploymentIndex} built from them. Parsing is part of every
+ * measured call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrReferenceBenchmark {
+
+    private List<Deployment> deployments;
+    private String[] bodies;
+    private int[] prNumbers;
+
+    @Setup
+    public void setUp() {
+        Datasets.History history = Datasets.vscode();
+        deployments = history.deployments();
+        bodies = deployments.stream()
+                .map(Deployment::description)
+                .filter(description -> description != null)
+                .toArray(String[]::new);
+        prNumbers = history.changes().stream()
+                .map(Change::id)
+                .mapToInt(id -> Integer.parseInt(id.substring(id.lastIndexOf("/pr/") + 4)))
+                .toArray();
+    }
+
+    @Benchmark
+    public int substringScan() {
+        int matched = 0;
+        for (int prNumber : prNumbers) {
+            String hash = "#" + prNumber;
+            String pull = "/pull/" + prNumber;
+            for (String body : bodies) {
+                if (body.contains(hash) || body.contains(pull)) {
+                    matched++;
+                    break;
+                }
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    public int parseOnceThenLookUp() {
+        PrReferences[] references = new PrReferences[bodies.length];
+        for (int i = 0; i < bodies.length; i++) {
+            references[i] = PrReferences.parse(bodies[i]);
+        }
+        int matched = 0;
+        for (int prNumber : prNumbers) {
+            for (PrReferences body : references) {
+                if (body.contains(prNumber)) {
+                    matched++;
+                    break;
+                }
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    public int indexThenLookUp() {
+        DeploymentIndex index = new DeploymentIndex(deployments);
+        int matched = 0;
+        for (int prNumber : prNumbers) {
+            if (index.findByPrReference(prNumber).isPresent()) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+}